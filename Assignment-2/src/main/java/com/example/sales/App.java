@@ -1,13 +1,32 @@
 package com.example.sales;
 
+import com.example.sales.index.CategoryFilter;
+import com.example.sales.index.Dimension;
 import com.example.sales.model.SalesRecord;
+import com.example.sales.model.SalesRow;
 import com.example.sales.output.ConsoleReporter;
+import com.example.sales.output.ReportFormat;
+import com.example.sales.output.Reporter;
+import com.example.sales.output.StreamingReporter;
+import com.example.sales.profile.PipelineMetrics;
+import com.example.sales.profile.PipelineProfiler;
+import com.example.sales.reader.CsvExtract;
 import com.example.sales.reader.CsvSalesReader;
+import com.example.sales.reader.ExtractResult;
 import com.example.sales.service.AnalyticsService;
+import com.example.sales.service.OrderMetrics;
+import com.example.sales.service.PartialAggregate;
+import com.example.sales.service.PlannedAnalytics;
+import com.example.sales.service.QueryPlanner;
+import com.example.sales.service.SalesAnalytics;
 
 import java.nio.file.Path;
 import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -21,18 +40,167 @@ import java.util.stream.Stream;
  */
 public final class App {
 
+    /** Revenue threshold for the high-value partition, also baked into partial aggregates. */
+    static final double HIGH_VALUE_THRESHOLD = 500.0;
+
+    /** Length of the product and customer rankings. */
+    static final int DEFAULT_TOP_N = 10;
+
+    /**
+     * Usage: {@code [--profile] [--explain] [csv]} prints the report for one file, with
+     * {@code --explain} letting the query planner pick each section's access path and show why;
+     * {@code --partial <out> [csv]} writes the file's partial aggregate instead;
+     * {@code --merge <partial>...} prints the report for merged partials;
+     * {@code --extract <out> [--where DIM=v1,v2]... [--year yyyy] [csv]} copies matching rows to a new CSV.
+     * {@code --format text|json|csv|ndjson} writes report sections through a buffered writer in that format;
+     * {@code --batch <definitions> [--out-dir <dir>] [csv]} writes every report in the file from one scan.
+     */
     public static void main(String[] args) {
-        // Determine CSV file path (use argument or default)
-        Path csv = args.length > 0 
-                ? Path.of(args[0]) 
-                : Path.of("data/sales_data_sample.csv");
+        boolean profile = false;
+        boolean merge = false;
+        boolean explain = false;
+        Path partialOut = null;
+        Path extractOut = null;
+        CategoryFilter where = CategoryFilter.all();
+        int year = 0;
+        ReportFormat format = null;
+        Path batch = null;
+        Path outDir = Path.of(".");
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--profile" -> profile = true;
+                case "--merge" -> merge = true;
+                case "--explain" -> explain = true;
+                case "--partial" -> {
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--partial requires an output path");
+                    }
+                    partialOut = Path.of(args[++i]);
+                }
+                case "--extract" -> {
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--extract requires an output path");
+                    }
+                    extractOut = Path.of(args[++i]);
+                }
+                case "--where" -> {
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--where requires DIMENSION=value[,value...]");
+                    }
+                    where = where(where, args[++i]);
+                }
+                case "--year" -> {
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--year requires a year");
+                    }
+                    year = Integer.parseInt(args[++i]);
+                }
+                case "--format" -> {
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--format requires text, json, csv or ndjson");
+                    }
+                    format = ReportFormat.parse(args[++i]);
+                }
+                case "--batch" -> {
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--batch requires a definitions file");
+                    }
+                    batch = Path.of(args[++i]);
+                }
+                case "--out-dir" -> {
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("--out-dir requires a directory");
+                    }
+                    outDir = Path.of(args[++i]);
+                }
+                default -> positional.add(args[i]);
+            }
+        }
+        try (Reporter rpt = format == null ? new ConsoleReporter() : StreamingReporter.toStdout(format)) {
+            // Combine partials written by other runs into one report
+            if (merge) {
+                if (positional.isEmpty()) {
+                    throw new IllegalArgumentException("--merge requires at least one partial file");
+                }
+                PartialAggregate merged = positional.stream()
+                        .map(Path::of)
+                        .map(PartialAggregate::read)
+                        .reduce(PartialAggregate::merge)
+                        .orElseThrow();
+                report(merged, rpt);
+                return;
+            }
+
+            // Determine CSV file path (first positional argument or default)
+            Path csv = positional.isEmpty()
+                    ? Path.of("data/sales_data_sample.csv")
+                    : Path.of(positional.get(0));
+
+            // Many report variants from one load and one fused scan
+            if (batch != null) {
+                Map<String, Path> written = ReportBatch.read(batch).run(CsvSalesReader.streamSupplier(csv), outDir);
+                rpt.info("Batch Reports Written", written);
+                return;
+            }
+
+            // Copy matching rows verbatim instead of reporting
+            if (extractOut != null) {
+                int wantedYear = year;
+                Predicate<SalesRow> filter = wantedYear == 0 ? where : where.and(r -> r.orderYear() == wantedYear);
+                ExtractResult result = CsvExtract.write(csv, extractOut, filter);
+                rpt.info("Extract Written", extractOut + " (" + result.rowsWritten() + " of "
+                        + result.rowsScanned() + " rows)");
+                return;
+            }
+
+            // Optional per-phase profiling, also visible over JMX while running
+            if (profile) {
+                PipelineProfiler.setEnabled(true);
+                PipelineMetrics.register();
+            }
+
+            // Create stream supplier for reusable data access
+            Supplier<Stream<SalesRecord>> supplier = CsvSalesReader.streamSupplier(csv);
+
+            // Initialize service
+            AnalyticsService svc = new AnalyticsService(supplier);
 
-        // Create stream supplier for reusable data access
-        Supplier<Stream<SalesRecord>> supplier = CsvSalesReader.streamSupplier(csv);
+            if (partialOut != null) {
+                svc.partialAggregate(HIGH_VALUE_THRESHOLD).write(partialOut);
+                rpt.info("Partial Aggregate Written", partialOut);
+            } else if (explain) {
+                PlannedAnalytics planned = new PlannedAnalytics(QueryPlanner.forFile(csv));
+                report(planned, rpt);
+                rpt.info("Query Plan", planned.explain());
+            } else {
+                report(svc, rpt);
+            }
 
-        // Initialize service and reporter
-        AnalyticsService svc = new AnalyticsService(supplier);
-        ConsoleReporter rpt = new ConsoleReporter();
+            if (profile) {
+                rpt.info("Profile", PipelineProfiler.snapshot().breakdown());
+                PipelineProfiler.setEnabled(false);
+            }
+        }
+    }
+
+    /** Adds a {@code DIMENSION=v1,v2} argument to the filter; dimension names are case-insensitive. */
+    static CategoryFilter where(CategoryFilter filter, String arg) {
+        int eq = arg.indexOf('=');
+        if (eq <= 0 || eq == arg.length() - 1) {
+            throw new IllegalArgumentException("Expected DIMENSION=value[,value...]: " + arg);
+        }
+        Dimension dim = Dimension.valueOf(arg.substring(0, eq).trim().toUpperCase(Locale.ROOT));
+        return filter.and(dim, arg.substring(eq + 1).split(","));
+    }
+
+    /** Prints every report section; the same output for a live service or merged partials. */
+    static void report(SalesAnalytics svc, Reporter rpt) {
+        report(svc, rpt, HIGH_VALUE_THRESHOLD, DEFAULT_TOP_N);
+    }
+
+    /** Prints every report section with the given high-value threshold and ranking length. */
+    static void report(SalesAnalytics svc, Reporter rpt, double threshold, int topN) {
         NumberFormat nf = NumberFormat.getCurrencyInstance(Locale.US);
 
         // Basic financial metrics
@@ -41,6 +209,12 @@ public final class App {
         rpt.info("Total Quantity", svc.totalQuantity());
         rpt.info("Average Order Value", nf.format(svc.averageOrderValue()));
 
+        // Order-level (basket) metrics
+        OrderMetrics orders = svc.orderMetrics();
+        rpt.info("Distinct Orders", orders.distinctOrders());
+        rpt.info("Average Basket Value", nf.format(orders.averageBasketValue()));
+        rpt.info("Lines per Order", String.format("%.2f", orders.averageLinesPerOrder()));
+
         // Temporal analysis
         rpt.info("Revenue by Year", svc.revenueByYear());
 
@@ -48,18 +222,18 @@ public final class App {
         rpt.info("Revenue by Region", svc.revenueByRegion());
 
         // Top performers
-        rpt.info("Top 10 Products by Revenue", svc.topProducts(10));
-        rpt.info("Top 10 Customers by Revenue", svc.topCustomers(10));
+        rpt.info("Top " + topN + " Products by Revenue", svc.topProducts(topN));
+        rpt.info("Top " + topN + " Customers by Revenue", svc.topCustomers(topN));
 
         // Operational metrics
         rpt.info("Orders by Status", svc.ordersByStatus());
         rpt.info("Orders by DealSize", svc.ordersByDealSize());
 
         // Advanced analytics
-        double threshold = 500.0;
         rpt.info("Partition High Value Orders (> " + threshold + ")", 
                 svc.partitionHighValue(threshold));
         rpt.info("Monthly Revenue (YYYY-MM)", svc.monthlyRevenue());
+        rpt.info("Order Value Percentiles by Territory", svc.orderValuePercentilesByTerritory());
 
         // Data quality checks
         rpt.info("Data Quality Checks", svc.dataQualityChecks());
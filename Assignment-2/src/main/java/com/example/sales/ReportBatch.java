@@ -0,0 +1,147 @@
+package com.example.sales;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.model.SalesRow;
+import com.example.sales.output.StreamingReporter;
+import com.example.sales.service.PartialAggregate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Runs many report definitions over one file in a single JVM and a single pass. Every
+ * report section can be answered from a {@link PartialAggregate}, so the batch builds one
+ * aggregate per distinct (filter, year, threshold) combination, feeds them all from one
+ * scan and renders each definition from its aggregate into its own file. Definitions
+ * that differ only in top-N or format share an aggregate; ones with the same filter
+ * share the filter test. See {@link ReportDefinition} for the file format; blank lines
+ * and lines starting with # are ignored.
+ */
+final class ReportBatch {
+
+    private final List<ReportDefinition> definitions;
+
+    ReportBatch(List<ReportDefinition> definitions) {
+        Set<String> names = new HashSet<>();
+        for (ReportDefinition d : definitions) {
+            if (!names.add(d.name())) {
+                throw new IllegalArgumentException("Duplicate report name: " + d.name());
+            }
+        }
+        this.definitions = List.copyOf(definitions);
+    }
+
+    /** Reads a definitions file; errors name the offending line. */
+    static ReportBatch read(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read report definitions " + file, e);
+        }
+        List<ReportDefinition> definitions = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                definitions.add(ReportDefinition.parse(line));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(file + ":" + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        if (definitions.isEmpty()) {
+            throw new IllegalArgumentException("No report definitions in " + file);
+        }
+        return new ReportBatch(definitions);
+    }
+
+    List<ReportDefinition> definitions() {
+        return definitions;
+    }
+
+    /**
+     * Scans the source once and writes every report into outDir, creating it if needed.
+     * Returns each report's name and output file, in definition order.
+     */
+    Map<String, Path> run(Supplier<Stream<SalesRecord>> source, Path outDir) {
+        Map<List<Object>, FilterGroup> groups = new LinkedHashMap<>();
+        for (ReportDefinition d : definitions) {
+            groups.computeIfAbsent(d.rowsKey(), k -> new FilterGroup(d.rows())).aggregateFor(d.threshold());
+        }
+        List<FilterGroup> fused = List.copyOf(groups.values());
+        try (Stream<SalesRecord> s = source.get()) {
+            s.forEach(r -> {
+                for (FilterGroup g : fused) {
+                    g.accept(r);
+                }
+            });
+        }
+
+        try {
+            Files.createDirectories(outDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create output directory " + outDir, e);
+        }
+        Map<String, Path> written = new LinkedHashMap<>();
+        for (ReportDefinition d : definitions) {
+            PartialAggregate aggregate = groups.get(d.rowsKey()).aggregateFor(d.threshold());
+            Path out = outDir.resolve(d.fileName());
+            try (StreamingReporter rpt = StreamingReporter.toFile(d.format(), out)) {
+                App.report(aggregate, rpt, d.threshold(), d.topN());
+            }
+            written.put(d.name(), out);
+        }
+        return written;
+    }
+
+    /** Number of aggregates one run fills, i.e. the distinct (rows, threshold) pairs. */
+    int aggregateCount() {
+        Set<List<Object>> keys = new HashSet<>();
+        for (ReportDefinition d : definitions) {
+            keys.add(List.of(d.rowsKey(), d.threshold()));
+        }
+        return keys.size();
+    }
+
+    /** Aggregates of the definitions sharing one row filter, one per threshold. */
+    private static final class FilterGroup {
+        private final Predicate<SalesRow> rows;
+        private final Map<Double, PartialAggregate> byThreshold = new LinkedHashMap<>();
+        private PartialAggregate[] aggregates = new PartialAggregate[0];
+
+        FilterGroup(Predicate<SalesRow> rows) {
+            this.rows = rows;
+        }
+
+        PartialAggregate aggregateFor(double threshold) {
+            PartialAggregate p = byThreshold.get(threshold);
+            if (p == null) {
+                p = new PartialAggregate(threshold);
+                byThreshold.put(threshold, p);
+                aggregates = byThreshold.values().toArray(new PartialAggregate[0]);
+            }
+            return p;
+        }
+
+        void accept(SalesRecord r) {
+            if (rows.test(r)) {
+                for (PartialAggregate p : aggregates) {
+                    p.add(r);
+                }
+            }
+        }
+    }
+}
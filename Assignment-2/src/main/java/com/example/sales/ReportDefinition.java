@@ -0,0 +1,112 @@
+package com.example.sales;
+
+import com.example.sales.index.CategoryFilter;
+import com.example.sales.model.SalesRow;
+import com.example.sales.output.ReportFormat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * One report variant of a batch file: which rows it covers and how it is rendered.
+ * A definition line is the report name followed by {@code key=value} options:
+ * {@code where=DIM=v1,v2} (repeatable), {@code year=yyyy}, {@code threshold=n},
+ * {@code top=n} and {@code format=text|json|csv|ndjson}, separated by whitespace; double
+ * quotes keep a value with spaces together. The name becomes the output file name, so it
+ * is limited to letters, digits, dots, dashes and underscores.
+ *
+ * @param threshold revenue threshold of the high-value partition
+ * @param topN      length of the product and customer rankings
+ */
+record ReportDefinition(String name, CategoryFilter where, int year, double threshold, int topN,
+                        ReportFormat format) {
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9._-]+");
+
+    /** Parses one definition line, e.g. {@code emea-2004 where=TERRITORY=EMEA year=2004 format=json}. */
+    static ReportDefinition parse(String line) {
+        List<String> tokens = tokenize(line);
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("Missing report name");
+        }
+        String name = tokens.get(0);
+        if (!NAME.matcher(name).matches() || name.startsWith(".")) {
+            throw new IllegalArgumentException("Invalid report name: " + name);
+        }
+        CategoryFilter where = CategoryFilter.all();
+        int year = 0;
+        double threshold = App.HIGH_VALUE_THRESHOLD;
+        int topN = App.DEFAULT_TOP_N;
+        ReportFormat format = ReportFormat.TEXT;
+        for (String token : tokens.subList(1, tokens.size())) {
+            int eq = token.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value: " + token);
+            }
+            String value = token.substring(eq + 1);
+            switch (token.substring(0, eq)) {
+                case "where" -> where = App.where(where, value);
+                case "year" -> year = Integer.parseInt(value);
+                case "threshold" -> threshold = Double.parseDouble(value);
+                case "top" -> {
+                    topN = Integer.parseInt(value);
+                    if (topN <= 0) {
+                        throw new IllegalArgumentException("top must be positive: " + value);
+                    }
+                }
+                case "format" -> format = ReportFormat.parse(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + token);
+            }
+        }
+        return new ReportDefinition(name, where, year, threshold, topN, format);
+    }
+
+    /** Splits on whitespace outside double quotes and drops the quotes. */
+    private static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean quoted = false;
+        boolean pending = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+                pending = true;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (pending) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    pending = false;
+                }
+            } else {
+                token.append(c);
+                pending = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote: " + line);
+        }
+        if (pending) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    /** Rows the report covers. */
+    Predicate<SalesRow> rows() {
+        int wantedYear = year;
+        return year == 0 ? where : where.and(r -> r.orderYear() == wantedYear);
+    }
+
+    /** Definitions with equal keys cover the same rows, so they can share one aggregate. */
+    List<Object> rowsKey() {
+        return List.of(where.predicates(), year);
+    }
+
+    /** Output file name, e.g. {@code emea-2004.json}. */
+    String fileName() {
+        return name + "." + format.extension();
+    }
+}
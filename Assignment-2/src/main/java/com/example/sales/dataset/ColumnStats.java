@@ -0,0 +1,39 @@
+package com.example.sales.dataset;
+
+/**
+ * Load-time statistics of one column. Numeric columns carry min and max; categorical
+ * columns report NaN for both. Empty strings count as nulls. distinct is a
+ * HyperLogLog estimate over the non-null values.
+ */
+public record ColumnStats(String column, long rowCount, long nullCount, double min, double max, long distinct) {
+
+    public long nonNullCount() {
+        return rowCount - nullCount;
+    }
+
+    /**
+     * Estimated fraction of rows equal to one of {@code values} distinct values, assuming
+     * values are uniformly frequent: values / distinct, scaled by the non-null fraction.
+     */
+    public double equalitySelectivity(int values) {
+        if (rowCount == 0 || distinct == 0) {
+            return 0.0;
+        }
+        return Math.min(1.0, (double) values / distinct) * nonNullCount() / rowCount;
+    }
+
+    /** Estimated fraction of rows in [lo, hi], assuming values spread evenly over [min, max]. */
+    public double rangeSelectivity(double lo, double hi) {
+        if (rowCount == 0 || Double.isNaN(min) || hi < min || lo > max) {
+            return 0.0;
+        }
+        double fraction = max == min ? 1.0 : (Math.min(hi, max) - Math.max(lo, min)) / (max - min);
+        return Math.max(0.0, Math.min(1.0, fraction)) * nonNullCount() / rowCount;
+    }
+
+    @Override
+    public String toString() {
+        String range = Double.isNaN(min) ? "" : String.format(", min=%.2f, max=%.2f", min, max);
+        return String.format("%s: rows=%d, nulls=%d, distinct~%d%s", column, rowCount, nullCount, distinct, range);
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.sales.dataset;
+
+import com.example.sales.reader.CsvSalesReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Holder of the current {@link SalesDataset} for long-running processes whose source
+ * changes. Each load is published as a snapshot with an increasing epoch. Readers
+ * {@link #acquire()} a lease on whatever snapshot is current and keep it for the whole
+ * query, so a reload never changes data under them. Reloads build the next dataset on a
+ * background thread and swap it in with one atomic reference update, so readers never
+ * wait. A replaced snapshot is released once its last lease closes.
+ */
+public final class ReloadableDataset implements Closeable {
+
+    private final Supplier<SalesDataset> loader;
+    private final Supplier<?> version;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicReference<RuntimeException> lastFailure = new AtomicReference<>();
+    private final ScheduledExecutorService reloader;
+    private volatile LongConsumer releaseListener = epoch -> { };
+    private volatile boolean closed;
+    private long nextEpoch = 1;
+
+    /**
+     * Loads the first snapshot on the calling thread. version identifies the source
+     * state (e.g. file time and size) so {@link #reloadIfChanged()} can skip no-op reloads.
+     */
+    public ReloadableDataset(Supplier<SalesDataset> loader, Supplier<?> version) {
+        this.loader = Objects.requireNonNull(loader, "loader");
+        this.version = Objects.requireNonNull(version, "version");
+        this.reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dataset-reload");
+            t.setDaemon(true);
+            return t;
+        });
+        current.set(load());
+    }
+
+    /** Reloadable dataset over a CSV file, versioned by its modification time and size. */
+    public static ReloadableDataset ofFile(Path csvPath) {
+        return new ReloadableDataset(() -> SalesDataset.load(CsvSalesReader.streamSupplier(csvPath)),
+                () -> fileVersion(csvPath));
+    }
+
+    /** Leases the current snapshot; close the lease when the query is done. Never blocks. */
+    public Lease acquire() {
+        while (true) {
+            Snapshot s = current.get();
+            if (s == null) {
+                throw new IllegalStateException("Dataset is closed");
+            }
+            if (s.retain()) {
+                return new Lease(s);
+            }
+            // s was swapped out and released between the read and retain; take the new one
+        }
+    }
+
+    /** Runs one query against a single snapshot. */
+    public <T> T read(Function<SalesDataset, T> query) {
+        try (Lease lease = acquire()) {
+            return query.apply(lease.dataset());
+        }
+    }
+
+    /** Epoch of the snapshot new leases get. */
+    public long epoch() {
+        Snapshot s = current.get();
+        if (s == null) {
+            throw new IllegalStateException("Dataset is closed");
+        }
+        return s.epoch;
+    }
+
+    /**
+     * Builds a new snapshot in the background and publishes it. The future yields the new
+     * epoch, or fails with the loader's exception, in which case the current snapshot stays.
+     */
+    public CompletableFuture<Long> reload() {
+        return CompletableFuture.supplyAsync(this::swap, reloader);
+    }
+
+    /** Like {@link #reload()}, but keeps the current snapshot if the source version is unchanged. */
+    public CompletableFuture<Long> reloadIfChanged() {
+        return CompletableFuture.supplyAsync(this::swapIfChanged, reloader);
+    }
+
+    /**
+     * Polls the source version at the given interval and reloads when it changes.
+     * Failed reloads keep the current snapshot and are reported by {@link #lastReloadFailure()}.
+     */
+    public void watch(Duration interval) {
+        if (interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("Watch interval must be positive: " + interval);
+        }
+        long millis = interval.toMillis();
+        reloader.scheduleWithFixedDelay(() -> {
+            try {
+                swapIfChanged();
+            } catch (RuntimeException e) {
+                lastFailure.set(e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Most recent failure of a reload, or null if none failed. */
+    public RuntimeException lastReloadFailure() {
+        return lastFailure.get();
+    }
+
+    /** Called with the epoch of each snapshot once it is replaced and its last lease is closed. */
+    public void onRelease(LongConsumer listener) {
+        this.releaseListener = Objects.requireNonNull(listener, "listener");
+    }
+
+    /** Stops reloading; open leases stay valid until closed, new ones are refused. */
+    @Override
+    public void close() {
+        closed = true;
+        reloader.shutdownNow();
+        Snapshot s = current.getAndSet(null);
+        if (s != null) {
+            s.release();
+        }
+    }
+
+    // Runs only on the reloader thread, or in the constructor before it starts.
+    private Snapshot load() {
+        Object v = version.get();
+        return new Snapshot(this, nextEpoch++, loader.get(), v);
+    }
+
+    private long swap() {
+        try {
+            if (closed) {
+                throw new IllegalStateException("Dataset is closed");
+            }
+            Snapshot next = load();
+            Snapshot old = current.getAndUpdate(s -> s == null ? null : next);
+            if (old == null || closed && current.compareAndSet(next, null)) {
+                // closed while loading: nobody else will ever release the new snapshot
+                next.release();
+                if (old != null) {
+                    old.release();
+                }
+                throw new IllegalStateException("Dataset is closed");
+            }
+            old.release();
+            lastFailure.set(null);
+            return next.epoch;
+        } catch (RuntimeException e) {
+            lastFailure.set(e);
+            throw e;
+        }
+    }
+
+    private long swapIfChanged() {
+        Snapshot s = current.get();
+        if (s != null && Objects.equals(s.version, version.get())) {
+            return s.epoch;
+        }
+        return swap();
+    }
+
+    private static String fileVersion(Path csvPath) {
+        try {
+            return Files.getLastModifiedTime(csvPath).toMillis() + ":" + Files.size(csvPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stat " + csvPath, e);
+        }
+    }
+
+    /**
+     * One published dataset. refs counts open leases plus one for the holder while the
+     * snapshot is current; at zero it is released and can never be retained again.
+     */
+    private static final class Snapshot {
+        private final ReloadableDataset owner;
+        private final long epoch;
+        private final Object version;
+        private final AtomicInteger refs = new AtomicInteger(1);
+        private volatile SalesDataset dataset;
+
+        Snapshot(ReloadableDataset owner, long epoch, SalesDataset dataset, Object version) {
+            this.owner = owner;
+            this.epoch = epoch;
+            this.dataset = dataset;
+            this.version = version;
+        }
+
+        boolean retain() {
+            int r;
+            do {
+                r = refs.get();
+                if (r == 0) {
+                    return false;
+                }
+            } while (!refs.compareAndSet(r, r + 1));
+            return true;
+        }
+
+        void release() {
+            if (refs.decrementAndGet() == 0) {
+                dataset = null;
+                owner.releaseListener.accept(epoch);
+            }
+        }
+    }
+
+    /** A reader's hold on one snapshot; the dataset stays fixed until the lease is closed. */
+    public static final class Lease implements AutoCloseable {
+        private final Snapshot snapshot;
+        private boolean closed;
+
+        private Lease(Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        public SalesDataset dataset() {
+            if (closed) {
+                throw new IllegalStateException("Lease is closed");
+            }
+            return snapshot.dataset;
+        }
+
+        public long epoch() {
+            return snapshot.epoch;
+        }
+
+        /** Idempotent; the last close on a replaced snapshot releases it. */
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                snapshot.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.sales.dataset;
+
+import com.example.sales.index.BitmapIndex;
+import com.example.sales.index.CategoryFilter;
+import com.example.sales.index.NumericColumn;
+import com.example.sales.index.RevenueIndex;
+import com.example.sales.index.RoaringBitmap;
+import com.example.sales.index.ZoneMap;
+import com.example.sales.model.SalesRecord;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Immutable in-memory snapshot of a sales file with measure columns, bitmap indexes
+ * and per-block zone maps. Built once at load time; row ids are positions in load order.
+ */
+public final class SalesDataset {
+
+    /** Rows per zone-map block. */
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private static final Comparator<SalesRecord> BY_ORDER_DATE =
+            Comparator.comparing(SalesRecord::orderDate, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final List<SalesRecord> records;
+    private final double[] revenue;
+    private final BitmapIndex index;
+    private final Map<NumericColumn, double[]> columns = new EnumMap<>(NumericColumn.class);
+    private final Map<NumericColumn, ZoneMap> zoneMaps = new EnumMap<>(NumericColumn.class);
+    private final boolean clusteredByOrderDate;
+    private final TableStats stats;
+    private volatile RevenueIndex revenueIndex;
+
+    private SalesDataset(List<SalesRecord> records, boolean clusterByOrderDate, int blockSize) {
+        if (clusterByOrderDate) {
+            List<SalesRecord> sorted = new ArrayList<>(records);
+            sorted.sort(BY_ORDER_DATE);
+            records = sorted;
+        }
+        this.records = List.copyOf(records);
+        this.clusteredByOrderDate = clusterByOrderDate;
+        this.revenue = new double[this.records.size()];
+        for (NumericColumn col : NumericColumn.values()) {
+            columns.put(col, new double[revenue.length]);
+        }
+        BitmapIndex.Builder builder = BitmapIndex.builder();
+        TableStats.Builder statsBuilder = TableStats.builder();
+        for (int row = 0; row < revenue.length; row++) {
+            SalesRecord r = this.records.get(row);
+            revenue[row] = r.revenue();
+            for (Map.Entry<NumericColumn, double[]> e : columns.entrySet()) {
+                e.getValue()[row] = e.getKey().valueOf(r);
+            }
+            builder.add(r);
+            statsBuilder.add(r);
+        }
+        this.index = builder.build();
+        this.stats = statsBuilder.build();
+        columns.forEach((col, values) -> zoneMaps.put(col, ZoneMap.build(values, blockSize)));
+    }
+
+    /** Materializes one stream from the supplier and builds the indexes. */
+    public static SalesDataset load(Supplier<Stream<SalesRecord>> supplier) {
+        return load(supplier, false, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Materializes one stream from the supplier, optionally sorting rows by orderDate
+     * first so date-range queries can skip most zone-map blocks.
+     */
+    public static SalesDataset load(Supplier<Stream<SalesRecord>> supplier, boolean clusterByOrderDate, int blockSize) {
+        try (Stream<SalesRecord> s = supplier.get()) {
+            return new SalesDataset(s.toList(), clusterByOrderDate, blockSize);
+        }
+    }
+
+    /** Builds a dataset over already materialized records. */
+    public static SalesDataset of(List<SalesRecord> records) {
+        return new SalesDataset(records, false, DEFAULT_BLOCK_SIZE);
+    }
+
+    public int size() {
+        return records.size();
+    }
+
+    public SalesRecord record(int row) {
+        return records.get(row);
+    }
+
+    /** Fresh stream over the snapshot; usable as a Supplier via {@code dataset::stream}. */
+    public Stream<SalesRecord> stream() {
+        return records.stream();
+    }
+
+    public BitmapIndex index() {
+        return index;
+    }
+
+    public ZoneMap zoneMap(NumericColumn column) {
+        return zoneMaps.get(column);
+    }
+
+    /** Column statistics collected at load time, for query planning. */
+    public TableStats stats() {
+        return stats;
+    }
+
+    /** Sorted revenue index with prefix sums, built on first use and then shared. */
+    public RevenueIndex revenueIndex() {
+        RevenueIndex idx = revenueIndex;
+        if (idx == null) {
+            synchronized (this) {
+                idx = revenueIndex;
+                if (idx == null) {
+                    idx = RevenueIndex.build(revenue);
+                    revenueIndex = idx;
+                }
+            }
+        }
+        return idx;
+    }
+
+    /** True if rows were sorted by orderDate at load time. */
+    public boolean isClusteredByOrderDate() {
+        return clusteredByOrderDate;
+    }
+
+    /** Resolves a filter to matching row ids using only the bitmap index. */
+    public RoaringBitmap select(CategoryFilter filter) {
+        return index.evaluate(filter);
+    }
+
+    /**
+     * Rows whose column value lies in [lo, hi], reading only blocks the zone map
+     * cannot rule out and taking fully covered blocks without checking rows.
+     */
+    public RoaringBitmap selectRange(NumericColumn column, double lo, double hi) {
+        ZoneMap zm = zoneMaps.get(column);
+        double[] values = columns.get(column);
+        RoaringBitmap out = new RoaringBitmap();
+        for (int b = 0; b < zm.blockCount(); b++) {
+            if (!zm.mayContain(b, lo, hi)) {
+                continue;
+            }
+            boolean all = zm.fullyInside(b, lo, hi);
+            for (int row = zm.blockStart(b); row < zm.blockEnd(b); row++) {
+                if (all || (values[row] >= lo && values[row] <= hi)) {
+                    out.add(row);
+                }
+            }
+        }
+        return out;
+    }
+
+    /** Rows with orderDate in [from, to], both inclusive. */
+    public RoaringBitmap selectDateRange(LocalDate from, LocalDate to) {
+        return selectRange(NumericColumn.ORDER_DATE, from.toEpochDay(), to.toEpochDay());
+    }
+
+    /** Sums the revenue column over the given rows. */
+    public double sumRevenue(RoaringBitmap rows) {
+        double[] sum = {0.0};
+        rows.forEach(row -> sum[0] += revenue[row]);
+        return sum[0];
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.sales.dataset;
+
+import com.example.sales.model.SalesRow;
+import com.example.sales.sketch.HyperLogLog;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * Per-column statistics of a sales table, gathered in one pass: row count, null count,
+ * min/max for numeric columns and a distinct-count estimate. Columns are named as in the
+ * CSV header. Partial statistics of separate partitions merge, so the collector works
+ * on parallel streams.
+ */
+public final class TableStats {
+
+    /** Numeric columns; a missing order date is NaN and counts as null. */
+    private static final Map<String, ToDoubleFunction<SalesRow>> NUMERIC = Map.of(
+            "ORDERDATE", r -> r.orderDate() == null ? Double.NaN : r.orderDate().toEpochDay(),
+            "QUANTITYORDERED", SalesRow::quantityOrdered,
+            "SALES", SalesRow::sales);
+
+    private static final Map<String, Function<SalesRow, String>> CATEGORICAL = Map.of(
+            "ORDERNUMBER", SalesRow::orderNumber,
+            "CUSTOMERNAME", SalesRow::customerName,
+            "STATUS", SalesRow::status,
+            "PRODUCTLINE", SalesRow::productLine,
+            "PRODUCTCODE", SalesRow::productCode,
+            "COUNTRY", SalesRow::country,
+            "TERRITORY", SalesRow::territory,
+            "DEALSIZE", SalesRow::dealSize);
+
+    private static final List<String> COLUMN_ORDER = List.of("ORDERNUMBER", "ORDERDATE", "CUSTOMERNAME", "STATUS",
+            "QUANTITYORDERED", "SALES", "PRODUCTLINE", "PRODUCTCODE", "COUNTRY", "TERRITORY", "DEALSIZE");
+
+    private final long rowCount;
+    private final Map<String, ColumnStats> columns;
+
+    private TableStats(long rowCount, Map<String, ColumnStats> columns) {
+        this.rowCount = rowCount;
+        this.columns = Collections.unmodifiableMap(columns);
+    }
+
+    /** Collector gathering statistics of every row; combiner merges partitions. */
+    public static Collector<SalesRow, Builder, TableStats> collector() {
+        return Collector.of(Builder::new, Builder::add, Builder::merge, Builder::build);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    /** Statistics of a column named as in the CSV header. */
+    public ColumnStats column(String name) {
+        ColumnStats stats = columns.get(name);
+        if (stats == null) {
+            throw new IllegalArgumentException("No statistics for column: " + name);
+        }
+        return stats;
+    }
+
+    /** All columns in header order. */
+    public Map<String, ColumnStats> columns() {
+        return columns;
+    }
+
+    @Override
+    public String toString() {
+        return "TableStats" + columns.values();
+    }
+
+    /** Mergeable accumulator; not thread-safe. */
+    public static final class Builder {
+        private final Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+        private long rows;
+
+        private Builder() {
+            for (String column : COLUMN_ORDER) {
+                accumulators.put(column, new Accumulator());
+            }
+        }
+
+        public Builder add(SalesRow r) {
+            rows++;
+            NUMERIC.forEach((column, value) -> accumulators.get(column).add(value.applyAsDouble(r)));
+            CATEGORICAL.forEach((column, value) -> accumulators.get(column).add(value.apply(r)));
+            return this;
+        }
+
+        public Builder merge(Builder other) {
+            rows += other.rows;
+            accumulators.forEach((column, acc) -> acc.merge(other.accumulators.get(column)));
+            return this;
+        }
+
+        public TableStats build() {
+            Map<String, ColumnStats> out = new LinkedHashMap<>();
+            accumulators.forEach((column, acc) -> out.put(column, new ColumnStats(column, rows, acc.nulls,
+                    acc.count() == 0 ? Double.NaN : acc.min, acc.count() == 0 ? Double.NaN : acc.max,
+                    acc.distinct.estimate())));
+            return new TableStats(rows, out);
+        }
+    }
+
+    private static final class Accumulator {
+        private final HyperLogLog distinct = new HyperLogLog();
+        private long nulls;
+        private long numeric;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        void add(double value) {
+            if (Double.isNaN(value)) {
+                nulls++;
+                return;
+            }
+            numeric++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            distinct.add(value);
+        }
+
+        void add(String value) {
+            if (value == null || value.isEmpty()) {
+                nulls++;
+                return;
+            }
+            distinct.add(value);
+        }
+
+        long count() {
+            return numeric;
+        }
+
+        void merge(Accumulator other) {
+            nulls += other.nulls;
+            numeric += other.numeric;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            distinct.merge(other.distinct);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.sales.index;
+
+import com.example.sales.model.SalesRecord;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bitmap index over every {@link Dimension}: one compressed bitmap of row ids per distinct value.
+ * Filters are resolved with bitmap AND/OR so measure columns are only read for matching rows.
+ */
+public final class BitmapIndex {
+
+    private final Map<Dimension, Map<String, RoaringBitmap>> bitmaps;
+    private final int rowCount;
+
+    private BitmapIndex(Map<Dimension, Map<String, RoaringBitmap>> bitmaps, int rowCount) {
+        this.bitmaps = bitmaps;
+        this.rowCount = rowCount;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Number of rows covered by the index. */
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /** Distinct indexed values for a dimension. */
+    public Set<String> values(Dimension dim) {
+        return Collections.unmodifiableSet(bitmaps.get(dim).keySet());
+    }
+
+    /** Rows where dim equals value; empty if the value never occurs. */
+    public RoaringBitmap rows(Dimension dim, String value) {
+        RoaringBitmap b = bitmaps.get(dim).get(value);
+        return b == null ? new RoaringBitmap() : b;
+    }
+
+    /** Resolves a filter to the set of matching row ids. */
+    public RoaringBitmap evaluate(CategoryFilter filter) {
+        if (filter.isEmpty()) {
+            return RoaringBitmap.range(rowCount);
+        }
+        RoaringBitmap result = null;
+        for (Map.Entry<Dimension, Set<String>> e : filter.predicates().entrySet()) {
+            RoaringBitmap any = new RoaringBitmap();
+            for (String value : e.getValue()) {
+                any = any.or(rows(e.getKey(), value));
+            }
+            result = result == null ? any : result.and(any);
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /** Accumulates rows in ascending row-id order. */
+    public static final class Builder {
+        private final Map<Dimension, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(Dimension.class);
+        private int rowCount;
+
+        private Builder() {
+            for (Dimension dim : Dimension.values()) {
+                bitmaps.put(dim, new HashMap<>());
+            }
+        }
+
+        /** Indexes the next row; its row id is the number of rows added before it. */
+        public Builder add(SalesRecord r) {
+            int row = rowCount++;
+            for (Dimension dim : Dimension.values()) {
+                bitmaps.get(dim).computeIfAbsent(dim.valueOf(r), v -> new RoaringBitmap()).add(row);
+            }
+            return this;
+        }
+
+        public BitmapIndex build() {
+            return new BitmapIndex(bitmaps, rowCount);
+        }
+    }
+}
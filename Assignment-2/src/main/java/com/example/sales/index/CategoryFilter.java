@@ -0,0 +1,77 @@
+package com.example.sales.index;
+
+import com.example.sales.model.SalesRow;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Immutable conjunction of categorical predicates.
+ * Values listed for one dimension are OR-ed; different dimensions are AND-ed.
+ * An empty filter matches every row.
+ */
+public final class CategoryFilter implements Predicate<SalesRow> {
+
+    private static final CategoryFilter ALL = new CategoryFilter(new EnumMap<>(Dimension.class));
+
+    private final Map<Dimension, Set<String>> predicates;
+
+    private CategoryFilter(Map<Dimension, Set<String>> predicates) {
+        this.predicates = predicates;
+    }
+
+    /** Filter that matches every row. */
+    public static CategoryFilter all() {
+        return ALL;
+    }
+
+    /** Filter matching rows whose dimension equals any of the given values. */
+    public static CategoryFilter where(Dimension dim, String... values) {
+        return ALL.and(dim, values);
+    }
+
+    /** Returns a new filter that additionally requires dim to be one of values. */
+    public CategoryFilter and(Dimension dim, String... values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("At least one value required for " + dim);
+        }
+        Map<Dimension, Set<String>> copy = new EnumMap<>(Dimension.class);
+        copy.putAll(predicates);
+        Set<String> allowed = new LinkedHashSet<>(Set.of(values));
+        Set<String> existing = copy.get(dim);
+        if (existing != null) {
+            allowed.retainAll(existing);
+        }
+        copy.put(dim, Collections.unmodifiableSet(allowed));
+        return new CategoryFilter(copy);
+    }
+
+    /** Dimension to allowed values, in dimension declaration order. */
+    public Map<Dimension, Set<String>> predicates() {
+        return Collections.unmodifiableMap(predicates);
+    }
+
+    public boolean isEmpty() {
+        return predicates.isEmpty();
+    }
+
+    /** Row-at-a-time evaluation, used when no bitmap index is available or on raw row views. */
+    @Override
+    public boolean test(SalesRow r) {
+        for (Map.Entry<Dimension, Set<String>> e : predicates.entrySet()) {
+            if (!e.getValue().contains(e.getKey().valueOf(r))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return predicates.isEmpty() ? "ALL" : predicates.toString();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.sales.index;
+
+import com.example.sales.model.SalesRow;
+
+import java.util.function.Function;
+
+/**
+ * Low-cardinality categorical columns that carry a bitmap index.
+ * Null values are indexed under "UNKNOWN", matching AnalyticsService grouping.
+ */
+public enum Dimension {
+    STATUS(SalesRow::status),
+    COUNTRY(SalesRow::country),
+    TERRITORY(SalesRow::territory),
+    PRODUCT_LINE(SalesRow::productLine),
+    DEAL_SIZE(SalesRow::dealSize);
+
+    private final Function<SalesRow, String> accessor;
+
+    Dimension(Function<SalesRow, String> accessor) {
+        this.accessor = accessor;
+    }
+
+    /** Returns this column's value for a row, or "UNKNOWN" when missing. */
+    public String valueOf(SalesRow r) {
+        String value = accessor.apply(r);
+        return value == null ? "UNKNOWN" : value;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.sales.index;
+
+import com.example.sales.model.SalesRecord;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Numeric columns that carry block-level zone maps.
+ * Dates are stored as epoch days; a missing date is NaN and never matches a range.
+ */
+public enum NumericColumn {
+    ORDER_DATE(r -> r.orderDate() == null ? Double.NaN : r.orderDate().toEpochDay()),
+    SALES(SalesRecord::sales),
+    QUANTITY_ORDERED(SalesRecord::quantityOrdered);
+
+    private final ToDoubleFunction<SalesRecord> accessor;
+
+    NumericColumn(ToDoubleFunction<SalesRecord> accessor) {
+        this.accessor = accessor;
+    }
+
+    public double valueOf(SalesRecord r) {
+        return accessor.applyAsDouble(r);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.sales.index;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sorted revenue values with prefix sums, built once per dataset.
+ * Threshold counts and sums, ranks and exact percentiles are answered by binary
+ * search in O(log n), so sweeping many thresholds never rescans the data.
+ */
+public final class RevenueIndex {
+
+    private final double[] sorted;
+    private final double[] prefix;
+
+    private RevenueIndex(double[] sorted) {
+        this.sorted = sorted;
+        this.prefix = new double[sorted.length + 1];
+        for (int i = 0; i < sorted.length; i++) {
+            prefix[i + 1] = prefix[i] + sorted[i];
+        }
+    }
+
+    /** Builds an index over a copy of the given revenue values. */
+    public static RevenueIndex build(double[] revenue) {
+        double[] sorted = revenue.clone();
+        Arrays.sort(sorted);
+        return new RevenueIndex(sorted);
+    }
+
+    public int size() {
+        return sorted.length;
+    }
+
+    public double total() {
+        return prefix[sorted.length];
+    }
+
+    /** Number of values strictly greater than threshold. */
+    public long countAbove(double threshold) {
+        return sorted.length - upperBound(threshold);
+    }
+
+    /** Sum of values strictly greater than threshold. */
+    public double sumAbove(double threshold) {
+        return prefix[sorted.length] - prefix[upperBound(threshold)];
+    }
+
+    /** Number of values strictly less than value (its zero-based rank). */
+    public int rank(double value) {
+        return lowerBound(value);
+    }
+
+    /** Exact nearest-rank percentile for p in [0, 1]; NaN if empty. */
+    public double percentile(double p) {
+        if (p < 0.0 || p > 1.0) {
+            throw new IllegalArgumentException("Percentile must be in [0, 1]: " + p);
+        }
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int i = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, i)];
+    }
+
+    /** Same shape as AnalyticsService.partitionHighValue: true = above threshold. */
+    public Map<Boolean, Long> partition(double threshold) {
+        long above = countAbove(threshold);
+        Map<Boolean, Long> out = new LinkedHashMap<>();
+        out.put(false, sorted.length - above);
+        out.put(true, above);
+        return out;
+    }
+
+    /** First index whose value is > x; no value is greater than NaN, matching a scan's comparison. */
+    private int upperBound(double x) {
+        if (Double.isNaN(x)) {
+            return sorted.length;
+        }
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= x) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** First index whose value is >= x. */
+    private int lowerBound(double x) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < x) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.sales.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed bitmap of non-negative row ids using roaring-style containers.
+ * Row ids are split into a 16-bit high key and a 16-bit low part; each key owns
+ * either a sorted array container (sparse) or a 65536-bit bitmap container (dense).
+ */
+public final class RoaringBitmap {
+
+    /** Array containers are promoted to bitmaps above this cardinality. */
+    static final int ARRAY_MAX = 4096;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    /** Creates a bitmap holding the given row ids. */
+    public static RoaringBitmap of(int... rows) {
+        RoaringBitmap b = new RoaringBitmap();
+        for (int row : rows) {
+            b.add(row);
+        }
+        return b;
+    }
+
+    /** Creates a bitmap holding every row id in [0, rowCount). */
+    public static RoaringBitmap range(int rowCount) {
+        RoaringBitmap b = new RoaringBitmap();
+        for (int row = 0; row < rowCount; row++) {
+            b.add(row);
+        }
+        return b;
+    }
+
+    /** Adds a row id; appending in ascending order is the fast path. */
+    public void add(int row) {
+        if (row < 0) {
+            throw new IllegalArgumentException("Row id must be non-negative: " + row);
+        }
+        char high = (char) (row >>> 16);
+        char low = (char) row;
+        int i = (size > 0 && keys[size - 1] == high) ? size - 1 : findKey(high);
+        if (i >= 0) {
+            containers[i] = containers[i].add(low);
+            return;
+        }
+        insertAt(-i - 1, high, new ArrayContainer().add(low));
+    }
+
+    /** Returns true if the row id is present. */
+    public boolean contains(int row) {
+        if (row < 0) {
+            return false;
+        }
+        int i = findKey((char) (row >>> 16));
+        return i >= 0 && containers[i].contains((char) row);
+    }
+
+    /** Number of row ids in the bitmap. */
+    public int getCardinality() {
+        int card = 0;
+        for (int i = 0; i < size; i++) {
+            card += containers[i].cardinality();
+        }
+        return card;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Returns a new bitmap with rows present in both inputs. */
+    public RoaringBitmap and(RoaringBitmap other) {
+        RoaringBitmap out = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container c = containers[i].and(other.containers[j]);
+                if (c.cardinality() > 0) {
+                    out.insertAt(out.size, keys[i], c);
+                }
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    /** Returns a new bitmap with rows present in either input. */
+    public RoaringBitmap or(RoaringBitmap other) {
+        RoaringBitmap out = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j >= other.size || (i < size && keys[i] < other.keys[j])) {
+                out.insertAt(out.size, keys[i], containers[i].copy());
+                i++;
+            } else if (i >= size || keys[i] > other.keys[j]) {
+                out.insertAt(out.size, other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                out.insertAt(out.size, keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    /** Visits row ids in ascending order. */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /** Returns the row ids in ascending order. */
+    public int[] toArray() {
+        int[] out = new int[getCardinality()];
+        int[] pos = {0};
+        forEach(row -> out[pos[0]++] = row);
+        return out;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RoaringBitmap other && Arrays.equals(toArray(), other.toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return "RoaringBitmap{cardinality=" + getCardinality() + ", containers=" + size + "}";
+    }
+
+    private int findKey(char high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insertAt(int i, char high, Container c) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = high;
+        containers[i] = c;
+        size++;
+    }
+
+    /** A set of 16-bit values under one high key. */
+    private abstract static class Container {
+        abstract Container add(char x);
+        abstract boolean contains(char x);
+        abstract int cardinality();
+        abstract Container and(Container other);
+        abstract Container or(Container other);
+        abstract Container copy();
+        abstract void forEach(int base, IntConsumer action);
+    }
+
+    /** Sorted array of values; used while cardinality stays at or below ARRAY_MAX. */
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int card;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int card) {
+            this.values = values;
+            this.card = card;
+        }
+
+        @Override
+        Container add(char x) {
+            int i = (card > 0 && values[card - 1] < x) ? -card - 1 : Arrays.binarySearch(values, 0, card, x);
+            if (i >= 0) {
+                return this;
+            }
+            if (card == ARRAY_MAX) {
+                return toBitmap().add(x);
+            }
+            i = -i - 1;
+            if (card == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, card * 2)));
+            }
+            System.arraycopy(values, i, values, i + 1, card - i);
+            values[i] = x;
+            card++;
+            return this;
+        }
+
+        @Override
+        boolean contains(char x) {
+            return Arrays.binarySearch(values, 0, card, x) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] out = new char[card];
+            int n = 0;
+            if (other instanceof ArrayContainer a) {
+                int i = 0;
+                int j = 0;
+                while (i < card && j < a.card) {
+                    if (values[i] < a.values[j]) {
+                        i++;
+                    } else if (values[i] > a.values[j]) {
+                        j++;
+                    } else {
+                        out[n++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < card; i++) {
+                    if (other.contains(values[i])) {
+                        out[n++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            ArrayContainer a = (ArrayContainer) other;
+            char[] out = new char[card + a.card];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < card || j < a.card) {
+                if (j >= a.card || (i < card && values[i] < a.values[j])) {
+                    out[n++] = values[i++];
+                } else if (i >= card || values[i] > a.values[j]) {
+                    out[n++] = a.values[j++];
+                } else {
+                    out[n++] = values[i++];
+                    j++;
+                }
+            }
+            ArrayContainer merged = new ArrayContainer(out, n);
+            return n > ARRAY_MAX ? merged.toBitmap() : merged;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(card, 1)), card);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < card; i++) {
+                action.accept(base | values[i]);
+            }
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer b = new BitmapContainer();
+            for (int i = 0; i < card; i++) {
+                b.add(values[i]);
+            }
+            return b;
+        }
+    }
+
+    /** Fixed 65536-bit bitmap; used for dense ranges of rows. */
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int card;
+
+        BitmapContainer() {
+            this(new long[1024], 0);
+        }
+
+        BitmapContainer(long[] words, int card) {
+            this.words = words;
+            this.card = card;
+        }
+
+        @Override
+        Container add(char x) {
+            long before = words[x >>> 6];
+            words[x >>> 6] = before | (1L << x);
+            if (before != words[x >>> 6]) {
+                card++;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char x) {
+            return (words[x >>> 6] & (1L << x)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] o = ((BitmapContainer) other).words;
+            long[] out = new long[1024];
+            int n = 0;
+            for (int w = 0; w < 1024; w++) {
+                out[w] = words[w] & o[w];
+                n += Long.bitCount(out[w]);
+            }
+            BitmapContainer result = new BitmapContainer(out, n);
+            return n > ARRAY_MAX ? result : result.toArray();
+        }
+
+        @Override
+        Container or(Container other) {
+            BitmapContainer out = (BitmapContainer) copy();
+            if (other instanceof ArrayContainer a) {
+                for (int i = 0; i < a.card; i++) {
+                    out.add(a.values[i]);
+                }
+                return out;
+            }
+            long[] o = ((BitmapContainer) other).words;
+            int n = 0;
+            for (int w = 0; w < 1024; w++) {
+                out.words[w] |= o[w];
+                n += Long.bitCount(out.words[w]);
+            }
+            out.card = n;
+            return out;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), card);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int w = 0; w < 1024; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(base | (w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        private ArrayContainer toArray() {
+            char[] out = new char[card];
+            int[] n = {0};
+            forEach(0, v -> out[n[0]++] = (char) v);
+            return new ArrayContainer(out, card);
+        }
+    }
+}
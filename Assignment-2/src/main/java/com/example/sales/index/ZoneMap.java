@@ -0,0 +1,101 @@
+package com.example.sales.index;
+
+import java.util.Arrays;
+
+/**
+ * Block-level min/max statistics for one numeric column.
+ * A range query only needs to look inside blocks whose [min, max] overlaps it,
+ * and can take blocks lying entirely inside the range without checking rows.
+ */
+public final class ZoneMap {
+
+    private final int blockSize;
+    private final int rowCount;
+    private final double[] min;
+    private final double[] max;
+    private final int[] nulls;
+
+    private ZoneMap(int blockSize, int rowCount, double[] min, double[] max, int[] nulls) {
+        this.blockSize = blockSize;
+        this.rowCount = rowCount;
+        this.min = min;
+        this.max = max;
+        this.nulls = nulls;
+    }
+
+    /** Builds statistics over consecutive blocks of blockSize rows; NaN values are ignored. */
+    public static ZoneMap build(double[] column, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        int blocks = (column.length + blockSize - 1) / blockSize;
+        double[] min = new double[blocks];
+        double[] max = new double[blocks];
+        int[] nulls = new int[blocks];
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        for (int row = 0; row < column.length; row++) {
+            double v = column[row];
+            int b = row / blockSize;
+            if (Double.isNaN(v)) {
+                nulls[b]++;
+            } else {
+                min[b] = Math.min(min[b], v);
+                max[b] = Math.max(max[b], v);
+            }
+        }
+        return new ZoneMap(blockSize, column.length, min, max, nulls);
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    public int blockCount() {
+        return min.length;
+    }
+
+    public double min(int block) {
+        return min[block];
+    }
+
+    public double max(int block) {
+        return max[block];
+    }
+
+    /** Number of NaN (missing) values in a block. */
+    public int nullCount(int block) {
+        return nulls[block];
+    }
+
+    /** First row id of a block. */
+    public int blockStart(int block) {
+        return block * blockSize;
+    }
+
+    /** Row id one past the last row of a block. */
+    public int blockEnd(int block) {
+        return Math.min(rowCount, (block + 1) * blockSize);
+    }
+
+    /** True if some row in the block may fall within [lo, hi]. */
+    public boolean mayContain(int block, double lo, double hi) {
+        return max[block] >= lo && min[block] <= hi;
+    }
+
+    /** True if every row in the block is non-null and falls within [lo, hi]. */
+    public boolean fullyInside(int block, double lo, double hi) {
+        return nulls[block] == 0 && min[block] >= lo && max[block] <= hi;
+    }
+
+    /** Number of blocks a [lo, hi] range query has to read. */
+    public int candidateBlocks(double lo, double hi) {
+        int n = 0;
+        for (int b = 0; b < min.length; b++) {
+            if (mayContain(b, lo, hi)) {
+                n++;
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.sales.join;
+
+import com.example.sales.model.SalesRecord;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Small dimension CSV held in memory as the build side of a broadcast hash join.
+ * Keys live in an open-addressing table mapping to row numbers; attributes are stored
+ * column-major, and columns whose values are all numeric are pre-parsed to doubles
+ * so probing while streaming the fact file never parses text.
+ */
+public final class DimensionTable {
+
+    private final JoinKey key;
+    private final List<String> columnNames;
+    private final String[][] columns;
+    private final double[][] numeric;
+    private final String[] slotKeys;
+    private final int[] slotRows;
+    private final int rowCount;
+
+    private DimensionTable(JoinKey key, List<String> columnNames, String[][] columns, int rowCount) {
+        this.key = key;
+        this.columnNames = List.copyOf(columnNames);
+        this.columns = columns;
+        this.rowCount = rowCount;
+        this.numeric = new double[columns.length][];
+        for (int c = 0; c < columns.length; c++) {
+            numeric[c] = parseNumeric(columns[c], rowCount);
+        }
+        int capacity = Integer.highestOneBit(Math.max(2, rowCount * 2 - 1)) << 1;
+        this.slotKeys = new String[capacity];
+        this.slotRows = new int[capacity];
+        int keyCol = this.columnNames.indexOf(key.column());
+        for (int row = 0; row < rowCount; row++) {
+            insert(columns[keyCol][row], row);
+        }
+    }
+
+    /**
+     * Loads a dimension CSV whose header contains the join key column.
+     * If a key repeats, the first row wins.
+     */
+    public static DimensionTable load(Path csvPath, JoinKey key) {
+        try (BufferedReader reader = Files.newBufferedReader(csvPath)) {
+            @SuppressWarnings("deprecation")
+            CSVParser parser = CSVParser.parse(reader, CSVFormat.DEFAULT
+                    .withFirstRecordAsHeader()
+                    .withTrim());
+            List<String> header = parser.getHeaderNames();
+            if (!header.contains(key.column())) {
+                throw new IllegalArgumentException("Missing join column " + key.column() + " in " + csvPath);
+            }
+            List<CSVRecord> rows = parser.getRecords();
+            String[][] columns = new String[header.size()][rows.size()];
+            for (int row = 0; row < rows.size(); row++) {
+                CSVRecord rec = rows.get(row);
+                for (int c = 0; c < header.size(); c++) {
+                    columns[c][row] = c < rec.size() ? rec.get(c) : "";
+                }
+            }
+            return new DimensionTable(key, header, columns, rows.size());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load dimension CSV: " + csvPath, e);
+        }
+    }
+
+    public JoinKey key() {
+        return key;
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    /** Column position by header name, or -1 if absent. */
+    public int columnIndex(String name) {
+        return columnNames.indexOf(name);
+    }
+
+    /** Returns the dimension row for a key, or -1 if there is no match. */
+    public int lookup(String k) {
+        if (k == null) {
+            return -1;
+        }
+        int mask = slotKeys.length - 1;
+        for (int i = spread(k.hashCode()) & mask; slotKeys[i] != null; i = (i + 1) & mask) {
+            if (slotKeys[i].equals(k)) {
+                return slotRows[i];
+            }
+        }
+        return -1;
+    }
+
+    /** Probes with the fact row's join key. */
+    public int probe(SalesRecord r) {
+        return lookup(key.valueOf(r));
+    }
+
+    /** Text attribute of a dimension row. */
+    public String attribute(int row, int column) {
+        return columns[column][row];
+    }
+
+    /** Pre-parsed numeric attribute; NaN if the column is not numeric or the cell was blank. */
+    public double number(int row, int column) {
+        double[] values = numeric[column];
+        return values == null ? Double.NaN : values[row];
+    }
+
+    private void insert(String k, int row) {
+        int mask = slotKeys.length - 1;
+        int i = spread(k.hashCode()) & mask;
+        while (slotKeys[i] != null) {
+            if (slotKeys[i].equals(k)) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        slotKeys[i] = k;
+        slotRows[i] = row;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static double[] parseNumeric(String[] values, int rowCount) {
+        double[] out = new double[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            String v = values[row];
+            if (v.isBlank()) {
+                out[row] = Double.NaN;
+                continue;
+            }
+            try {
+                out[row] = Double.parseDouble(v);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.sales.join;
+
+import com.example.sales.model.SalesRecord;
+
+import java.util.function.Function;
+
+/**
+ * Fact-side columns a dimension file can be joined on, with the header name
+ * the dimension CSV must use for its key column.
+ */
+public enum JoinKey {
+    PRODUCT_CODE("PRODUCTCODE", SalesRecord::productCode),
+    CUSTOMER_NAME("CUSTOMERNAME", SalesRecord::customerName);
+
+    private final String column;
+    private final Function<SalesRecord, String> accessor;
+
+    JoinKey(String column, Function<SalesRecord, String> accessor) {
+        this.column = column;
+        this.accessor = accessor;
+    }
+
+    /** Header name of the key column in the dimension CSV. */
+    public String column() {
+        return column;
+    }
+
+    public String valueOf(SalesRecord r) {
+        return accessor.apply(r);
+    }
+}
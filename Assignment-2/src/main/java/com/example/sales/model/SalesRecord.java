@@ -20,14 +20,21 @@ public record SalesRecord(
         String city,
         String territory,
         String dealSize
-) {
+) implements SalesRow {
     /**
      * Returns revenue: uses sales field if positive, otherwise calculates quantity * price.
      */
+    @Override
     public double revenue() {
         if (sales > 0.0) {
             return sales;
         }
         return quantityOrdered * priceEach;
     }
+
+    /** Already immutable, so returns itself. */
+    @Override
+    public SalesRecord toSalesRecord() {
+        return this;
+    }
 }
@@ -0,0 +1,61 @@
+package com.example.sales.model;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only view of one sales row. {@link SalesRecord} is the immutable implementation;
+ * readers can also hand out a single reused view over their raw buffers, in which case
+ * the view is only valid until the reader moves on and {@link #toSalesRecord()} keeps a copy.
+ */
+public interface SalesRow {
+
+    String orderNumber();
+
+    LocalDate orderDate();
+
+    String customerName();
+
+    String status();
+
+    int quantityOrdered();
+
+    double priceEach();
+
+    double sales();
+
+    String productLine();
+
+    String productCode();
+
+    String country();
+
+    String city();
+
+    String territory();
+
+    String dealSize();
+
+    /** Sales if positive, otherwise quantity * price. */
+    double revenue();
+
+    /** Order year, or 0 if the date is missing. Buffer views answer without allocating. */
+    default int orderYear() {
+        LocalDate d = orderDate();
+        return d == null ? 0 : d.getYear();
+    }
+
+    /** Order month 1-12, or 0 if the date is missing. */
+    default int orderMonth() {
+        LocalDate d = orderDate();
+        return d == null ? 0 : d.getMonthValue();
+    }
+
+    /** Order day of month 1-31, or 0 if the date is missing. */
+    default int orderDay() {
+        LocalDate d = orderDate();
+        return d == null ? 0 : d.getDayOfMonth();
+    }
+
+    /** Immutable copy of this row. */
+    SalesRecord toSalesRecord();
+}
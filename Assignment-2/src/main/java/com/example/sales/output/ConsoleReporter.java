@@ -1,5 +1,7 @@
 package com.example.sales.output;
 
+import com.example.sales.profile.ReportRenderEvent;
+
 import java.util.Map;
 import java.util.Objects;
 
@@ -7,44 +9,64 @@ import java.util.Objects;
  * Simple console reporter for displaying analytics results.
  * Uses System.out/err without logging frameworks.
  */
-public final class ConsoleReporter {
+public final class ConsoleReporter implements Reporter {
 
     /** Prints informational message. */
+    @Override
     public void info(String msg) {
         System.out.println(msg);
     }
 
     /** Prints titled section with map data. */
+    @Override
     public void info(String title, Map<?,?> map) {
+        ReportRenderEvent event = new ReportRenderEvent();
+        event.begin();
         System.out.println("=== " + Objects.toString(title, "") + " ===");
         if (map == null || map.isEmpty()) {
             System.out.println("  (no data)");
-            return;
+        } else {
+            map.forEach((k, v) -> System.out.println("  " + k + " : " + v));
         }
-        map.forEach((k, v) -> System.out.println("  " + k + " : " + v));
+        commit(event, title, map == null ? 0 : map.size());
     }
 
     /** Prints titled section with single value. */
+    @Override
     public void info(String title, Object value) {
+        ReportRenderEvent event = new ReportRenderEvent();
+        event.begin();
         System.out.println("=== " + Objects.toString(title, "") + " ===");
         System.out.println("  " + Objects.toString(value, ""));
+        commit(event, title, 1);
     }
 
     /** Prints warning message. */
+    @Override
     public void warn(String msg) {
         System.out.println("WARNING: " + msg);
     }
 
     /** Prints error message to stderr. */
+    @Override
     public void error(String msg) {
         System.err.println("ERROR: " + msg);
     }
 
     /** Prints error message with stack trace to stderr. */
+    @Override
     public void error(String msg, Throwable t) {
         System.err.println("ERROR: " + msg);
         if (t != null) {
             t.printStackTrace(System.err);
         }
     }
+
+    private static void commit(ReportRenderEvent event, String title, int entries) {
+        if (event.shouldCommit()) {
+            event.title = title;
+            event.entries = entries;
+            event.commit();
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package com.example.sales.output;
+
+import java.util.Locale;
+
+/** Report formats written by {@link StreamingReporter}. */
+public enum ReportFormat {
+    /** The console layout, for reports written to files. */
+    TEXT("txt"),
+    /** One JSON array holding a {@code {"section", "data"}} object per section. */
+    JSON("json"),
+    /** {@code section,key,value} rows; nested maps flatten to dotted keys. */
+    CSV("csv"),
+    /** The JSON section objects, one per line. */
+    NDJSON("ndjson");
+
+    private final String extension;
+
+    ReportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /** File name extension for reports in this format, without the dot. */
+    public String extension() {
+        return extension;
+    }
+
+    /** Parses a format name, case-insensitively. */
+    public static ReportFormat parse(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown report format: " + name + " (expected text, json, csv or ndjson)");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.sales.output;
+
+import java.util.Map;
+
+/**
+ * Destination for report sections and messages. {@link ConsoleReporter} prints them for
+ * people; {@link StreamingReporter} writes them as JSON, CSV or NDJSON for tools.
+ * Close the reporter when the report is done so buffered output is written.
+ */
+public interface Reporter extends AutoCloseable {
+
+    /** Reports a free-text message. */
+    void info(String msg);
+
+    /** Reports a titled section of key/value entries. */
+    void info(String title, Map<?, ?> map);
+
+    /** Reports a titled section with a single value. */
+    void info(String title, Object value);
+
+    void warn(String msg);
+
+    void error(String msg);
+
+    void error(String msg, Throwable t);
+
+    /** Flushes buffered output; a no-op for unbuffered reporters. */
+    @Override
+    default void close() {
+    }
+}
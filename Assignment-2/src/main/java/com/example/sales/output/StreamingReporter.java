@@ -0,0 +1,340 @@
+package com.example.sales.output;
+
+import com.example.sales.profile.ReportRenderEvent;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reporter that writes sections in a {@link ReportFormat}. Entries are formatted straight
+ * into one UTF-8 encoder with a large byte buffer over the target channel, so a report
+ * reaches the channel in a few big writes and maps of any size are never held as
+ * formatted text. In the machine-readable formats free-text messages and warnings go to
+ * stderr, keeping the output pure data; TEXT keeps them inline like the console. Errors
+ * always go to stderr. Nested maps and collections become nested JSON values or dotted
+ * CSV keys; non-finite numbers are written as JSON null.
+ */
+public final class StreamingReporter implements Reporter {
+
+    /** Size of the encoder's byte buffer, i.e. of most channel writes. */
+    public static final int BUFFER_BYTES = 64 * 1024;
+
+    private static final int CHAR_BUFFER = 8 * 1024;
+
+    private final ReportFormat format;
+    private final Writer out;
+    private final WritableByteChannel channel;
+    private final boolean closeChannel;
+    private boolean started;
+    private boolean firstSection = true;
+    private boolean closed;
+
+    /** Writes to the channel; closing the reporter flushes but leaves the channel open. */
+    public StreamingReporter(ReportFormat format, WritableByteChannel channel) {
+        this(format, channel, false);
+    }
+
+    private StreamingReporter(ReportFormat format, WritableByteChannel channel, boolean closeChannel) {
+        this.format = Objects.requireNonNull(format, "format");
+        this.channel = Objects.requireNonNull(channel, "channel");
+        this.closeChannel = closeChannel;
+        this.out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_BYTES),
+                CHAR_BUFFER);
+    }
+
+    /** Reporter over standard output. */
+    public static StreamingReporter toStdout(ReportFormat format) {
+        return new StreamingReporter(format, Channels.newChannel(System.out));
+    }
+
+    /** Reporter writing a new file, replacing any existing one; closing it closes the file. */
+    public static StreamingReporter toFile(ReportFormat format, Path path) {
+        try {
+            FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            return new StreamingReporter(format, ch, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open report file " + path, e);
+        }
+    }
+
+    @Override
+    public void info(String msg) {
+        message(msg);
+    }
+
+    @Override
+    public void info(String title, Map<?, ?> map) {
+        ReportRenderEvent event = new ReportRenderEvent();
+        event.begin();
+        try {
+            beginSection(title);
+            if (format == ReportFormat.TEXT) {
+                if (map == null || map.isEmpty()) {
+                    out.write("  (no data)\n");
+                } else {
+                    for (Map.Entry<?, ?> e : map.entrySet()) {
+                        out.write("  ");
+                        out.write(String.valueOf(e.getKey()));
+                        out.write(" : ");
+                        out.write(String.valueOf(e.getValue()));
+                        out.write('\n');
+                    }
+                }
+            } else if (format == ReportFormat.CSV) {
+                if (map != null) {
+                    csvEntries(title, null, map);
+                }
+            } else {
+                jsonValue(map == null ? Map.of() : map);
+                endJsonSection();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write report section " + title, e);
+        }
+        commit(event, title, map == null ? 0 : map.size());
+    }
+
+    @Override
+    public void info(String title, Object value) {
+        if (value instanceof Map<?, ?> map) {
+            info(title, map);
+            return;
+        }
+        ReportRenderEvent event = new ReportRenderEvent();
+        event.begin();
+        try {
+            beginSection(title);
+            if (format == ReportFormat.TEXT) {
+                out.write("  ");
+                out.write(Objects.toString(value, ""));
+                out.write('\n');
+            } else if (format == ReportFormat.CSV) {
+                csvValue(title, null, value);
+            } else {
+                jsonValue(value);
+                endJsonSection();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write report section " + title, e);
+        }
+        commit(event, title, 1);
+    }
+
+    @Override
+    public void warn(String msg) {
+        message("WARNING: " + msg);
+    }
+
+    @Override
+    public void error(String msg) {
+        System.err.println("ERROR: " + msg);
+    }
+
+    @Override
+    public void error(String msg, Throwable t) {
+        System.err.println("ERROR: " + msg);
+        if (t != null) {
+            t.printStackTrace(System.err);
+        }
+    }
+
+    /** Completes the document and flushes it; idempotent. */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            start();
+            if (format == ReportFormat.JSON) {
+                out.write(firstSection ? "]\n" : "\n]\n");
+            }
+            out.flush();
+            if (closeChannel) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write report", e);
+        }
+    }
+
+    /** Inline for TEXT, stderr for the machine-readable formats. */
+    private void message(String line) {
+        if (format != ReportFormat.TEXT) {
+            System.err.println(line);
+            return;
+        }
+        if (closed) {
+            throw new IllegalStateException("Reporter is closed");
+        }
+        try {
+            out.write(line);
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write report", e);
+        }
+    }
+
+    /** Writes the document prefix once: the CSV header or the opening JSON bracket. */
+    private void start() throws IOException {
+        if (!started) {
+            started = true;
+            if (format == ReportFormat.CSV) {
+                out.write("section,key,value\n");
+            } else if (format == ReportFormat.JSON) {
+                out.write('[');
+            }
+        }
+    }
+
+    private void beginSection(String title) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Reporter is closed");
+        }
+        start();
+        if (format == ReportFormat.TEXT) {
+            out.write("=== " + Objects.toString(title, "") + " ===\n");
+            return;
+        }
+        if (format == ReportFormat.CSV) {
+            return;
+        }
+        if (format == ReportFormat.JSON) {
+            out.write(firstSection ? "\n  " : ",\n  ");
+        }
+        firstSection = false;
+        out.write("{\"section\":");
+        jsonString(Objects.toString(title, ""));
+        out.write(",\"data\":");
+    }
+
+    private void endJsonSection() throws IOException {
+        out.write('}');
+        if (format == ReportFormat.NDJSON) {
+            out.write('\n');
+        }
+    }
+
+    private void jsonValue(Object value) throws IOException {
+        if (value == null) {
+            out.write("null");
+        } else if (value instanceof Number n) {
+            double d = n.doubleValue();
+            out.write(Double.isNaN(d) || Double.isInfinite(d) ? "null" : n.toString());
+        } else if (value instanceof Boolean b) {
+            out.write(b.toString());
+        } else if (value instanceof Map<?, ?> map) {
+            out.write('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+                jsonString(String.valueOf(e.getKey()));
+                out.write(':');
+                jsonValue(e.getValue());
+            }
+            out.write('}');
+        } else if (value instanceof Collection<?> items) {
+            out.write('[');
+            boolean first = true;
+            for (Object item : items) {
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+                jsonValue(item);
+            }
+            out.write(']');
+        } else {
+            jsonString(value.toString());
+        }
+    }
+
+    private void jsonString(String s) throws IOException {
+        out.write('"');
+        int run = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                out.write(s, run, i - run);
+                run = i + 1;
+                switch (c) {
+                    case '"' -> out.write("\\\"");
+                    case '\\' -> out.write("\\\\");
+                    case '\n' -> out.write("\\n");
+                    case '\r' -> out.write("\\r");
+                    case '\t' -> out.write("\\t");
+                    default -> out.write(String.format("\\u%04x", (int) c));
+                }
+            }
+        }
+        out.write(s, run, s.length() - run);
+        out.write('"');
+    }
+
+    private void csvEntries(String title, String prefix, Map<?, ?> map) throws IOException {
+        for (Map.Entry<?, ?> e : map.entrySet()) {
+            String key = String.valueOf(e.getKey());
+            csvValue(title, prefix == null ? key : prefix + "." + key, e.getValue());
+        }
+    }
+
+    private void csvValue(String title, String key, Object value) throws IOException {
+        if (value instanceof Map<?, ?> map) {
+            csvEntries(title, key, map);
+            return;
+        }
+        if (value instanceof Collection<?> items) {
+            int i = 0;
+            for (Object item : items) {
+                String index = String.valueOf(i++);
+                csvValue(title, key == null ? index : key + "." + index, item);
+            }
+            return;
+        }
+        csvField(Objects.toString(title, ""));
+        out.write(',');
+        csvField(key == null ? "" : key);
+        out.write(',');
+        csvField(value == null ? "" : value.toString());
+        out.write('\n');
+    }
+
+    private void csvField(String s) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < s.length() && !quote; i++) {
+            char c = s.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(s);
+            return;
+        }
+        out.write('"');
+        out.write(s.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static void commit(ReportRenderEvent event, String title, int entries) {
+        if (event.shouldCommit()) {
+            event.title = title;
+            event.entries = entries;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.sales.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** JFR event for one record-aligned byte range turned into SalesRecords. */
+@Name("com.example.sales.ChunkParse")
+@Label("CSV Chunk Parse")
+@Category({"Sales Analytics", "Ingest"})
+@Description("A byte range parsed by a mapped-file split or a pipeline worker")
+public final class ChunkParseEvent extends jdk.jfr.Event {
+
+    @Label("Reader")
+    @Description("mapped or pipeline")
+    public String reader;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Chunk Size")
+    @DataAmount
+    public long bytes;
+}
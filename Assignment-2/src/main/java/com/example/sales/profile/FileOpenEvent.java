@@ -0,0 +1,26 @@
+package com.example.sales.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** JFR event for a CSV file opened by one of the readers; the duration covers header parsing. */
+@Name("com.example.sales.FileOpen")
+@Label("CSV File Open")
+@Category({"Sales Analytics", "Ingest"})
+@Description("A CSV file opened by one of the readers, with its size")
+public final class FileOpenEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Reader")
+    @Description("csv, mapped or pipeline")
+    public String reader;
+
+    @Label("File Size")
+    @DataAmount
+    public long bytes;
+}
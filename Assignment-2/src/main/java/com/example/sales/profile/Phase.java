@@ -0,0 +1,13 @@
+package com.example.sales.profile;
+
+/** Pipeline phases timed by {@link PipelineProfiler}; each nanosecond is charged to exactly one. */
+public enum Phase {
+    /** Opening the file and tokenizing CSV records. */
+    READ,
+    /** Mapping tokenized fields to SalesRecords, excluding date parsing. */
+    PARSE,
+    /** Parsing ORDERDATE values in DateUtils. */
+    DATE,
+    /** AnalyticsService work on top of the record stream. */
+    AGGREGATION
+}
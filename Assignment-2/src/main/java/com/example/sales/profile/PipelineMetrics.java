@@ -0,0 +1,94 @@
+package com.example.sales.profile;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/** Standard MBean exposing the profiler under {@value #OBJECT_NAME}. */
+public final class PipelineMetrics implements PipelineMetricsMBean {
+
+    public static final String OBJECT_NAME = "com.example.sales:type=PipelineMetrics";
+
+    /** Registers the MBean with the platform server; repeated calls are no-ops. */
+    public static void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new PipelineMetrics(), new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException ignored) {
+            // already registered
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register " + OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return PipelineProfiler.isEnabled();
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        PipelineProfiler.setEnabled(enabled);
+    }
+
+    @Override
+    public long getReadMillis() {
+        return millis(Phase.READ);
+    }
+
+    @Override
+    public long getParseMillis() {
+        return millis(Phase.PARSE);
+    }
+
+    @Override
+    public long getDateMillis() {
+        return millis(Phase.DATE);
+    }
+
+    @Override
+    public long getAggregationMillis() {
+        return millis(Phase.AGGREGATION);
+    }
+
+    @Override
+    public long getRowsRead() {
+        return PipelineProfiler.snapshot().rows();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return PipelineProfiler.snapshot().bytes();
+    }
+
+    @Override
+    public long getRejectedRows() {
+        return PipelineProfiler.snapshot().rejectedRows();
+    }
+
+    @Override
+    public double getRowsPerSecond() {
+        return PipelineProfiler.snapshot().rowsPerSecond();
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        return PipelineProfiler.snapshot().bytesPerSecond();
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return PipelineProfiler.snapshot().totalAllocatedBytes();
+    }
+
+    @Override
+    public void reset() {
+        PipelineProfiler.reset();
+    }
+
+    private static long millis(Phase phase) {
+        return PipelineProfiler.snapshot().nanos(phase) / 1_000_000;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.sales.profile;
+
+/** JMX view of {@link PipelineProfiler} counters, registered by {@link PipelineMetrics#register()}. */
+public interface PipelineMetricsMBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getReadMillis();
+
+    long getParseMillis();
+
+    long getDateMillis();
+
+    long getAggregationMillis();
+
+    long getRowsRead();
+
+    long getBytesRead();
+
+    long getRejectedRows();
+
+    double getRowsPerSecond();
+
+    double getBytesPerSecond();
+
+    long getAllocatedBytes();
+
+    /** Clears all counters. */
+    void reset();
+}
@@ -0,0 +1,155 @@
+package com.example.sales.profile;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide, off-by-default profiler for the ingest and query pipeline.
+ * Instrumented code brackets work with {@link #enter(Phase)} / {@link #exit()}; each
+ * thread keeps a stack of open phases and elapsed time and allocated bytes are charged
+ * to the innermost one, so nested phases (a date parsed while a query pulls records)
+ * are never counted twice. When disabled, {@code enter} is a single volatile read.
+ * Allocation comes from HotSpot's per-thread allocation counter and reads as zero on
+ * JVMs without it.
+ */
+public final class PipelineProfiler {
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final LongAdder[] NANOS = adders(PHASES.length);
+    private static final LongAdder[] ALLOCATED = adders(PHASES.length);
+    private static final LongAdder ROWS = new LongAdder();
+    private static final LongAdder BYTES = new LongAdder();
+    private static final LongAdder REJECTED = new LongAdder();
+    private static final com.sun.management.ThreadMXBean THREADS = allocationBean();
+    private static final ThreadLocal<PhaseStack> STACKS = ThreadLocal.withInitial(PhaseStack::new);
+
+    private static volatile boolean enabled;
+    private static volatile long startedAt = System.nanoTime();
+
+    private PipelineProfiler() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Turns profiling on or off; switching it on starts a fresh measurement. */
+    public static void setEnabled(boolean on) {
+        if (on && !enabled) {
+            reset();
+        }
+        enabled = on;
+    }
+
+    /** Clears all counters and restarts the wall clock. */
+    public static void reset() {
+        for (int i = 0; i < PHASES.length; i++) {
+            NANOS[i].reset();
+            ALLOCATED[i].reset();
+        }
+        ROWS.reset();
+        BYTES.reset();
+        REJECTED.reset();
+        startedAt = System.nanoTime();
+    }
+
+    /**
+     * Opens a phase on the calling thread. Returns false when profiling is off; callers
+     * must call {@link #exit()} on the same thread exactly when this returned true.
+     */
+    public static boolean enter(Phase phase) {
+        if (!enabled) {
+            return false;
+        }
+        STACKS.get().push(phase);
+        return true;
+    }
+
+    /** Closes the innermost phase opened by {@link #enter(Phase)} on this thread. */
+    public static void exit() {
+        STACKS.get().pop();
+    }
+
+    public static void addRows(long n) {
+        if (enabled) {
+            ROWS.add(n);
+        }
+    }
+
+    public static void addBytes(long n) {
+        if (enabled) {
+            BYTES.add(n);
+        }
+    }
+
+    public static void addRejected(long n) {
+        if (enabled) {
+            REJECTED.add(n);
+        }
+    }
+
+    /** Point-in-time copy of all counters. */
+    public static ProfileSnapshot snapshot() {
+        Map<Phase, Long> nanos = new EnumMap<>(Phase.class);
+        Map<Phase, Long> allocated = new EnumMap<>(Phase.class);
+        for (Phase p : PHASES) {
+            nanos.put(p, NANOS[p.ordinal()].sum());
+            allocated.put(p, ALLOCATED[p.ordinal()].sum());
+        }
+        return new ProfileSnapshot(nanos, allocated, ROWS.sum(), BYTES.sum(), REJECTED.sum(),
+                System.nanoTime() - startedAt);
+    }
+
+    /** Open phases of one thread plus the clock readings of its last transition. */
+    private static final class PhaseStack {
+        private Phase[] phases = new Phase[8];
+        private int depth;
+        private long lastNanos;
+        private long lastAllocated;
+
+        void push(Phase phase) {
+            charge();
+            if (depth == phases.length) {
+                phases = Arrays.copyOf(phases, depth * 2);
+            }
+            phases[depth++] = phase;
+        }
+
+        void pop() {
+            if (depth > 0) {
+                charge();
+                depth--;
+            }
+        }
+
+        private void charge() {
+            long now = System.nanoTime();
+            long allocated = THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+            if (depth > 0) {
+                int p = phases[depth - 1].ordinal();
+                NANOS[p].add(now - lastNanos);
+                ALLOCATED[p].add(allocated - lastAllocated);
+            }
+            lastNanos = now;
+            lastAllocated = allocated;
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean;
+        }
+        return null;
+    }
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] out = new LongAdder[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = new LongAdder();
+        }
+        return out;
+    }
+}
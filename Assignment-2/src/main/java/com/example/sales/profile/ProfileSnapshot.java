@@ -0,0 +1,70 @@
+package com.example.sales.profile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counters captured by {@link PipelineProfiler#snapshot()}. Phase times are exclusive,
+ * so they add up to the instrumented part of the wall time.
+ */
+public record ProfileSnapshot(Map<Phase, Long> phaseNanos, Map<Phase, Long> allocatedBytes,
+                              long rows, long bytes, long rejectedRows, long wallNanos) {
+
+    public ProfileSnapshot {
+        phaseNanos = Map.copyOf(phaseNanos);
+        allocatedBytes = Map.copyOf(allocatedBytes);
+    }
+
+    public long nanos(Phase phase) {
+        return phaseNanos.getOrDefault(phase, 0L);
+    }
+
+    public long allocated(Phase phase) {
+        return allocatedBytes.getOrDefault(phase, 0L);
+    }
+
+    /** Time spent getting records into memory: read, parse and date phases. */
+    public long ingestNanos() {
+        return nanos(Phase.READ) + nanos(Phase.PARSE) + nanos(Phase.DATE);
+    }
+
+    public long totalAllocatedBytes() {
+        return allocatedBytes.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /** Rows ingested per second of ingest time; 0 if nothing was read. */
+    public double rowsPerSecond() {
+        return perSecond(rows, ingestNanos());
+    }
+
+    /** Input bytes per second of ingest time; 0 if nothing was read. */
+    public double bytesPerSecond() {
+        return perSecond(bytes, ingestNanos());
+    }
+
+    /** Human-readable breakdown for {@code ConsoleReporter.info(title, map)}. */
+    public Map<String, String> breakdown() {
+        long instrumented = phaseNanos.values().stream().mapToLong(Long::longValue).sum();
+        Map<String, String> out = new LinkedHashMap<>();
+        for (Phase p : Phase.values()) {
+            double share = instrumented == 0 ? 0.0 : 100.0 * nanos(p) / instrumented;
+            out.put(p.name(), String.format("%.1f ms (%.1f%%), %s allocated",
+                    nanos(p) / 1e6, share, megabytes(allocated(p))));
+        }
+        out.put("Wall time", String.format("%.1f ms", wallNanos / 1e6));
+        out.put("Rows", Long.toString(rows));
+        out.put("Rejected rows", Long.toString(rejectedRows));
+        out.put("Rows/s", String.format("%.0f", rowsPerSecond()));
+        out.put("Bytes/s", megabytes((long) bytesPerSecond()));
+        out.put("Allocated", megabytes(totalAllocatedBytes()));
+        return out;
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos == 0 ? 0.0 : count * 1e9 / nanos;
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.sales.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** JFR event spanning one AnalyticsService query, from stream creation to stream close. */
+@Name("com.example.sales.QueryExecute")
+@Label("Analytics Query")
+@Category({"Sales Analytics", "Query"})
+@Description("One AnalyticsService query and the number of records it consumed")
+public final class QueryExecuteEvent extends jdk.jfr.Event {
+
+    @Label("Query")
+    @Description("AnalyticsService method name")
+    public String query;
+
+    @Label("Rows")
+    public long rows;
+}
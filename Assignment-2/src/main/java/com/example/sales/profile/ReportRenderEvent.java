@@ -0,0 +1,20 @@
+package com.example.sales.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** JFR event for one titled section written by ConsoleReporter. */
+@Name("com.example.sales.ReportRender")
+@Label("Report Section Render")
+@Category({"Sales Analytics", "Report"})
+@Description("One titled report section and the number of entries it printed")
+public final class ReportRenderEvent extends jdk.jfr.Event {
+
+    @Label("Title")
+    public String title;
+
+    @Label("Entries")
+    public int entries;
+}
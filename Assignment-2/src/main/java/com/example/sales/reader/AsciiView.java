@@ -0,0 +1,46 @@
+package com.example.sales.reader;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reusable CharSequence over a byte range, one char per byte (ISO-8859-1).
+ * Lets {@link com.example.sales.util.NumberParser} read numeric fields straight
+ * from the buffer without decoding or allocating.
+ */
+final class AsciiView implements CharSequence {
+
+    private ByteBuffer buf;
+    private int off;
+    private int len;
+
+    AsciiView set(ByteBuffer buf, int start, int end) {
+        this.buf = buf;
+        this.off = start;
+        this.len = end - start;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return len;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (buf.get(off + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[len];
+        for (int i = 0; i < len; i++) {
+            chars[i] = charAt(i);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.sales.reader;
+
+import com.example.sales.model.SalesRecord;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Block-level Bernoulli sample of a CSV file. The data region is cut into record-aligned
+ * blocks of about {@code blockBytes}; each block is kept independently with probability
+ * {@code rate} and only kept blocks are parsed, so reading cost scales with the rate.
+ * Rows stay grouped by block because estimators need per-block totals for their
+ * variance. Block boundaries assume quoted fields contain no line breaks.
+ */
+public final class BlockSample {
+
+    private final double rate;
+    private final int totalBlocks;
+    private final List<List<SalesRecord>> blocks;
+
+    private BlockSample(double rate, int totalBlocks, List<List<SalesRecord>> blocks) {
+        this.rate = rate;
+        this.totalBlocks = totalBlocks;
+        this.blocks = blocks;
+    }
+
+    /** Cuts the file into blocks and parses a sample of them; the same seed gives the same sample. */
+    static BlockSample draw(Path csvPath, double rate, int blockBytes, long seed) {
+        if (!(rate > 0.0 && rate <= 1.0)) {
+            throw new IllegalArgumentException("Sample rate must be in (0, 1]: " + rate);
+        }
+        CsvBlocks blocks = CsvBlocks.open(csvPath, blockBytes);
+        SplittableRandom random = new SplittableRandom(seed);
+        List<List<SalesRecord>> kept = new ArrayList<>();
+        int total = blocks.count();
+        for (int b = 0; b < total; b++) {
+            if (random.nextDouble() < rate) {
+                kept.add(List.copyOf(blocks.parse(b)));
+            }
+        }
+        return new BlockSample(rate, total, List.copyOf(kept));
+    }
+
+    /** Inclusion probability of every block. */
+    public double rate() {
+        return rate;
+    }
+
+    /** Number of blocks in the whole file, sampled or not. */
+    public int totalBlocks() {
+        return totalBlocks;
+    }
+
+    /** Rows of each sampled block, in file order. */
+    public List<List<SalesRecord>> blocks() {
+        return blocks;
+    }
+
+    /** All sampled rows. */
+    public Stream<SalesRecord> stream() {
+        return blocks.stream().flatMap(List::stream);
+    }
+}
@@ -0,0 +1,426 @@
+package com.example.sales.reader;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.util.DateUtils;
+import com.example.sales.util.NumberParser;
+import com.example.sales.util.StringPool;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RFC 4180 record tokenizer working directly on bytes with absolute reads, so many
+ * parsers can share one (mapped) buffer. Field bounds are kept as offsets; values are
+ * only decoded when a SalesRecord is built, numbers never are, and categorical
+ * columns resolve through {@link StringPool}s. Strings decode with the charset of the
+ * layout's {@link CsvEncoding}, except ASCII fields, which are copied as Latin-1.
+ * Unquoted fields are trimmed, matching the commons-csv reader. Not thread-safe; one
+ * parser per spliterator or worker.
+ */
+final class ByteRowParser {
+
+    private final ColumnLayout layout;
+    private final Charset charset;
+    private final boolean asciiFile;
+    private final NumberParser numbers = new NumberParser();
+    private final AsciiView view = new AsciiView();
+    private final StringPool statusPool;
+    private final StringPool productLinePool;
+    private final StringPool countryPool;
+    private final StringPool cityPool;
+    private final StringPool territoryPool;
+    private final StringPool dealSizePool;
+
+    private ByteBuffer buf;
+    private int[] starts = new int[32];
+    private int[] ends = new int[32];
+    private boolean[] escaped = new boolean[32];
+    private int fieldCount;
+    private byte[] scratch = new byte[256];
+    private long recordSeq;
+    private long dateRecord = -1;
+    private int year;
+    private int month;
+    private int day;
+
+    /** Parser for records laid out and encoded as described by layout. */
+    ByteRowParser(ColumnLayout layout) {
+        this.layout = layout;
+        this.charset = layout.encoding.charset();
+        this.asciiFile = layout.encoding.ascii();
+        this.statusPool = new StringPool(StringPool.DEFAULT_MAX_SIZE, charset);
+        this.productLinePool = new StringPool(StringPool.DEFAULT_MAX_SIZE, charset);
+        this.countryPool = new StringPool(StringPool.DEFAULT_MAX_SIZE, charset);
+        this.cityPool = new StringPool(StringPool.DEFAULT_MAX_SIZE, charset);
+        this.territoryPool = new StringPool(StringPool.DEFAULT_MAX_SIZE, charset);
+        this.dealSizePool = new StringPool(StringPool.DEFAULT_MAX_SIZE, charset);
+    }
+
+    /**
+     * Tokenizes the record starting at pos and returns the position just past its
+     * line terminator (or limit). Quoted fields may contain commas, doubled quotes
+     * and line breaks.
+     */
+    int parse(ByteBuffer buf, int pos, int limit) {
+        this.buf = buf;
+        fieldCount = 0;
+        recordSeq++;
+        int i = pos;
+        while (true) {
+            while (i < limit && (buf.get(i) == ' ' || buf.get(i) == '\t')) {
+                i++;
+            }
+            int start;
+            int end;
+            boolean esc = false;
+            if (i < limit && buf.get(i) == '"') {
+                start = ++i;
+                while (true) {
+                    if (i >= limit) {
+                        end = limit;
+                        break;
+                    }
+                    if (buf.get(i) == '"') {
+                        if (i + 1 < limit && buf.get(i + 1) == '"') {
+                            esc = true;
+                            i += 2;
+                            continue;
+                        }
+                        end = i++;
+                        break;
+                    }
+                    i++;
+                }
+                while (i < limit && !isDelimiter(buf.get(i))) {
+                    i++;
+                }
+            } else {
+                start = i;
+                while (i < limit && !isDelimiter(buf.get(i))) {
+                    i++;
+                }
+                end = i;
+                while (end > start && (buf.get(end - 1) == ' ' || buf.get(end - 1) == '\t')) {
+                    end--;
+                }
+            }
+            addField(start, end, esc);
+            if (i < limit && buf.get(i) == ',') {
+                i++;
+                continue;
+            }
+            if (i < limit && buf.get(i) == '\r') {
+                i++;
+            }
+            if (i < limit && buf.get(i) == '\n') {
+                i++;
+            }
+            return i;
+        }
+    }
+
+    /** True if the last parsed record was an empty line. */
+    boolean isBlankLine() {
+        return fieldCount == 1 && starts[0] == ends[0];
+    }
+
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Skips any byte order mark at start, parses the header record of buf[start, end) and
+     * resolves the layout, which carries the encoding to the parsers built from it.
+     */
+    static Header readHeader(ByteBuffer buf, int start, int end, CsvEncoding encoding) {
+        if (!encoding.asciiCompatible()) {
+            throw new IllegalArgumentException("Byte-level CSV readers need an ASCII-compatible encoding, not "
+                    + encoding.charset() + "; use CsvSalesReader.streamSupplier");
+        }
+        int pos = Math.min(end, start + encoding.bomLength());
+        if (pos >= end) {
+            return new Header(ColumnLayout.of(Map.of(), encoding), end);
+        }
+        ByteRowParser headerParser = new ByteRowParser(ColumnLayout.of(Map.of(), encoding));
+        int dataStart = headerParser.parse(buf, pos, end);
+        return new Header(ColumnLayout.of(headerParser.fields(), encoding), dataStart);
+    }
+
+    /** A parsed header: the layout and the position of the first data record. */
+    record Header(ColumnLayout layout, int dataStart) {}
+
+    /**
+     * Decodes field f of the last parsed record, undoubling escaped quotes. ASCII fields
+     * are copied as Latin-1 without running a charset decoder.
+     */
+    String string(int f) {
+        if (f < 0 || f >= fieldCount) {
+            return "";
+        }
+        int len = ends[f] - starts[f];
+        if (scratch.length < len) {
+            scratch = new byte[Math.max(len, scratch.length * 2)];
+        }
+        buf.get(starts[f], scratch, 0, len);
+        boolean ascii = asciiFile || isAscii(scratch, len);
+        String s = new String(scratch, 0, len, ascii ? StandardCharsets.ISO_8859_1 : charset);
+        return escaped[f] ? s.replace("\"\"", "\"") : s;
+    }
+
+    /** Decoded fields of the last parsed record, in file order. */
+    List<String> fields() {
+        List<String> out = new ArrayList<>(fieldCount);
+        for (int f = 0; f < fieldCount; f++) {
+            out.add(string(f));
+        }
+        return out;
+    }
+
+    /** Builds a SalesRecord from the last parsed record with the lenient defaults of CsvSalesReader. */
+    SalesRecord toSalesRecord() {
+        return new SalesRecord(orderNumber(), orderDate(), customerName(), status(), quantity(), priceEach(),
+                sales(), productLine(), productCode(), country(), city(), territory(), dealSize());
+    }
+
+    String orderNumber() {
+        return string(layout.orderNumber);
+    }
+
+    String customerName() {
+        return string(layout.customerName);
+    }
+
+    String productCode() {
+        return string(layout.productCode);
+    }
+
+    String status() {
+        return pooled(statusPool, layout.status);
+    }
+
+    String productLine() {
+        return pooled(productLinePool, layout.productLine);
+    }
+
+    String country() {
+        return pooled(countryPool, layout.country);
+    }
+
+    String city() {
+        return pooled(cityPool, layout.city);
+    }
+
+    String territory() {
+        return pooled(territoryPool, layout.territory);
+    }
+
+    String dealSize() {
+        return pooled(dealSizePool, layout.dealSize);
+    }
+
+    /** Quantity, or 0 if missing or malformed. */
+    int quantity() {
+        return numbers.parseInt(field(layout.quantity)) == NumberParser.OK ? numbers.intValue() : 0;
+    }
+
+    /** Unit price, or 0 if missing or malformed. */
+    double priceEach() {
+        return numbers.parseDouble(field(layout.priceEach)) == NumberParser.OK ? numbers.doubleValue() : 0.0;
+    }
+
+    /** Sales value, or quantity * price if missing or malformed. */
+    double sales() {
+        return numbers.parseDouble(field(layout.sales)) == NumberParser.OK ? numbers.doubleValue() : quantity() * priceEach();
+    }
+
+    /** Order date, or null if missing or unparseable. */
+    LocalDate orderDate() {
+        resolveDate();
+        return year == 0 ? null : LocalDate.of(year, month, day);
+    }
+
+    /** Order year, or 0 if the date is missing; allocation-free for the common formats. */
+    int orderYear() {
+        resolveDate();
+        return year;
+    }
+
+    /** Order month 1-12, or 0 if the date is missing. */
+    int orderMonth() {
+        resolveDate();
+        return month;
+    }
+
+    /** Order day of month 1-31, or 0 if the date is missing. */
+    int orderDay() {
+        resolveDate();
+        return day;
+    }
+
+    /**
+     * Parses ORDERDATE once per record. M/d/yyyy[ H:mm] and yyyy-MM-dd are read straight
+     * from the bytes; anything else (or an out-of-range day) goes through DateUtils so
+     * results always match the String-based readers.
+     */
+    private void resolveDate() {
+        if (dateRecord == recordSeq) {
+            return;
+        }
+        dateRecord = recordSeq;
+        year = 0;
+        month = 0;
+        day = 0;
+        AsciiView raw = field(layout.orderDate);
+        if (raw.length() == 0 || fastDate(raw)) {
+            return;
+        }
+        LocalDate d = DateUtils.parseToLocalDate(raw.toString());
+        if (d != null) {
+            year = d.getYear();
+            month = d.getMonthValue();
+            day = d.getDayOfMonth();
+        }
+    }
+
+    private boolean fastDate(CharSequence s) {
+        int len = s.length();
+        if (len == 10 && s.charAt(4) == '-' && s.charAt(7) == '-') {
+            return setDate(digits(s, 0, 4), digits(s, 5, 7), digits(s, 8, 10));
+        }
+        int i = 0;
+        int m = 0;
+        int start = i;
+        for (; i < len && isDigit(s.charAt(i)); i++) {
+            m = m * 10 + (s.charAt(i) - '0');
+        }
+        if (i - start < 1 || i - start > 2 || i >= len || s.charAt(i++) != '/') {
+            return false;
+        }
+        int d = 0;
+        start = i;
+        for (; i < len && isDigit(s.charAt(i)); i++) {
+            d = d * 10 + (s.charAt(i) - '0');
+        }
+        if (i - start < 1 || i - start > 2 || i >= len || s.charAt(i++) != '/') {
+            return false;
+        }
+        if (len - i < 4) {
+            return false;
+        }
+        int y = digits(s, i, i + 4);
+        i += 4;
+        if (i < len) {
+            if (s.charAt(i++) != ' ') {
+                return false;
+            }
+            int h = 0;
+            start = i;
+            for (; i < len && isDigit(s.charAt(i)); i++) {
+                h = h * 10 + (s.charAt(i) - '0');
+            }
+            if (i - start < 1 || i - start > 2 || h > 23 || len - i != 3 || s.charAt(i) != ':') {
+                return false;
+            }
+            int minute = digits(s, i + 1, len);
+            if (minute < 0 || minute > 59) {
+                return false;
+            }
+        }
+        return setDate(y, m, d);
+    }
+
+    private boolean setDate(int y, int m, int d) {
+        if (y < 1 || m < 1 || m > 12 || d < 1 || d > daysInMonth(y, m)) {
+            return false;
+        }
+        year = y;
+        month = m;
+        day = d;
+        return true;
+    }
+
+    private static int daysInMonth(int y, int m) {
+        return switch (m) {
+            case 2 -> (y % 4 == 0 && (y % 100 != 0 || y % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /** Value of the decimal digits s[from, to), or -1 if any is not a digit. */
+    private static int digits(CharSequence s, int from, int to) {
+        int v = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /** Byte-level view of field f for numeric and date parsing; empty if absent. */
+    AsciiView field(int f) {
+        if (f < 0 || f >= fieldCount) {
+            return view.set(buf, 0, 0);
+        }
+        return view.set(buf, starts[f], ends[f]);
+    }
+
+    private String pooled(StringPool pool, int f) {
+        if (f < 0 || f >= fieldCount) {
+            return "";
+        }
+        return escaped[f] ? pool.intern(string(f)) : pool.intern(buf, starts[f], ends[f] - starts[f]);
+    }
+
+    private void addField(int start, int end, boolean esc) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+            escaped = Arrays.copyOf(escaped, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        escaped[fieldCount] = esc;
+        fieldCount++;
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == '\n' || b == '\r';
+    }
+
+    /**
+     * Position just after the next line feed at or after pos, or limit if none.
+     * Used to realign arbitrary split points to a record boundary; assumes quoted
+     * fields do not contain line breaks.
+     */
+    static int nextLineStart(ByteBuffer buf, int pos, int limit) {
+        for (int i = pos; i < limit; i++) {
+            if (buf.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    private static boolean isAscii(byte[] bytes, int len) {
+        for (int i = 0; i < len; i++) {
+            if (bytes[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.sales.reader;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Positions of the sales columns within a CSV header, resolved once per file, and the
+ * file's byte encoding for the byte-level parsers.
+ * Optional columns that are absent have position -1 and read as empty.
+ */
+final class ColumnLayout {
+
+    private static final String[] REQUIRED = {"ORDERNUMBER", "ORDERDATE", "CUSTOMERNAME", "STATUS"};
+
+    final int orderNumber;
+    final int orderDate;
+    final int customerName;
+    final int status;
+    final int quantity;
+    final int priceEach;
+    final int sales;
+    final int productLine;
+    final int productCode;
+    final int country;
+    final int city;
+    final int territory;
+    final int dealSize;
+    final int columnCount;
+    final CsvEncoding encoding;
+
+    private ColumnLayout(Map<String, Integer> header, CsvEncoding encoding) {
+        this.orderNumber = header.getOrDefault("ORDERNUMBER", -1);
+        this.orderDate = header.getOrDefault("ORDERDATE", -1);
+        this.customerName = header.getOrDefault("CUSTOMERNAME", -1);
+        this.status = header.getOrDefault("STATUS", -1);
+        this.quantity = header.getOrDefault("QUANTITYORDERED", -1);
+        this.priceEach = header.getOrDefault("PRICEEACH", -1);
+        this.sales = header.getOrDefault("SALES", -1);
+        this.productLine = header.getOrDefault("PRODUCTLINE", -1);
+        this.productCode = header.getOrDefault("PRODUCTCODE", -1);
+        this.country = header.getOrDefault("COUNTRY", -1);
+        this.city = header.getOrDefault("CITY", -1);
+        this.territory = header.getOrDefault("TERRITORY", -1);
+        this.dealSize = header.getOrDefault("DEALSIZE", -1);
+        this.columnCount = header.size();
+        this.encoding = encoding;
+    }
+
+    /**
+     * Resolves a header map; a null or empty header (empty file) yields an all-absent layout.
+     * A non-empty header must name every required column.
+     */
+    static ColumnLayout of(Map<String, Integer> header) {
+        return of(header, CsvEncoding.UTF_8);
+    }
+
+    static ColumnLayout of(Map<String, Integer> header, CsvEncoding encoding) {
+        if (header == null || header.isEmpty()) {
+            return new ColumnLayout(Map.of(), encoding);
+        }
+        for (String required : REQUIRED) {
+            if (!header.containsKey(required)) {
+                throw new IllegalArgumentException("Missing required column: " + required + " in CSV header");
+            }
+        }
+        return new ColumnLayout(header, encoding);
+    }
+
+    /** Resolves a header given as column names in file order. */
+    static ColumnLayout of(List<String> names, CsvEncoding encoding) {
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            header.putIfAbsent(names.get(i).trim(), i);
+        }
+        return of(header, encoding);
+    }
+}
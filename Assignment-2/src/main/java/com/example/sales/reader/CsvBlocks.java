@@ -0,0 +1,72 @@
+package com.example.sales.reader;
+
+import com.example.sales.model.SalesRecord;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A mapped CSV file cut into record-aligned blocks of about {@code blockBytes}, each of
+ * which can be parsed on its own and in any order. Used by samplers and shared scans that
+ * visit the file block by block. Block boundaries assume quoted fields contain no line breaks.
+ */
+public final class CsvBlocks {
+
+    private final ByteBuffer buf;
+    private final ColumnLayout layout;
+    private final int[] starts;
+
+    private CsvBlocks(ByteBuffer buf, ColumnLayout layout, int[] starts) {
+        this.buf = buf;
+        this.layout = layout;
+        this.starts = starts;
+    }
+
+    /** Maps the file, reads the header and cuts the data region into blocks. */
+    public static CsvBlocks open(Path csvPath, int blockBytes) {
+        if (blockBytes <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockBytes);
+        }
+        ByteBuffer buf = MappedCsvSpliterator.map(csvPath);
+        int end = buf.capacity();
+        ByteRowParser.Header header = ByteRowParser.readHeader(buf, 0, end, CsvEncoding.sniff(buf, 0, end));
+        int pos = header.dataStart();
+        ColumnLayout layout = header.layout();
+        int[] starts = new int[16];
+        int n = 0;
+        starts[n++] = pos;
+        while (pos < end) {
+            pos = ByteRowParser.nextLineStart(buf, (int) Math.min(end, (long) pos + blockBytes - 1), end);
+            if (n == starts.length) {
+                starts = Arrays.copyOf(starts, n * 2);
+            }
+            starts[n++] = pos;
+        }
+        return new CsvBlocks(buf, layout, Arrays.copyOf(starts, n));
+    }
+
+    /** Number of blocks; 0 for a file with no data rows. */
+    public int count() {
+        return starts.length - 1;
+    }
+
+    /** Parses one block's rows in file order. Safe to call from several threads. */
+    public List<SalesRecord> parse(int block) {
+        if (block < 0 || block >= count()) {
+            throw new IndexOutOfBoundsException("Block " + block + " of " + count());
+        }
+        ByteRowParser parser = new ByteRowParser(layout);
+        List<SalesRecord> rows = new ArrayList<>();
+        int end = starts[block + 1];
+        for (int p = starts[block]; p < end; ) {
+            p = parser.parse(buf, p, end);
+            if (!parser.isBlankLine()) {
+                rows.add(parser.toSalesRecord());
+            }
+        }
+        return rows;
+    }
+}
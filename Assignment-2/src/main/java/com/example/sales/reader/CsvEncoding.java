@@ -0,0 +1,162 @@
+package com.example.sales.reader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Byte encoding of a CSV file, detected from its bytes. A byte order mark decides the
+ * charset (UTF-8, UTF-16BE/LE) and is skipped by the readers. Without one the bytes are
+ * checked as UTF-8, eight ASCII bytes at a time; the first invalid sequence means the
+ * file is windows-1252. {@code ascii} is true only if every checked byte was ASCII and the
+ * whole file was checked, in which case fields are copied as Latin-1 and never decoded.
+ *
+ * @param bomLength bytes of byte order mark at the start of the file
+ */
+record CsvEncoding(Charset charset, int bomLength, boolean ascii) {
+
+    static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+    /** Assumed encoding when nothing has been detected: UTF-8, not known to be ASCII. */
+    static final CsvEncoding UTF_8 = new CsvEncoding(StandardCharsets.UTF_8, 0, false);
+
+    /** Bytes checked by {@link #sniff}. */
+    static final int SNIFF_BYTES = 64 * 1024;
+
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    /** Detects the encoding of buf[start, end) by checking all of it. */
+    static CsvEncoding detect(ByteBuffer buf, int start, int end) {
+        return detect(buf, start, end, true);
+    }
+
+    /**
+     * Detects the encoding from the first {@link #SNIFF_BYTES} of buf[start, end), for
+     * readers that must not touch the whole file up front. ascii is false unless the
+     * sniffed prefix was the whole range.
+     */
+    static CsvEncoding sniff(ByteBuffer buf, int start, int end) {
+        int limit = (int) Math.min(end, (long) start + SNIFF_BYTES);
+        return detect(buf, start, limit, limit == end);
+    }
+
+    /** Detects the encoding of a whole file. */
+    static CsvEncoding detect(Path csvPath) {
+        try (FileChannel ch = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) {
+                ByteBuffer prefix = ByteBuffer.allocate(SNIFF_BYTES);
+                int read;
+                do {
+                    read = ch.read(prefix);
+                } while (read >= 0 && prefix.hasRemaining());
+                // only a prefix was checked, so the file is never claimed to be pure ASCII
+                return detect(prefix, 0, prefix.position(), false);
+            }
+            ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return detect(buf, 0, (int) size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSV: " + csvPath, e);
+        }
+    }
+
+    /** True if CSV delimiters, quotes and line breaks are single ASCII bytes, as the byte readers need. */
+    boolean asciiCompatible() {
+        return !charset.name().startsWith("UTF-16");
+    }
+
+    /** Charset to decode a field with: Latin-1 (a plain copy) when the file is ASCII. */
+    Charset decodeCharset() {
+        return ascii ? StandardCharsets.ISO_8859_1 : charset;
+    }
+
+    private static CsvEncoding detect(ByteBuffer buf, int start, int end, boolean complete) {
+        int n = end - start;
+        if (n >= 3 && (buf.get(start) & 0xFF) == 0xEF && (buf.get(start + 1) & 0xFF) == 0xBB
+                && (buf.get(start + 2) & 0xFF) == 0xBF) {
+            return new CsvEncoding(StandardCharsets.UTF_8, 3, complete && isAscii(buf, start + 3, end));
+        }
+        if (n >= 2 && (buf.get(start) & 0xFF) == 0xFE && (buf.get(start + 1) & 0xFF) == 0xFF) {
+            return new CsvEncoding(StandardCharsets.UTF_16BE, 2, false);
+        }
+        if (n >= 2 && (buf.get(start) & 0xFF) == 0xFF && (buf.get(start + 1) & 0xFF) == 0xFE) {
+            return new CsvEncoding(StandardCharsets.UTF_16LE, 2, false);
+        }
+        boolean ascii = true;
+        int i = start;
+        while (i < end) {
+            i = skipAscii(buf, i, end);
+            if (i == end) {
+                break;
+            }
+            ascii = false;
+            int len = utf8SequenceLength(buf, i, end);
+            if (len < 0 && !complete) {
+                // cut off by the end of a sniffed prefix, which is not evidence against UTF-8
+                break;
+            }
+            if (len <= 0) {
+                return new CsvEncoding(WINDOWS_1252, 0, false);
+            }
+            i += len;
+        }
+        return new CsvEncoding(StandardCharsets.UTF_8, 0, complete && ascii);
+    }
+
+    private static boolean isAscii(ByteBuffer buf, int start, int end) {
+        return skipAscii(buf, start, end) == end;
+    }
+
+    /** Position of the first non-ASCII byte at or after i, or end. */
+    private static int skipAscii(ByteBuffer buf, int i, int end) {
+        while (i + 8 <= end && (buf.getLong(i) & HIGH_BITS) == 0) {
+            i += 8;
+        }
+        while (i < end && buf.get(i) >= 0) {
+            i++;
+        }
+        return i;
+    }
+
+    /** Length of the well-formed UTF-8 sequence at i, 0 if it is malformed, -1 if it runs past end. */
+    private static int utf8SequenceLength(ByteBuffer buf, int i, int end) {
+        int b = buf.get(i) & 0xFF;
+        int len;
+        int min2 = 0x80;
+        int max2 = 0xBF;
+        if (b >= 0xC2 && b <= 0xDF) {
+            len = 2;
+        } else if (b >= 0xE0 && b <= 0xEF) {
+            len = 3;
+            if (b == 0xE0) {
+                min2 = 0xA0;
+            } else if (b == 0xED) {
+                max2 = 0x9F;
+            }
+        } else if (b >= 0xF0 && b <= 0xF4) {
+            len = 4;
+            if (b == 0xF0) {
+                min2 = 0x90;
+            } else if (b == 0xF4) {
+                max2 = 0x8F;
+            }
+        } else {
+            return 0;
+        }
+        for (int k = 1; k < len; k++) {
+            if (i + k >= end) {
+                return -1;
+            }
+            int c = buf.get(i + k) & 0xFF;
+            if (k == 1 ? c < min2 || c > max2 : (c & 0xC0) != 0x80) {
+                return 0;
+            }
+        }
+        return len;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.sales.reader;
+
+import com.example.sales.model.SalesRow;
+import com.example.sales.profile.FileOpenEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Predicate;
+
+/**
+ * Writes the rows of a CSV file that match a filter to a new CSV file without
+ * re-serializing them. The source is scanned through a {@link RowCursor}, so the filter
+ * sees decoded fields, and each run of adjacent matching records is copied as its
+ * original byte range with {@link FileChannel#transferTo}. The header and every kept
+ * row come out byte for byte as they were, line endings and quoting included.
+ */
+public final class CsvExtract {
+
+    private CsvExtract() {}
+
+    /**
+     * Copies the header and every row of source accepted by filter to target, replacing
+     * target if it exists. The filter is handed a reused view that is only valid during the call.
+     * Rows go to a temporary file beside target that replaces it only once the extract is
+     * complete, so a failure leaves any existing target untouched. target must not be source.
+     */
+    public static ExtractResult write(Path source, Path target, Predicate<? super SalesRow> filter) {
+        Path temp = null;
+        try {
+            if (Files.exists(target) && Files.isSameFile(source, target)) {
+                throw new IllegalArgumentException("Extract target must differ from the source: " + target);
+            }
+            Path dir = target.toAbsolutePath().getParent();
+            temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+            ExtractResult result = copy(source, temp, filter);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to extract " + source + " to " + target, e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    private static ExtractResult copy(Path source, Path target, Predicate<? super SalesRow> filter) throws IOException {
+        FileOpenEvent opened = new FileOpenEvent();
+        opened.begin();
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("File too large to map in one region: " + source);
+            }
+            MappedByteBuffer buf = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (opened.shouldCommit()) {
+                opened.path = source.toString();
+                opened.reader = "extract";
+                opened.bytes = size;
+                opened.commit();
+            }
+            RowCursor cursor = RowCursor.over(buf, 0, (int) size);
+            long written = transfer(in, 0, cursor.dataStart(), out);
+            long scanned = 0;
+            long kept = 0;
+            long runStart = 0;
+            long runEnd = 0;
+            while (cursor.next()) {
+                scanned++;
+                if (!filter.test(cursor)) {
+                    continue;
+                }
+                kept++;
+                if (cursor.recordStart() != runEnd) {
+                    written += transfer(in, runStart, runEnd - runStart, out);
+                    runStart = cursor.recordStart();
+                }
+                runEnd = cursor.recordEnd();
+            }
+            written += transfer(in, runStart, runEnd - runStart, out);
+            return new ExtractResult(scanned, kept, written);
+        }
+    }
+
+    /** Copies in[from, from + count) to the end of out, looping over partial transfers. */
+    private static long transfer(FileChannel in, long from, long count, FileChannel out) throws IOException {
+        long done = 0;
+        while (done < count) {
+            long n = in.transferTo(from + done, count - done, out);
+            if (n <= 0) {
+                throw new IOException("No progress copying bytes at offset " + (from + done));
+            }
+            done += n;
+        }
+        return done;
+    }
+}
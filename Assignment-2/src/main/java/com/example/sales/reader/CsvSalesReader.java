@@ -1,15 +1,29 @@
 package com.example.sales.reader;
 
 import com.example.sales.model.SalesRecord;
+import com.example.sales.profile.FileOpenEvent;
+import com.example.sales.profile.Phase;
+import com.example.sales.profile.PipelineProfiler;
 import com.example.sales.util.DateUtils;
+import com.example.sales.util.NumberParser;
+import com.example.sales.util.StringPool;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -27,79 +41,253 @@ public final class CsvSalesReader {
      * Stream auto-closes resources on termination.
      */
     public static Supplier<Stream<SalesRecord>> streamSupplier(Path csvPath) {
+        return streamSupplier(csvPath, null);
+    }
+
+    /**
+     * Like {@link #streamSupplier(Path)}, but rows with malformed numbers or dates are
+     * diverted to the reject sink instead of being kept with default values.
+     * Empty fields are not rejections. A null sink keeps the lenient behaviour.
+     */
+    public static Supplier<Stream<SalesRecord>> streamSupplier(Path csvPath, RejectSink rejects) {
+        AtomicReference<CsvEncoding> encoding = new AtomicReference<>();
         return () -> {
+            boolean timed = PipelineProfiler.enter(Phase.READ);
+            FileOpenEvent opened = new FileOpenEvent();
+            opened.begin();
             try {
-                BufferedReader reader = Files.newBufferedReader(csvPath);
-                
+                BufferedReader reader = open(csvPath, encoding);
+
                 @SuppressWarnings("deprecation")
                 CSVParser parser = CSVParser.parse(reader, CSVFormat.DEFAULT
                         .withFirstRecordAsHeader()
                         .withTrim());
-                
-                Iterable<CSVRecord> iterable = parser::iterator;
-                
+
+                Iterable<CSVRecord> iterable = timed ? () -> new TimedIterator<>(parser.iterator()) : parser::iterator;
+                RecordMapper mapper = new RecordMapper(parser.getHeaderMap(), rejects);
+                if (timed) {
+                    PipelineProfiler.addBytes(Files.size(csvPath));
+                }
+                if (opened.shouldCommit()) {
+                    opened.path = csvPath.toString();
+                    opened.reader = "csv";
+                    opened.bytes = Files.size(csvPath);
+                    opened.commit();
+                }
+
                 Stream<SalesRecord> stream = StreamSupport.stream(iterable.spliterator(), false)
-                        .map(CsvSalesReader::toSalesRecord)
+                        .map(mapper::toSalesRecord)
+                        .filter(Objects::nonNull)
                         .onClose(() -> {
                             try {
                                 parser.close();
                                 reader.close();
                             } catch (IOException ignored) {}
                         });
-                
+
                 return stream;
             } catch (IOException e) {
                 throw new RuntimeException("Failed to open CSV: " + csvPath, e);
+            } finally {
+                if (timed) {
+                    PipelineProfiler.exit();
+                }
             }
         };
     }
 
     /**
-     * Converts CSV record to SalesRecord with safe parsing and default values.
+     * Creates a supplier of streams over a memory-mapped file. The streams' spliterator
+     * splits at record boundaries, so callers get parallelism with
+     * {@code supplier.get().parallel()}. Files must be under 2 GiB and quoted fields
+     * must not contain line breaks.
      */
-    private static SalesRecord toSalesRecord(CSVRecord rec) {
-        String orderNumber = rec.get("ORDERNUMBER");
-        String orderDateRaw = rec.get("ORDERDATE");
-        java.time.LocalDate date = DateUtils.parseToLocalDate(orderDateRaw);
-        String customerName = rec.get("CUSTOMERNAME");
-        String status = rec.get("STATUS");
-        
-        int qty = parseIntSafe(rec, "QUANTITYORDERED", 0);
-        double priceEach = parseDoubleSafe(rec, "PRICEEACH", 0.0);
-        double sales = parseDoubleSafe(rec, "SALES", qty * priceEach);
-        
-        String productLine = rec.isMapped("PRODUCTLINE") ? rec.get("PRODUCTLINE") : "";
-        String productCode = rec.isMapped("PRODUCTCODE") ? rec.get("PRODUCTCODE") : "";
-        String country = rec.isMapped("COUNTRY") ? rec.get("COUNTRY") : "";
-        String city = rec.isMapped("CITY") ? rec.get("CITY") : "";
-        String territory = rec.isMapped("TERRITORY") ? rec.get("TERRITORY") : "";
-        String dealSize = rec.isMapped("DEALSIZE") ? rec.get("DEALSIZE") : "";
-
-        return new SalesRecord(orderNumber, date, customerName, status, qty, priceEach,
-                sales, productLine, productCode, country, city, territory, dealSize);
+    public static Supplier<Stream<SalesRecord>> mappedStreamSupplier(Path csvPath) {
+        return () -> StreamSupport.stream(mappedSpliterator(csvPath), false);
+    }
+
+    /** Splittable spliterator over a memory-mapped file; see {@link #mappedStreamSupplier}. */
+    public static Spliterator<SalesRecord> mappedSpliterator(Path csvPath) {
+        return MappedCsvSpliterator.open(csvPath, MappedCsvSpliterator.DEFAULT_MIN_SPLIT_BYTES);
     }
 
     /**
-     * Safely parses integer from CSV column, returns default on error.
+     * Row source over a memory-mapped file whose scans hand out one reused row view,
+     * decoding fields from the mapping only when they are read. Aggregations that touch
+     * numeric and categorical columns run without allocating per row.
      */
-    private static int parseIntSafe(CSVRecord rec, String col, int defaultVal) {
-        try {
-            if (rec.isMapped(col) && !rec.get(col).isBlank()) {
-                return Integer.parseInt(rec.get(col).trim());
-            }
-        } catch (Exception ignored) {}
-        return defaultVal;
+    public static RowSource rowSource(Path csvPath) {
+        return new MappedRowSource(csvPath);
     }
 
     /**
-     * Safely parses double from CSV column, returns default on error.
+     * Creates a supplier of streams fed by a read-ahead pipeline: one thread reads the
+     * file into pooled direct buffers while {@code parserThreads} workers parse them.
+     * Records arrive in no particular order, so this suits aggregations rather than
+     * ordered output. Close the stream (try-with-resources) to stop the threads early.
+     * Chunks are cut at line breaks, so quoted fields must not contain line breaks.
      */
-    private static double parseDoubleSafe(CSVRecord rec, String col, double defaultVal) {
+    public static Supplier<Stream<SalesRecord>> pipelinedStreamSupplier(Path csvPath, int parserThreads) {
+        return pipelinedStreamSupplier(csvPath, parserThreads, ReadAheadPipeline.DEFAULT_CHUNK_BYTES);
+    }
+
+    static Supplier<Stream<SalesRecord>> pipelinedStreamSupplier(Path csvPath, int parserThreads, int chunkBytes) {
+        return () -> ReadAheadPipeline.start(csvPath, parserThreads, chunkBytes).stream();
+    }
+
+    /**
+     * Reads a block-level sample of the file: record-aligned blocks of about
+     * {@code blockBytes} are each kept with probability {@code rate}, and only kept
+     * blocks are parsed. The same seed draws the same blocks.
+     */
+    public static BlockSample blockSample(Path csvPath, double rate, int blockBytes, long seed) {
+        return BlockSample.draw(csvPath, rate, blockBytes, seed);
+    }
+
+    /**
+     * Opens the file for commons-csv in its detected encoding, past any byte order mark.
+     * ASCII files are read as Latin-1, the cheapest decoder. The file is checked on the
+     * supplier's first open only; later streams reuse the detected encoding.
+     */
+    private static BufferedReader open(Path csvPath, AtomicReference<CsvEncoding> detected) throws IOException {
+        CsvEncoding encoding = detected.get();
+        if (encoding == null) {
+            try {
+                encoding = CsvEncoding.detect(csvPath);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            detected.set(encoding);
+        }
+        InputStream in = Files.newInputStream(csvPath);
         try {
-            if (rec.isMapped(col) && !rec.get(col).isBlank()) {
-                return Double.parseDouble(rec.get(col).trim());
+            in.skipNBytes(encoding.bomLength());
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new BufferedReader(new InputStreamReader(in, encoding.decodeCharset()));
+    }
+
+    /**
+     * Converts CSV records to SalesRecords with safe parsing and default values.
+     * Column positions are resolved once per file and each field is read once;
+     * numbers go through {@link NumberParser}, so bad values never throw.
+     * Low-cardinality columns are canonicalized through per-column {@link StringPool}s,
+     * so collected rows share a few dozen String instances.
+     */
+    private static final class RecordMapper {
+        private final ColumnLayout layout;
+        private final RejectSink rejects;
+        private final NumberParser numbers = new NumberParser();
+        private final StringPool statusPool = new StringPool();
+        private final StringPool productLinePool = new StringPool();
+        private final StringPool countryPool = new StringPool();
+        private final StringPool cityPool = new StringPool();
+        private final StringPool territoryPool = new StringPool();
+        private final StringPool dealSizePool = new StringPool();
+
+        RecordMapper(Map<String, Integer> header, RejectSink rejects) {
+            this.layout = ColumnLayout.of(header);
+            this.rejects = rejects;
+        }
+
+        /** Returns the mapped record, or null if it was diverted to the reject sink. */
+        SalesRecord toSalesRecord(CSVRecord rec) {
+            if (!PipelineProfiler.enter(Phase.PARSE)) {
+                return map(rec);
+            }
+            try {
+                PipelineProfiler.addRows(1);
+                return map(rec);
+            } finally {
+                PipelineProfiler.exit();
+            }
+        }
+
+        private SalesRecord map(CSVRecord rec) {
+            String orderDateRaw = field(rec, layout.orderDate);
+            LocalDate date = DateUtils.parseToLocalDate(orderDateRaw);
+            if (date == null && !orderDateRaw.isBlank() && reject(rec, RejectReason.INVALID_DATE)) {
+                return null;
+            }
+
+            int qty = 0;
+            int st = numbers.parseInt(field(rec, layout.quantity));
+            if (st == NumberParser.OK) {
+                qty = numbers.intValue();
+            } else if (st != NumberParser.EMPTY && reject(rec, RejectReason.INVALID_QUANTITY)) {
+                return null;
+            }
+
+            double price = 0.0;
+            st = numbers.parseDouble(field(rec, layout.priceEach));
+            if (st == NumberParser.OK) {
+                price = numbers.doubleValue();
+            } else if (st != NumberParser.EMPTY && reject(rec, RejectReason.INVALID_PRICE)) {
+                return null;
+            }
+
+            double salesValue = qty * price;
+            st = numbers.parseDouble(field(rec, layout.sales));
+            if (st == NumberParser.OK) {
+                salesValue = numbers.doubleValue();
+            } else if (st != NumberParser.EMPTY && reject(rec, RejectReason.INVALID_SALES)) {
+                return null;
+            }
+
+            return new SalesRecord(field(rec, layout.orderNumber), date, field(rec, layout.customerName),
+                    statusPool.intern(field(rec, layout.status)), qty, price, salesValue,
+                    productLinePool.intern(field(rec, layout.productLine)), field(rec, layout.productCode),
+                    countryPool.intern(field(rec, layout.country)), cityPool.intern(field(rec, layout.city)),
+                    territoryPool.intern(field(rec, layout.territory)), dealSizePool.intern(field(rec, layout.dealSize)));
+        }
+
+        /** Reports the row if a sink is configured; returns true if it should be dropped. */
+        private boolean reject(CSVRecord rec, RejectReason reason) {
+            if (rejects == null) {
+                return false;
+            }
+            rejects.reject(rec.getRecordNumber() + 1, reason, rec);
+            PipelineProfiler.addRejected(1);
+            return true;
+        }
+
+        private static String field(CSVRecord rec, int col) {
+            return col >= 0 && col < rec.size() ? rec.get(col) : "";
+        }
+    }
+
+    /** Charges time spent pulling records from the CSV parser to the read phase. */
+    private static final class TimedIterator<T> implements Iterator<T> {
+        private final Iterator<T> delegate;
+
+        TimedIterator(Iterator<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean timed = PipelineProfiler.enter(Phase.READ);
+            try {
+                return delegate.hasNext();
+            } finally {
+                if (timed) {
+                    PipelineProfiler.exit();
+                }
+            }
+        }
+
+        @Override
+        public T next() {
+            boolean timed = PipelineProfiler.enter(Phase.READ);
+            try {
+                return delegate.next();
+            } finally {
+                if (timed) {
+                    PipelineProfiler.exit();
+                }
             }
-        } catch (Exception ignored) {}
-        return defaultVal;
+        }
     }
 }
@@ -0,0 +1,5 @@
+package com.example.sales.reader;
+
+/** Outcome of a {@link CsvExtract}: rows read, rows copied and bytes written including the header. */
+public record ExtractResult(long rowsScanned, long rowsWritten, long bytesWritten) {
+}
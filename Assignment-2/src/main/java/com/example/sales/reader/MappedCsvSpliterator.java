@@ -0,0 +1,150 @@
+package com.example.sales.reader;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.profile.ChunkParseEvent;
+import com.example.sales.profile.FileOpenEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Splittable spliterator over a memory-mapped CSV file.
+ * trySplit cuts the remaining byte range at its midpoint and realigns the cut to the
+ * next record boundary, so parallel streams fan out across cores without any shared
+ * reader. Every split has its own {@link ByteRowParser}; all read the one mapping.
+ * Split points assume quoted fields contain no line breaks.
+ */
+final class MappedCsvSpliterator implements Spliterator<SalesRecord> {
+
+    /** Ranges smaller than this are not split further. */
+    static final int DEFAULT_MIN_SPLIT_BYTES = 1 << 16;
+
+    private static final int SAMPLE_ROWS = 64;
+
+    private final ByteBuffer buf;
+    private final ColumnLayout layout;
+    private final int end;
+    private final int minSplitBytes;
+    private final double bytesPerRecord;
+    private int pos;
+    private ByteRowParser parser;
+
+    private MappedCsvSpliterator(ByteBuffer buf, ColumnLayout layout, int pos, int end,
+                                 int minSplitBytes, double bytesPerRecord) {
+        this.buf = buf;
+        this.layout = layout;
+        this.pos = pos;
+        this.end = end;
+        this.minSplitBytes = minSplitBytes;
+        this.bytesPerRecord = bytesPerRecord;
+    }
+
+    /** Maps the whole file read-only and positions the spliterator after the header. */
+    static MappedCsvSpliterator open(Path csvPath, int minSplitBytes) {
+        FileOpenEvent opened = new FileOpenEvent();
+        opened.begin();
+        MappedByteBuffer mapped = map(csvPath);
+        MappedCsvSpliterator spliterator = over(mapped, 0, mapped.capacity(), minSplitBytes);
+        if (opened.shouldCommit()) {
+            opened.path = csvPath.toString();
+            opened.reader = "mapped";
+            opened.bytes = mapped.capacity();
+            opened.commit();
+        }
+        return spliterator;
+    }
+
+    /** Maps the whole file read-only; files must fit one mapping (under 2 GiB). */
+    static MappedByteBuffer map(Path csvPath) {
+        try (FileChannel ch = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("File too large to map in one region: " + csvPath);
+            }
+            return ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map CSV: " + csvPath, e);
+        }
+    }
+
+    /** Spliterator over buf[start, end), whose first record is the header. */
+    static MappedCsvSpliterator over(ByteBuffer buf, int start, int end, int minSplitBytes) {
+        ByteRowParser.Header header = ByteRowParser.readHeader(buf, start, end, CsvEncoding.detect(buf, start, end));
+        int dataStart = header.dataStart();
+        ColumnLayout layout = header.layout();
+        int p = dataStart;
+        int rows = 0;
+        while (p < end && rows < SAMPLE_ROWS) {
+            p = ByteRowParser.nextLineStart(buf, p, end);
+            rows++;
+        }
+        double bytesPerRecord = rows == 0 ? 1.0 : Math.max(1.0, (double) (p - dataStart) / rows);
+        return new MappedCsvSpliterator(buf, layout, dataStart, end, minSplitBytes, bytesPerRecord);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super SalesRecord> action) {
+        if (parser == null) {
+            parser = new ByteRowParser(layout);
+        }
+        while (pos < end) {
+            pos = parser.parse(buf, pos, end);
+            if (!parser.isBlankLine()) {
+                action.accept(parser.toSalesRecord());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Parses the rest of this split in one go; recorded as one chunk-parse event. */
+    @Override
+    public void forEachRemaining(Consumer<? super SalesRecord> action) {
+        ChunkParseEvent event = new ChunkParseEvent();
+        event.begin();
+        int start = pos;
+        long rows = 0;
+        while (tryAdvance(action)) {
+            rows++;
+        }
+        if (event.shouldCommit()) {
+            event.reader = "mapped";
+            event.rows = rows;
+            event.bytes = end - start;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Spliterator<SalesRecord> trySplit() {
+        int remaining = end - pos;
+        if (remaining < minSplitBytes * 2) {
+            return null;
+        }
+        int cut = ByteRowParser.nextLineStart(buf, pos + remaining / 2, end);
+        if (cut >= end) {
+            return null;
+        }
+        MappedCsvSpliterator prefix = new MappedCsvSpliterator(buf, layout, pos, cut, minSplitBytes, bytesPerRecord);
+        pos = cut;
+        return prefix;
+    }
+
+    /** Remaining bytes divided by the average record length sampled at open. */
+    @Override
+    public long estimateSize() {
+        return (long) Math.ceil((end - pos) / bytesPerRecord);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}
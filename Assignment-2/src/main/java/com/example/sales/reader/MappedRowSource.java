@@ -0,0 +1,53 @@
+package com.example.sales.reader;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.model.SalesRow;
+import com.example.sales.profile.ChunkParseEvent;
+import com.example.sales.profile.FileOpenEvent;
+
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/** {@link RowSource} over a memory-mapped file; each scan maps the file afresh. */
+final class MappedRowSource implements RowSource {
+
+    private final Path csvPath;
+
+    MappedRowSource(Path csvPath) {
+        this.csvPath = csvPath;
+    }
+
+    @Override
+    public void forEachRow(Consumer<? super SalesRow> action) {
+        FileOpenEvent opened = new FileOpenEvent();
+        opened.begin();
+        MappedByteBuffer buf = MappedCsvSpliterator.map(csvPath);
+        if (opened.shouldCommit()) {
+            opened.path = csvPath.toString();
+            opened.reader = "cursor";
+            opened.bytes = buf.capacity();
+            opened.commit();
+        }
+        ChunkParseEvent event = new ChunkParseEvent();
+        event.begin();
+        RowCursor cursor = RowCursor.over(buf, 0, buf.capacity());
+        long rows = 0;
+        while (cursor.next()) {
+            action.accept(cursor);
+            rows++;
+        }
+        if (event.shouldCommit()) {
+            event.reader = "cursor";
+            event.rows = rows;
+            event.bytes = buf.capacity();
+            event.commit();
+        }
+    }
+
+    @Override
+    public Stream<SalesRecord> records() {
+        return CsvSalesReader.mappedStreamSupplier(csvPath).get();
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.sales.reader;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.profile.ChunkParseEvent;
+import com.example.sales.profile.FileOpenEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Staged ingest: one reader thread fills pooled direct buffers from the file, a bounded
+ * queue hands record-aligned chunks to N parser workers, and their record batches are
+ * handed to the consuming stream through a second bounded queue. Disk reads therefore
+ * overlap parsing. Both queues follow the producer/consumer hand-off of Assignment-1:
+ * producers block when the queue is full and a poison-pill item marks completion.
+ * Records arrive in no particular order. Chunks are cut at the last line break without
+ * tracking quotes, so quoted fields must not contain line breaks.
+ */
+final class ReadAheadPipeline implements Closeable {
+
+    static final int DEFAULT_CHUNK_BYTES = 4 << 20;
+
+    private static final Chunk POISON = new Chunk(null, 0, 0);
+    private static final List<SalesRecord> END = new ArrayList<>(0);
+
+    private final FileChannel channel;
+    private final int workers;
+    private final BlockingQueue<ByteBuffer> freeBuffers;
+    private final BlockingQueue<Chunk> chunks;
+    private final BlockingQueue<List<SalesRecord>> batches;
+    private final ExecutorService threads;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final ColumnLayout layout;
+
+    /** A record-aligned byte range of a pooled buffer. */
+    private record Chunk(ByteBuffer buf, int start, int end) {}
+
+    private ReadAheadPipeline(FileChannel channel, int workers, int chunkBytes) throws IOException {
+        this.channel = channel;
+        this.workers = workers;
+        int bufferCount = workers + 2;
+        this.freeBuffers = new ArrayBlockingQueue<>(bufferCount);
+        for (int i = 0; i < bufferCount; i++) {
+            freeBuffers.add(ByteBuffer.allocateDirect(chunkBytes));
+        }
+        this.chunks = new ArrayBlockingQueue<>(workers);
+        this.batches = new ArrayBlockingQueue<>(workers * 2);
+
+        // Read the first buffer on the caller's thread so header problems surface immediately.
+        ByteBuffer first = freeBuffers.poll();
+        boolean eof = fill(first);
+        CsvEncoding encoding = eof ? CsvEncoding.detect(first, 0, first.position())
+                : CsvEncoding.sniff(first, 0, first.position());
+        ByteRowParser.Header header = ByteRowParser.readHeader(first, 0, first.position(), encoding);
+        int dataStart = header.dataStart();
+        this.layout = header.layout();
+
+        AtomicInteger ids = new AtomicInteger();
+        this.threads = Executors.newFixedThreadPool(workers + 1, r -> {
+            Thread t = new Thread(r, "csv-pipeline-" + ids.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+        threads.execute(() -> readLoop(first, dataStart, eof));
+        for (int i = 0; i < workers; i++) {
+            threads.execute(this::parseLoop);
+        }
+    }
+
+    /** Opens the file, validates the header and starts the reader and parser threads. */
+    static ReadAheadPipeline start(Path csvPath, int workers, int chunkBytes) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Parser threads must be positive: " + workers);
+        }
+        FileOpenEvent opened = new FileOpenEvent();
+        opened.begin();
+        FileChannel ch = null;
+        try {
+            ch = FileChannel.open(csvPath, StandardOpenOption.READ);
+            ReadAheadPipeline pipeline = new ReadAheadPipeline(ch, workers, chunkBytes);
+            if (opened.shouldCommit()) {
+                opened.path = csvPath.toString();
+                opened.reader = "pipeline";
+                opened.bytes = ch.size();
+                opened.commit();
+            }
+            return pipeline;
+        } catch (IOException e) {
+            closeQuietly(ch);
+            throw new UncheckedIOException("Failed to open CSV: " + csvPath, e);
+        } catch (RuntimeException e) {
+            closeQuietly(ch);
+            throw e;
+        }
+    }
+
+    /** Stream of parsed records; closing it stops the pipeline. */
+    Stream<SalesRecord> stream() {
+        Spliterator<SalesRecord> batchesSpliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.NONNULL) {
+            private List<SalesRecord> current = List.of();
+            private int index;
+            private int finishedWorkers;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super SalesRecord> action) {
+                while (index >= current.size()) {
+                    if (finishedWorkers == workers) {
+                        rethrowFailure();
+                        return false;
+                    }
+                    current = takeBatch();
+                    index = 0;
+                    if (current == END) {
+                        finishedWorkers++;
+                    }
+                }
+                action.accept(current.get(index++));
+                return true;
+            }
+        };
+        return StreamSupport.stream(batchesSpliterator, false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        threads.shutdownNow();
+        closeQuietly(channel);
+    }
+
+    /** Reads buffers, cuts them at the last line break and carries the tail forward. */
+    private void readLoop(ByteBuffer buf, int start, boolean eof) {
+        try {
+            while (true) {
+                int limit = buf.position();
+                int cut = eof ? limit : lastLineEnd(buf, start, limit);
+                if (cut < 0 && start > 0) {
+                    cut = start;
+                } else if (cut < 0) {
+                    throw new IllegalStateException("Record larger than pipeline chunk of " + buf.capacity() + " bytes");
+                }
+                byte[] carry = new byte[limit - cut];
+                buf.get(cut, carry);
+                if (cut > start) {
+                    chunks.put(new Chunk(buf, start, cut));
+                } else {
+                    freeBuffers.put(buf);
+                }
+                if (eof) {
+                    break;
+                }
+                buf = freeBuffers.take();
+                buf.clear();
+                buf.put(carry);
+                eof = fill(buf);
+                start = 0;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (IOException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        }
+        try {
+            for (int i = 0; i < workers; i++) {
+                chunks.put(POISON);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Parses chunks into record batches until the poison pill arrives. */
+    private void parseLoop() {
+        ByteRowParser parser = new ByteRowParser(layout);
+        try {
+            while (true) {
+                Chunk c = chunks.take();
+                if (c == POISON) {
+                    break;
+                }
+                ChunkParseEvent event = new ChunkParseEvent();
+                event.begin();
+                List<SalesRecord> batch = new ArrayList<>();
+                try {
+                    int pos = c.start();
+                    while (pos < c.end()) {
+                        pos = parser.parse(c.buf(), pos, c.end());
+                        if (!parser.isBlankLine()) {
+                            batch.add(parser.toSalesRecord());
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+                if (event.shouldCommit()) {
+                    event.reader = "pipeline";
+                    event.rows = batch.size();
+                    event.bytes = c.end() - c.start();
+                    event.commit();
+                }
+                freeBuffers.put(c.buf());
+                batches.put(batch);
+            }
+            batches.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<SalesRecord> takeBatch() {
+        try {
+            return batches.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for parsed records", e);
+        }
+    }
+
+    private void rethrowFailure() {
+        Throwable t = failure.get();
+        if (t instanceof IOException io) {
+            throw new UncheckedIOException("Failed to read CSV", io);
+        }
+        if (t instanceof RuntimeException re) {
+            throw re;
+        }
+    }
+
+    /** Reads until the buffer is full or the file ends; returns true at end of file. */
+    private boolean fill(ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            if (channel.read(buf) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Position after the last line feed in [start, limit), or -1 if there is none; quotes are not tracked. */
+    private static int lastLineEnd(ByteBuffer buf, int start, int limit) {
+        for (int i = limit - 1; i >= start; i--) {
+            if (buf.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static void closeQuietly(FileChannel ch) {
+        if (ch != null) {
+            try {
+                ch.close();
+            } catch (IOException ignored) {}
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.sales.reader;
+
+/** Why an input row was diverted from the record stream. */
+public enum RejectReason {
+    INVALID_QUANTITY,
+    INVALID_PRICE,
+    INVALID_SALES,
+    INVALID_DATE
+}
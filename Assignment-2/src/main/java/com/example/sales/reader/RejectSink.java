@@ -0,0 +1,106 @@
+package com.example.sales.reader;
+
+import org.apache.commons.csv.CSVFormat;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects rows rejected during ingest: per-reason counts, plus an optional side file
+ * holding each rejected row as {@code line,reason,<original fields>}.
+ * Safe to share between parsing threads.
+ */
+public final class RejectSink implements Closeable {
+
+    private final Map<RejectReason, LongAdder> counts = new EnumMap<>(RejectReason.class);
+    private final BufferedWriter writer;
+
+    private RejectSink(BufferedWriter writer) {
+        this.writer = writer;
+        for (RejectReason reason : RejectReason.values()) {
+            counts.put(reason, new LongAdder());
+        }
+    }
+
+    /** Sink that only counts rejected rows. */
+    public static RejectSink counting() {
+        return new RejectSink(null);
+    }
+
+    /** Sink that counts rejected rows and writes them to a side file. */
+    public static RejectSink toFile(Path path) {
+        try {
+            BufferedWriter w = Files.newBufferedWriter(path);
+            w.write("LINE,REASON,RECORD");
+            w.newLine();
+            return new RejectSink(w);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open reject file: " + path, e);
+        }
+    }
+
+    /** Records a rejected row. */
+    public void reject(long lineNumber, RejectReason reason, Iterable<String> fields) {
+        counts.get(reason).increment();
+        if (writer == null) {
+            return;
+        }
+        String line = lineNumber + "," + reason + "," + CSVFormat.DEFAULT.format(toArray(fields));
+        synchronized (writer) {
+            try {
+                writer.write(line);
+                writer.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write reject file", e);
+            }
+        }
+    }
+
+    public long count(RejectReason reason) {
+        return counts.get(reason).sum();
+    }
+
+    public long total() {
+        return counts.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /** Non-zero counts per reason. */
+    public Map<RejectReason, Long> counts() {
+        Map<RejectReason, Long> out = new EnumMap<>(RejectReason.class);
+        counts.forEach((reason, n) -> {
+            if (n.sum() > 0) {
+                out.put(reason, n.sum());
+            }
+        });
+        return out;
+    }
+
+    @Override
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        synchronized (writer) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to close reject file", e);
+            }
+        }
+    }
+
+    private static Object[] toArray(Iterable<String> fields) {
+        List<Object> out = new ArrayList<>();
+        fields.forEach(out::add);
+        return out.toArray();
+    }
+}
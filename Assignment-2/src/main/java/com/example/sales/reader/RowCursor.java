@@ -0,0 +1,163 @@
+package com.example.sales.reader;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.model.SalesRow;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+/**
+ * Flyweight {@link SalesRow} over a byte range: {@link #next()} moves the one instance to
+ * the following record and accessors decode their field from the buffer on each call.
+ * Numbers and year/month come out without allocating and categorical columns are
+ * interned, so a scan that reads only those produces no garbage per row. Values are
+ * only valid until the next call to {@code next()}; use {@link #toSalesRecord()} to keep one.
+ */
+final class RowCursor implements SalesRow {
+
+    private final ByteBuffer buf;
+    private final int end;
+    private final ByteRowParser parser;
+    private final int dataStart;
+    private int pos;
+    private int recordStart;
+
+    private RowCursor(ByteBuffer buf, ColumnLayout layout, int pos, int end) {
+        this.buf = buf;
+        this.end = end;
+        this.dataStart = pos;
+        this.pos = pos;
+        this.recordStart = pos;
+        this.parser = new ByteRowParser(layout);
+    }
+
+    /** Cursor over buf[start, end), whose first record is the header; positioned before the first row. */
+    static RowCursor over(ByteBuffer buf, int start, int end) {
+        ByteRowParser.Header header = ByteRowParser.readHeader(buf, start, end, CsvEncoding.detect(buf, start, end));
+        return new RowCursor(buf, header.layout(), header.dataStart(), end);
+    }
+
+    /** Advances to the next non-blank record; false at the end of the range. */
+    boolean next() {
+        while (pos < end) {
+            recordStart = pos;
+            pos = parser.parse(buf, pos, end);
+            if (!parser.isBlankLine()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Offset just past the header record, i.e. where the data rows begin. */
+    int dataStart() {
+        return dataStart;
+    }
+
+    /** Offset of the current record's first byte. */
+    int recordStart() {
+        return recordStart;
+    }
+
+    /** Offset just past the current record, including its line terminator. */
+    int recordEnd() {
+        return pos;
+    }
+
+    @Override
+    public String orderNumber() {
+        return parser.orderNumber();
+    }
+
+    @Override
+    public LocalDate orderDate() {
+        return parser.orderDate();
+    }
+
+    @Override
+    public int orderYear() {
+        return parser.orderYear();
+    }
+
+    @Override
+    public int orderMonth() {
+        return parser.orderMonth();
+    }
+
+    @Override
+    public int orderDay() {
+        return parser.orderDay();
+    }
+
+    @Override
+    public String customerName() {
+        return parser.customerName();
+    }
+
+    @Override
+    public String status() {
+        return parser.status();
+    }
+
+    @Override
+    public int quantityOrdered() {
+        return parser.quantity();
+    }
+
+    @Override
+    public double priceEach() {
+        return parser.priceEach();
+    }
+
+    @Override
+    public double sales() {
+        return parser.sales();
+    }
+
+    @Override
+    public String productLine() {
+        return parser.productLine();
+    }
+
+    @Override
+    public String productCode() {
+        return parser.productCode();
+    }
+
+    @Override
+    public String country() {
+        return parser.country();
+    }
+
+    @Override
+    public String city() {
+        return parser.city();
+    }
+
+    @Override
+    public String territory() {
+        return parser.territory();
+    }
+
+    @Override
+    public String dealSize() {
+        return parser.dealSize();
+    }
+
+    /** Same rule as {@link SalesRecord#revenue()}. */
+    @Override
+    public double revenue() {
+        double sales = parser.sales();
+        return sales > 0.0 ? sales : parser.quantity() * parser.priceEach();
+    }
+
+    @Override
+    public SalesRecord toSalesRecord() {
+        return parser.toSalesRecord();
+    }
+
+    @Override
+    public String toString() {
+        return "RowCursor[" + toSalesRecord() + "]";
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.sales.reader;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.model.SalesRow;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Source that can be scanned either through a reused {@link SalesRow} view, for
+ * aggregations that must not allocate per row, or as ordinary records.
+ */
+public interface RowSource {
+
+    /**
+     * Calls the action once per row with the same view instance, so the row is only
+     * valid during the call; keep {@link SalesRow#toSalesRecord()} if it must outlive it.
+     */
+    void forEachRow(Consumer<? super SalesRow> action);
+
+    /** Fresh stream of materialized records; close it when done. */
+    Stream<SalesRecord> records();
+}
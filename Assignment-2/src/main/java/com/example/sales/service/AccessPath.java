@@ -0,0 +1,21 @@
+package com.example.sales.service;
+
+/** Ways a query can be answered, from precomputed state down to a full text parse. */
+public enum AccessPath {
+    PARTIAL_AGGREGATE("precomputed partial aggregate"),
+    DATASET_INDEX("bitmap and revenue indexes of the loaded dataset"),
+    DATASET_SCAN("scan of the loaded dataset"),
+    ROW_CURSOR("allocation-free scan of the mapped file"),
+    MAPPED_PARALLEL("parallel scan of the mapped file"),
+    CSV_STREAM("sequential commons-csv parse of the file");
+
+    private final String description;
+
+    AccessPath(String description) {
+        this.description = description;
+    }
+
+    public String description() {
+        return description;
+    }
+}
@@ -1,8 +1,23 @@
 package com.example.sales.service;
 
+import com.example.sales.dataset.SalesDataset;
+import com.example.sales.index.CategoryFilter;
+import com.example.sales.index.RevenueIndex;
+import com.example.sales.join.DimensionTable;
 import com.example.sales.model.SalesRecord;
+import com.example.sales.model.SalesRow;
+import com.example.sales.profile.Phase;
+import com.example.sales.profile.PipelineProfiler;
+import com.example.sales.profile.QueryExecuteEvent;
+import com.example.sales.reader.RowSource;
+import com.example.sales.sketch.KllSketch;
+import com.example.sales.util.IntAccumulatorMap;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -11,44 +26,119 @@ import java.util.stream.Stream;
  * Analytics service using Java Streams for sales data processing.
  * Demonstrates functional programming with lambdas, method references, and collectors.
  */
-public final class AnalyticsService {
+public final class AnalyticsService implements SalesAnalytics {
+
+    /** Private helpers that sit between a query method and its scan. */
+    private static final Set<String> SCAN_HELPERS = Set.of("callingQuery", "scanRows", "sumRowsBy", "countRowsBy");
 
     private final Supplier<Stream<SalesRecord>> streamSupplier;
+    private final SalesDataset dataset;
+    private final RowSource rows;
+    private volatile CustomerRollup customers;
 
     public AnalyticsService(Supplier<Stream<SalesRecord>> streamSupplier) {
-        this.streamSupplier = streamSupplier;
+        this.streamSupplier = instrumented(streamSupplier);
+        this.dataset = null;
+        this.rows = null;
+    }
+
+    /** Runs over a loaded dataset so filtered queries can use its indexes. */
+    public AnalyticsService(SalesDataset dataset) {
+        this.streamSupplier = instrumented(dataset::stream);
+        this.dataset = dataset;
+        this.rows = null;
+    }
+
+    /**
+     * Runs the totals, group counts and revenue roll-ups as allocation-free scans over the
+     * source's reused row view; other queries stream its materialized records.
+     */
+    public AnalyticsService(RowSource rows) {
+        this.streamSupplier = instrumented(rows::records);
+        this.dataset = null;
+        this.rows = rows;
     }
 
     /** Calculates total revenue using mapToDouble + sum. */
+    @Override
     public double totalRevenue() {
+        if (rows != null) {
+            double[] sum = new double[1];
+            scanRows(r -> sum[0] += r.revenue());
+            return sum[0];
+        }
         try (Stream<SalesRecord> s = streamSupplier.get()) {
             return s.mapToDouble(SalesRecord::revenue).sum();
         }
     }
 
     /** Counts total orders. */
+    @Override
     public long totalOrders() {
+        if (rows != null) {
+            long[] count = new long[1];
+            scanRows(r -> count[0]++);
+            return count[0];
+        }
         try (Stream<SalesRecord> s = streamSupplier.get()) {
             return s.count();
         }
     }
 
     /** Sums total quantity ordered. */
+    @Override
     public long totalQuantity() {
+        if (rows != null) {
+            long[] sum = new long[1];
+            scanRows(r -> sum[0] += r.quantityOrdered());
+            return sum[0];
+        }
         try (Stream<SalesRecord> s = streamSupplier.get()) {
             return s.mapToLong(SalesRecord::quantityOrdered).sum();
         }
     }
 
     /** Calculates average order value. */
+    @Override
     public double averageOrderValue() {
+        if (rows != null) {
+            double[] acc = new double[2];
+            scanRows(r -> {
+                acc[0] += r.revenue();
+                acc[1]++;
+            });
+            return acc[1] == 0 ? 0.0 : acc[0] / acc[1];
+        }
         try (Stream<SalesRecord> s = streamSupplier.get()) {
             return s.mapToDouble(SalesRecord::revenue).average().orElse(0.0);
         }
     }
 
+    /**
+     * Order-level metrics in one pass: ORDERNUMBER repeats once per order line, so
+     * these count baskets rather than lines.
+     */
+    @Override
+    public OrderMetrics orderMetrics() {
+        try (Stream<SalesRecord> s = streamSupplier.get()) {
+            return s.collect(OrderRollup.collector()).toMetrics();
+        }
+    }
+
     /** Groups revenue by year using groupingBy + summingDouble. */
+    @Override
     public Map<Integer, Double> revenueByYear() {
+        if (rows != null) {
+            IntAccumulatorMap years = new IntAccumulatorMap();
+            scanRows(r -> {
+                if (r.orderYear() != 0) {
+                    years.add(r.orderYear(), r.revenue());
+                }
+            });
+            Map<Integer, Double> out = new HashMap<>();
+            years.forEach((year, count, sum) -> out.put(year, sum));
+            return out;
+        }
         try (Stream<SalesRecord> s = streamSupplier.get()) {
             return s.filter(r -> r.orderDate() != null)
                     .collect(Collectors.groupingBy(r -> r.orderDate().getYear(),
@@ -57,7 +147,11 @@ public final class AnalyticsService {
     }
 
     /** Groups revenue by territory/region. */
+    @Override
     public Map<String, Double> revenueByRegion() {
+        if (rows != null) {
+            return sumRowsBy(SalesRow::territory);
+        }
         try (Stream<SalesRecord> s = streamSupplier.get()) {
             return s.collect(Collectors.groupingBy(r -> Optional.ofNullable(r.territory()).orElse("UNKNOWN"),
                     Collectors.summingDouble(SalesRecord::revenue)));
@@ -65,6 +159,7 @@ public final class AnalyticsService {
     }
 
     /** Returns top N products by revenue (sorted descending). */
+    @Override
     public LinkedHashMap<String, Double> topProducts(int topN) {
         try (Stream<SalesRecord> s = streamSupplier.get()) {
             Map<String, Double> m = s.collect(Collectors.groupingBy(
@@ -79,6 +174,7 @@ public final class AnalyticsService {
     }
 
     /** Returns top N customers by revenue (sorted descending). */
+    @Override
     public LinkedHashMap<String, Double> topCustomers(int topN) {
         try (Stream<SalesRecord> s = streamSupplier.get()) {
             Map<String, Double> m = s.collect(Collectors.groupingBy(
@@ -93,7 +189,11 @@ public final class AnalyticsService {
     }
 
     /** Counts orders by status using groupingBy + counting. */
+    @Override
     public Map<String, Long> ordersByStatus() {
+        if (rows != null) {
+            return countRowsBy(SalesRow::status);
+        }
         try (Stream<SalesRecord> s = streamSupplier.get()) {
             return s.collect(Collectors.groupingBy(r -> Optional.ofNullable(r.status()).orElse("UNKNOWN"),
                     Collectors.counting()));
@@ -101,7 +201,11 @@ public final class AnalyticsService {
     }
 
     /** Counts orders by deal size (Small/Medium/Large). */
+    @Override
     public Map<String, Long> ordersByDealSize() {
+        if (rows != null) {
+            return countRowsBy(SalesRow::dealSize);
+        }
         try (Stream<SalesRecord> s = streamSupplier.get()) {
             return s.collect(Collectors.groupingBy(r -> Optional.ofNullable(r.dealSize()).orElse("UNKNOWN"),
                     Collectors.counting()));
@@ -109,24 +213,167 @@ public final class AnalyticsService {
     }
 
     /** Partitions orders into high/low value based on threshold. */
+    @Override
     public Map<Boolean, Long> partitionHighValue(double threshold) {
+        if (dataset != null) {
+            return dataset.revenueIndex().partition(threshold);
+        }
+        if (rows != null) {
+            long[] counts = new long[2];
+            scanRows(r -> counts[r.revenue() > threshold ? 1 : 0]++);
+            Map<Boolean, Long> out = new HashMap<>();
+            out.put(false, counts[0]);
+            out.put(true, counts[1]);
+            return out;
+        }
         try (Stream<SalesRecord> s = streamSupplier.get()) {
             return s.collect(Collectors.partitioningBy(r -> r.revenue() > threshold, Collectors.counting()));
         }
     }
 
+    /**
+     * Sorted revenue index for what-if threshold sweeps, ranks and exact percentiles.
+     * Shared by the dataset when there is one; otherwise built from a single scan
+     * and meant to be kept by the caller.
+     */
+    public RevenueIndex revenueIndex() {
+        if (dataset != null) {
+            return dataset.revenueIndex();
+        }
+        try (Stream<SalesRecord> s = streamSupplier.get()) {
+            return RevenueIndex.build(s.mapToDouble(SalesRecord::revenue).toArray());
+        }
+    }
+
     /** Calculates monthly revenue in YYYY-MM format. */
+    @Override
     public Map<String, Double> monthlyRevenue() {
+        if (rows != null) {
+            IntAccumulatorMap months = new IntAccumulatorMap();
+            scanRows(r -> {
+                if (r.orderYear() != 0) {
+                    months.add(r.orderYear() * 100 + r.orderMonth(), r.revenue());
+                }
+            });
+            Map<String, Double> out = new HashMap<>();
+            months.forEach((key, count, sum) -> out.put(String.format("%d-%02d", key / 100, key % 100), sum));
+            return out;
+        }
         try (Stream<SalesRecord> s = streamSupplier.get()) {
             return s.filter(r -> r.orderDate() != null)
                     .collect(Collectors.groupingBy(
-                            r -> String.format("%d-%02d", r.orderDate().getYear(), r.orderDate().getMonthValue()),
+                            r -> monthKey(r.orderDate()),
                             Collectors.summingDouble(SalesRecord::revenue)
                     ));
         }
     }
 
+    /** Quantile sketch of order-line revenue per territory; sketches merge across partitions. */
+    public Map<String, KllSketch> orderValueSketchByTerritory() {
+        try (Stream<SalesRecord> s = streamSupplier.get()) {
+            return s.collect(Collectors.groupingBy(r -> Optional.ofNullable(r.territory()).orElse("UNKNOWN"),
+                    KllSketch.collector(SalesRecord::revenue)));
+        }
+    }
+
+    /** Quantile sketch of order-line revenue per YYYY-MM month. */
+    public Map<String, KllSketch> orderValueSketchByMonth() {
+        try (Stream<SalesRecord> s = streamSupplier.get()) {
+            return s.filter(r -> r.orderDate() != null)
+                    .collect(Collectors.groupingBy(r -> monthKey(r.orderDate()), TreeMap::new,
+                            KllSketch.collector(SalesRecord::revenue)));
+        }
+    }
+
+    /** Approximate p50/p90/p99 order-line revenue per territory, without sorting the data. */
+    @Override
+    public Map<String, Map<String, Double>> orderValuePercentilesByTerritory() {
+        return percentiles(orderValueSketchByTerritory());
+    }
+
+    /** Approximate p50/p90/p99 order-line revenue per month, without sorting the data. */
+    public Map<String, Map<String, Double>> orderValuePercentilesByMonth() {
+        return percentiles(orderValueSketchByMonth());
+    }
+
+    static Map<String, Map<String, Double>> percentiles(Map<String, KllSketch> sketches) {
+        Map<String, Map<String, Double>> out = new TreeMap<>();
+        sketches.forEach((group, sketch) -> {
+            Map<String, Double> p = new LinkedHashMap<>();
+            p.put("p50", sketch.quantile(0.50));
+            p.put("p90", sketch.quantile(0.90));
+            p.put("p99", sketch.quantile(0.99));
+            out.put(group, p);
+        });
+        return out;
+    }
+
+    private static String monthKey(LocalDate date) {
+        return String.format("%d-%02d", date.getYear(), date.getMonthValue());
+    }
+
+    /**
+     * Per-customer recency, order and revenue state in one fresh pass, over the row view
+     * when there is one. The RFM and cohort queries below share a single rollup.
+     */
+    public CustomerRollup customerRollup() {
+        if (rows != null) {
+            CustomerRollup rollup = new CustomerRollup();
+            scanRows(rollup::add);
+            return rollup;
+        }
+        try (Stream<SalesRecord> s = streamSupplier.get()) {
+            return s.collect(CustomerRollup.collector());
+        }
+    }
+
+    /** RFM scores per customer as of the day after the latest order, highest revenue first. */
+    public List<RfmScore> rfmScores() {
+        return sharedCustomerRollup().rfm();
+    }
+
+    /** Monthly retention of first-purchase-month cohorts. */
+    public List<Cohort> cohortRetention() {
+        return sharedCustomerRollup().cohorts();
+    }
+
+    /** Rollup behind rfmScores() and cohortRetention(), built on first use and then shared. */
+    private CustomerRollup sharedCustomerRollup() {
+        CustomerRollup rollup = customers;
+        if (rollup == null) {
+            synchronized (this) {
+                rollup = customers;
+                if (rollup == null) {
+                    rollup = customerRollup();
+                    customers = rollup;
+                }
+            }
+        }
+        return rollup;
+    }
+
+    /**
+     * Product pairs bought together in at least minOrders orders, strongest lift first.
+     * Pair counting runs in parallel on the common fork-join pool.
+     */
+    public List<Association> basketAssociations(int limit, int minOrders) {
+        try (Stream<SalesRecord> s = streamSupplier.get()) {
+            return s.collect(BasketAnalysis.collector()).associations(limit, minOrders);
+        }
+    }
+
+    /**
+     * Every report metric in one pass as mergeable, serializable partial state, so files
+     * can be aggregated by separate processes and combined with {@link PartialAggregate#merge}.
+     */
+    public PartialAggregate partialAggregate(double highValueThreshold) {
+        try (Stream<SalesRecord> s = streamSupplier.get()) {
+            return s.collect(PartialAggregate.collector(highValueThreshold));
+        }
+    }
+
     /** Performs data quality checks: missing values, duplicates, etc. */
+    @Override
     public Map<String, Object> dataQualityChecks() {
         Map<String, Object> out = new LinkedHashMap<>();
         try (Stream<SalesRecord> s = streamSupplier.get()) {
@@ -141,4 +388,177 @@ public final class AnalyticsService {
         }
         return out;
     }
+
+    /** Sums revenue of rows matching the filter; uses bitmap indexes when backed by a dataset. */
+    public double revenueWhere(CategoryFilter filter) {
+        if (dataset != null) {
+            return dataset.sumRevenue(dataset.select(filter));
+        }
+        try (Stream<SalesRecord> s = streamSupplier.get()) {
+            return s.filter(filter).mapToDouble(SalesRecord::revenue).sum();
+        }
+    }
+
+    /** Counts rows matching the filter; uses bitmap indexes when backed by a dataset. */
+    public long countWhere(CategoryFilter filter) {
+        if (dataset != null) {
+            return dataset.select(filter).getCardinality();
+        }
+        try (Stream<SalesRecord> s = streamSupplier.get()) {
+            return s.filter(filter).count();
+        }
+    }
+
+    /** Sums revenue for orders dated in [from, to]; uses zone maps when backed by a dataset. */
+    public double revenueBetween(LocalDate from, LocalDate to) {
+        if (dataset != null) {
+            return dataset.sumRevenue(dataset.selectDateRange(from, to));
+        }
+        try (Stream<SalesRecord> s = streamSupplier.get()) {
+            return s.filter(r -> r.orderDate() != null
+                            && !r.orderDate().isBefore(from) && !r.orderDate().isAfter(to))
+                    .mapToDouble(SalesRecord::revenue)
+                    .sum();
+        }
+    }
+
+    /**
+     * Groups revenue by an attribute of a joined dimension file in one scan.
+     * Fact rows without a dimension match are grouped under "UNKNOWN".
+     */
+    public Map<String, Double> revenueBy(DimensionTable dim, String attribute) {
+        int col = requireColumn(dim, attribute);
+        try (Stream<SalesRecord> s = streamSupplier.get()) {
+            return s.collect(Collectors.groupingBy(r -> joinedAttribute(dim, dim.probe(r), col),
+                    Collectors.summingDouble(SalesRecord::revenue)));
+        }
+    }
+
+    /**
+     * Gross margin (revenue - quantity * unit cost) grouped by an attribute of a second
+     * dimension, e.g. margin by customer segment, probing both tables in the same scan.
+     * Rows whose product has no known unit cost are left out.
+     */
+    public Map<String, Double> marginBy(DimensionTable costs, String unitCostColumn,
+                                        DimensionTable groups, String groupColumn) {
+        int costCol = requireColumn(costs, unitCostColumn);
+        int groupCol = requireColumn(groups, groupColumn);
+        try (Stream<SalesRecord> s = streamSupplier.get()) {
+            return s.collect(HashMap::new, (Map<String, Double> out, SalesRecord r) -> {
+                double margin = r.revenue() - r.quantityOrdered() * unitCost(costs, r, costCol);
+                if (!Double.isNaN(margin)) {
+                    out.merge(joinedAttribute(groups, groups.probe(r), groupCol), margin, Double::sum);
+                }
+            }, (a, b) -> b.forEach((k, v) -> a.merge(k, v, Double::sum)));
+        }
+    }
+
+    private static int requireColumn(DimensionTable dim, String column) {
+        int col = dim.columnIndex(column);
+        if (col < 0) {
+            throw new IllegalArgumentException("Unknown dimension column: " + column);
+        }
+        return col;
+    }
+
+    private static String joinedAttribute(DimensionTable dim, int row, int col) {
+        return row < 0 ? "UNKNOWN" : dim.attribute(row, col);
+    }
+
+    private static double unitCost(DimensionTable costs, SalesRecord r, int col) {
+        int row = costs.probe(r);
+        return row < 0 ? Double.NaN : costs.number(row, col);
+    }
+
+    /** Revenue per key over the row view; accumulators are allocated per key, not per row. */
+    private Map<String, Double> sumRowsBy(Function<SalesRow, String> key) {
+        Map<String, double[]> sums = new HashMap<>();
+        scanRows(r -> sums.computeIfAbsent(orUnknown(key.apply(r)), k -> new double[1])[0] += r.revenue());
+        Map<String, Double> out = new HashMap<>();
+        sums.forEach((k, v) -> out.put(k, v[0]));
+        return out;
+    }
+
+    /** Row count per key over the row view. */
+    private Map<String, Long> countRowsBy(Function<SalesRow, String> key) {
+        Map<String, long[]> counts = new HashMap<>();
+        scanRows(r -> counts.computeIfAbsent(orUnknown(key.apply(r)), k -> new long[1])[0]++);
+        Map<String, Long> out = new HashMap<>();
+        counts.forEach((k, v) -> out.put(k, v[0]));
+        return out;
+    }
+
+    private static String orUnknown(String key) {
+        return key == null ? "UNKNOWN" : key;
+    }
+
+    /** One instrumented pass over the row view, timed and traced like a stream query. */
+    private void scanRows(Consumer<SalesRow> action) {
+        QueryExecuteEvent event = new QueryExecuteEvent();
+        boolean timed = PipelineProfiler.enter(Phase.AGGREGATION);
+        event.begin();
+        long[] seen = new long[1];
+        try {
+            rows.forEachRow(r -> {
+                seen[0]++;
+                action.accept(r);
+            });
+        } finally {
+            if (timed) {
+                PipelineProfiler.exit();
+            }
+            if (event.shouldCommit()) {
+                event.query = callingQuery();
+                event.rows = seen[0];
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Instruments each query: the stream opens the profiler's aggregation phase and a
+     * {@link QueryExecuteEvent}, and closing it ends both, which every method does via
+     * try-with-resources. With profiling and JFR both off the source stream is returned as is.
+     */
+    private static Supplier<Stream<SalesRecord>> instrumented(Supplier<Stream<SalesRecord>> source) {
+        return () -> {
+            QueryExecuteEvent event = new QueryExecuteEvent();
+            boolean timed = PipelineProfiler.enter(Phase.AGGREGATION);
+            if (!timed && !event.isEnabled()) {
+                return source.get();
+            }
+            event.begin();
+            try {
+                Stream<SalesRecord> s = source.get();
+                if (event.isEnabled()) {
+                    event.query = callingQuery();
+                    LongAdder rows = new LongAdder();
+                    // filter, unlike peek, clears SIZED so count() still visits every row
+                    s = s.filter(r -> {
+                        rows.increment();
+                        return true;
+                    }).onClose(() -> {
+                        event.rows = rows.sum();
+                        event.commit();
+                    });
+                }
+                return timed ? s.onClose(PipelineProfiler::exit) : s;
+            } catch (RuntimeException e) {
+                if (timed) {
+                    PipelineProfiler.exit();
+                }
+                throw e;
+            }
+        };
+    }
+
+    /** Name of the public AnalyticsService method that asked for a stream or scan. */
+    private static String callingQuery() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().equals(AnalyticsService.class.getName()))
+                .map(StackWalker.StackFrame::getMethodName)
+                .filter(m -> !m.startsWith("lambda$") && !SCAN_HELPERS.contains(m))
+                .findFirst()
+                .orElse("unknown"));
+    }
 }
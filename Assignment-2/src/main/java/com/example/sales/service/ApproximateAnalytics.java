@@ -0,0 +1,201 @@
+package com.example.sales.service;
+
+import com.example.sales.index.CategoryFilter;
+import com.example.sales.model.SalesRecord;
+import com.example.sales.reader.BlockSample;
+import com.example.sales.reader.CsvSalesReader;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Approximate mode of the analytics: queries read a block sample of the file instead of
+ * all of it, scale sums and counts up to the whole file, and attach 95% confidence
+ * intervals. Blocks are the sampling unit, so estimates use the cluster-sampling
+ * formulas over per-block totals with the known block count: total = N * mean block
+ * total, variance = N^2 (1 - n/N) s^2 / n. Averages use the ratio estimator.
+ * Each query takes its own {@link SampleSpec}.
+ */
+public final class ApproximateAnalytics {
+
+    /** Default sampling unit size; smaller blocks give more units and tighter intervals. */
+    public static final int DEFAULT_BLOCK_BYTES = 64 * 1024;
+
+    private static final double Z95 = 1.959964;
+    private static final double PILOT_RATE = 0.05;
+    private static final int MIN_PILOT_BLOCKS = 4;
+
+    private final Path csvPath;
+    private final int blockBytes;
+    private final long seed;
+
+    public ApproximateAnalytics(Path csvPath) {
+        this(csvPath, DEFAULT_BLOCK_BYTES, 42L);
+    }
+
+    public ApproximateAnalytics(Path csvPath, int blockBytes, long seed) {
+        this.csvPath = csvPath;
+        this.blockBytes = blockBytes;
+        this.seed = seed;
+    }
+
+    public Estimate totalRevenue(SampleSpec spec) {
+        return total(sample(spec, SalesRecord::revenue), SalesRecord::revenue);
+    }
+
+    public Estimate totalOrders(SampleSpec spec) {
+        return total(sample(spec, r -> 1.0), r -> 1.0);
+    }
+
+    public Estimate totalQuantity(SampleSpec spec) {
+        return total(sample(spec, SalesRecord::quantityOrdered), SalesRecord::quantityOrdered);
+    }
+
+    /** Mean order-line revenue, via the ratio of estimated revenue to estimated rows. */
+    public Estimate averageOrderValue(SampleSpec spec) {
+        return ratio(sample(spec, SalesRecord::revenue), SalesRecord::revenue, r -> 1.0);
+    }
+
+    /** Revenue of rows matching the filter. */
+    public Estimate revenueWhere(CategoryFilter filter, SampleSpec spec) {
+        ToDoubleFunction<SalesRecord> matched = r -> filter.test(r) ? r.revenue() : 0.0;
+        return total(sample(spec, matched), matched);
+    }
+
+    /** Revenue per territory; a target error applies to total revenue. */
+    public Map<String, Estimate> revenueByRegion(SampleSpec spec) {
+        BlockSample s = sample(spec, SalesRecord::revenue);
+        return grouped(s, r -> Optional.ofNullable(r.territory()).orElse("UNKNOWN"), SalesRecord::revenue);
+    }
+
+    /** Row counts per status; a target error applies to the total row count. */
+    public Map<String, Estimate> ordersByStatus(SampleSpec spec) {
+        BlockSample s = sample(spec, r -> 1.0);
+        return grouped(s, r -> Optional.ofNullable(r.status()).orElse("UNKNOWN"), r -> 1.0);
+    }
+
+    /**
+     * Draws the sample for a query. With a target error, a pilot sample estimates the
+     * variance of the driving metric and the rate is solved from
+     * z * N * sqrt((1/n - 1/N) s^2) / total = target.
+     */
+    private BlockSample sample(SampleSpec spec, ToDoubleFunction<SalesRecord> driver) {
+        if (!spec.hasTargetError()) {
+            return CsvSalesReader.blockSample(csvPath, spec.rate(), blockBytes, seed);
+        }
+        double pilotRate = PILOT_RATE;
+        BlockSample pilot = CsvSalesReader.blockSample(csvPath, pilotRate, blockBytes, seed);
+        while (pilot.blocks().size() < MIN_PILOT_BLOCKS && pilotRate < 1.0) {
+            pilotRate = Math.min(1.0, pilotRate * 4);
+            pilot = CsvSalesReader.blockSample(csvPath, pilotRate, blockBytes, seed);
+        }
+        double[] totals = blockTotals(pilot, driver);
+        int n = totals.length;
+        int blocks = pilot.totalBlocks();
+        double mean = mean(totals);
+        if (n < 2 || mean == 0.0) {
+            return pilotRate >= 1.0 ? pilot : CsvSalesReader.blockSample(csvPath, 1.0, blockBytes, seed);
+        }
+        double v = Math.pow(Z95 * Math.sqrt(variance(totals, mean)) / (spec.targetError() * mean), 2);
+        double needed = v * blocks / (v + blocks);
+        double rate = Math.min(1.0, needed / blocks);
+        if (rate <= pilotRate) {
+            return pilot;
+        }
+        return CsvSalesReader.blockSample(csvPath, rate, blockBytes, seed + 1);
+    }
+
+    private static Estimate total(BlockSample s, ToDoubleFunction<SalesRecord> y) {
+        double[] totals = blockTotals(s, y);
+        int n = totals.length;
+        int blocks = s.totalBlocks();
+        double mean = mean(totals);
+        double value = blocks * mean;
+        double halfWidth;
+        if (n == blocks) {
+            halfWidth = 0.0;
+        } else if (n < 2) {
+            halfWidth = Double.POSITIVE_INFINITY;
+        } else {
+            halfWidth = Z95 * blocks * Math.sqrt((1.0 - (double) n / blocks) * variance(totals, mean) / n);
+        }
+        return new Estimate(value, value - halfWidth, value + halfWidth, s.rate());
+    }
+
+    private static Estimate ratio(BlockSample s, ToDoubleFunction<SalesRecord> y, ToDoubleFunction<SalesRecord> x) {
+        double[] ys = blockTotals(s, y);
+        double[] xs = blockTotals(s, x);
+        int n = ys.length;
+        int blocks = s.totalBlocks();
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = 0; i < n; i++) {
+            sumX += xs[i];
+            sumY += ys[i];
+        }
+        if (sumX == 0.0) {
+            return new Estimate(0.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, s.rate());
+        }
+        double r = sumY / sumX;
+        double halfWidth;
+        if (n == blocks) {
+            halfWidth = 0.0;
+        } else if (n < 2) {
+            halfWidth = Double.POSITIVE_INFINITY;
+        } else {
+            double[] residuals = new double[n];
+            for (int i = 0; i < n; i++) {
+                residuals[i] = ys[i] - r * xs[i];
+            }
+            double meanX = sumX / n;
+            halfWidth = Z95 * Math.sqrt((1.0 - (double) n / blocks) * variance(residuals, 0.0) / n) / meanX;
+        }
+        return new Estimate(r, r - halfWidth, r + halfWidth, s.rate());
+    }
+
+    private static Map<String, Estimate> grouped(BlockSample s, Function<SalesRecord, String> key,
+                                                 ToDoubleFunction<SalesRecord> y) {
+        Map<String, Estimate> out = new TreeMap<>();
+        s.stream().map(key).distinct().forEach(group ->
+                out.put(group, total(s, r -> group.equals(key.apply(r)) ? y.applyAsDouble(r) : 0.0)));
+        return out;
+    }
+
+    private static double[] blockTotals(BlockSample s, ToDoubleFunction<SalesRecord> y) {
+        List<List<SalesRecord>> blocks = s.blocks();
+        double[] totals = new double[blocks.size()];
+        for (int i = 0; i < totals.length; i++) {
+            double t = 0;
+            for (SalesRecord r : blocks.get(i)) {
+                t += y.applyAsDouble(r);
+            }
+            totals[i] = t;
+        }
+        return totals;
+    }
+
+    private static double mean(double[] values) {
+        if (values.length == 0) {
+            return 0.0;
+        }
+        double sum = 0;
+        for (double v : values) {
+            sum += v;
+        }
+        return sum / values.length;
+    }
+
+    /** Sample variance (n - 1 denominator) around the given center. */
+    private static double variance(double[] values, double center) {
+        double ss = 0;
+        for (double v : values) {
+            ss += (v - center) * (v - center);
+        }
+        return ss / (values.length - 1);
+    }
+}
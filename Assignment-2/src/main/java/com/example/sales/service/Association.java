@@ -0,0 +1,12 @@
+package com.example.sales.service;
+
+/**
+ * Two products bought in the same orders.
+ *
+ * @param orders  orders containing both products
+ * @param support share of all orders containing both products
+ * @param lift    support over what independent purchases would give; above 1 means
+ *                the products are bought together more often than chance
+ */
+public record Association(String productA, String productB, int orders, double support, double lift) {
+}
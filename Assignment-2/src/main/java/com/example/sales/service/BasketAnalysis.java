@@ -0,0 +1,218 @@
+package com.example.sales.service;
+
+import com.example.sales.model.SalesRow;
+import com.example.sales.util.LongCountMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collector;
+
+/**
+ * Market-basket analysis: which product codes are bought in the same order. Collection
+ * keeps each order line as one packed long (order key in the high half, product id in the
+ * low half), so building baskets is a primitive sort. Pair counting splits the baskets
+ * into ranges on a {@link ForkJoinPool}; each task counts its pairs into its own
+ * {@link LongCountMap} keyed by the packed product-id pair, and the maps merge as the
+ * tasks join. Numeric order numbers are their own key, as in {@link OrderRollup}; other
+ * order numbers get a negative key per distinct string.
+ */
+public final class BasketAnalysis {
+
+    /** Baskets per fork-join leaf task. */
+    private static final int LEAF_BASKETS = 2048;
+
+    private static final Comparator<Association> STRONGEST_FIRST = Comparator
+            .comparingDouble(Association::lift).reversed()
+            .thenComparing(Comparator.comparingInt(Association::orders).reversed())
+            .thenComparing(Association::productA)
+            .thenComparing(Association::productB);
+
+    private final Map<String, Integer> productIds = new HashMap<>();
+    private final List<String> products = new ArrayList<>();
+    private final Map<String, Integer> otherOrderIds = new HashMap<>();
+    private final List<String> otherOrders = new ArrayList<>();
+    private long[] lines = new long[1024];
+    private int lineCount;
+
+    /** Collector that gathers order lines in one pass; partitions merge for parallel streams. */
+    public static Collector<SalesRow, BasketAnalysis, BasketAnalysis> collector() {
+        return Collector.of(BasketAnalysis::new, BasketAnalysis::add, BasketAnalysis::merge,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public void add(SalesRow r) {
+        String code = r.productCode() == null ? "UNKNOWN" : r.productCode();
+        int id = id(productIds, products, code);
+        int order = OrderRollup.parseOrderNumber(r.orderNumber());
+        if (order < 0) {
+            order = -1 - id(otherOrderIds, otherOrders, String.valueOf(r.orderNumber()));
+        }
+        append(pack(order, id));
+    }
+
+    /** Appends another partition's lines, mapping its product and order ids onto this one's. */
+    public BasketAnalysis merge(BasketAnalysis o) {
+        int[] remap = new int[o.products.size()];
+        for (int i = 0; i < remap.length; i++) {
+            remap[i] = id(productIds, products, o.products.get(i));
+        }
+        int[] orderRemap = new int[o.otherOrders.size()];
+        for (int i = 0; i < orderRemap.length; i++) {
+            orderRemap[i] = id(otherOrderIds, otherOrders, o.otherOrders.get(i));
+        }
+        for (int i = 0; i < o.lineCount; i++) {
+            long line = o.lines[i];
+            int order = (int) (line >> 32);
+            append(pack(order >= 0 ? order : -1 - orderRemap[-1 - order], remap[(int) line]));
+        }
+        return this;
+    }
+
+    /** Number of distinct product codes seen. */
+    public int productCount() {
+        return products.size();
+    }
+
+    /** Strongest associations on the common fork-join pool. */
+    public List<Association> associations(int limit, int minOrders) {
+        return associations(limit, minOrders, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Up to limit product pairs bought together in at least minOrders orders, highest
+     * lift first. Support and lift are relative to the number of distinct orders.
+     */
+    public List<Association> associations(int limit, int minOrders, ForkJoinPool pool) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        }
+        if (minOrders < 1) {
+            throw new IllegalArgumentException("Minimum orders must be positive: " + minOrders);
+        }
+        Baskets baskets = baskets();
+        if (baskets.count() == 0 || limit == 0) {
+            return List.of();
+        }
+        LongCountMap pairs = pool.invoke(new PairCount(baskets, 0, baskets.count()));
+
+        double orders = baskets.count();
+        PriorityQueue<Association> top = new PriorityQueue<>(Math.min(limit, 1024) + 1, STRONGEST_FIRST.reversed());
+        pairs.forEach((key, count) -> {
+            if (count < minOrders) {
+                return;
+            }
+            int a = (int) (key >>> 32);
+            int b = (int) key;
+            double support = count / orders;
+            double lift = support / ((baskets.productOrders[a] / orders) * (baskets.productOrders[b] / orders));
+            top.add(new Association(products.get(a), products.get(b), count, support, lift));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+        List<Association> out = new ArrayList<>(top);
+        out.sort(STRONGEST_FIRST);
+        return out;
+    }
+
+    /** Sorts the lines into one run per order, dropping repeated products within an order. */
+    private Baskets baskets() {
+        long[] sorted = Arrays.copyOf(lines, lineCount);
+        Arrays.sort(sorted);
+        int[] items = new int[sorted.length];
+        int[] starts = new int[sorted.length + 1];
+        int[] productOrders = new int[products.size()];
+        int n = 0;
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i > 0 && sorted[i] == sorted[i - 1]) {
+                continue;
+            }
+            if (i == 0 || (sorted[i] >> 32) != (sorted[i - 1] >> 32)) {
+                starts[count++] = n;
+            }
+            items[n] = (int) sorted[i];
+            productOrders[items[n]]++;
+            n++;
+        }
+        starts[count] = n;
+        return new Baskets(items, Arrays.copyOf(starts, count + 1), productOrders);
+    }
+
+    /** Dense id of value, assigned in order of first appearance. */
+    private static int id(Map<String, Integer> ids, List<String> values, String value) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            ids.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+
+    private void append(long line) {
+        if (lineCount == lines.length) {
+            lines = Arrays.copyOf(lines, lineCount * 2);
+        }
+        lines[lineCount++] = line;
+    }
+
+    private static long pack(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Product ids of every order: basket i is items[starts[i]] to items[starts[i + 1]],
+     * sorted. productOrders counts the baskets holding each product.
+     */
+    private record Baskets(int[] items, int[] starts, int[] productOrders) {
+        int count() {
+            return starts.length - 1;
+        }
+    }
+
+    /** Counts the pairs of a range of baskets, splitting until the range is small. */
+    private static final class PairCount extends RecursiveTask<LongCountMap> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Baskets baskets;
+        private final int from;
+        private final int to;
+
+        PairCount(Baskets baskets, int from, int to) {
+            this.baskets = baskets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected LongCountMap compute() {
+            if (to - from > LEAF_BASKETS) {
+                int mid = (from + to) >>> 1;
+                PairCount left = new PairCount(baskets, from, mid);
+                left.fork();
+                LongCountMap right = new PairCount(baskets, mid, to).compute();
+                LongCountMap mine = left.join();
+                return mine.size() >= right.size() ? mine.merge(right) : right.merge(mine);
+            }
+            int[] items = baskets.items;
+            LongCountMap counts = new LongCountMap(1024);
+            for (int b = from; b < to; b++) {
+                int end = baskets.starts[b + 1];
+                for (int i = baskets.starts[b]; i < end; i++) {
+                    for (int j = i + 1; j < end; j++) {
+                        counts.increment(pack(items[i], items[j]));
+                    }
+                }
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.sales.service;
+
+import java.util.List;
+
+/**
+ * Customers whose first order fell in one month, and how many of them ordered again in
+ * each later month.
+ *
+ * @param month     first-purchase month, YYYY-MM
+ * @param customers cohort size
+ * @param active    customers with an order k months after the first; index 0 is the cohort size
+ */
+public record Cohort(String month, int customers, List<Integer> active) {
+
+    /** Fraction of the cohort active k months after its first purchase; 0 past the data. */
+    public double retention(int k) {
+        return k < active.size() && customers > 0 ? (double) active.get(k) / customers : 0.0;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.sales.service;
+
+import com.example.sales.model.SalesRow;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * Per-customer accumulation state for RFM scoring and cohort retention, filled in one
+ * pass: last order epoch day, revenue, and small primitive sets of the customer's order
+ * numbers and active months; non-numeric order numbers go to a string set beside them.
+ * Order count is the size of both order sets; the first purchase
+ * month is the month set's minimum. Partitions merge by taking maxima and set unions,
+ * so the collector works on parallel streams. Dates are read as year, month and day, so
+ * rows from a reused row view are added without building a LocalDate. Rows without an
+ * order date count toward revenue and orders only; customers with no dated rows are left
+ * out of RFM and cohorts.
+ */
+public final class CustomerRollup {
+
+    private static final long DAYS_0000_TO_1970 = 719_528L;
+
+    private final Map<String, Customer> customers = new HashMap<>();
+
+    /** Collector that builds a rollup in one pass; partitions merge for parallel streams. */
+    public static Collector<SalesRow, CustomerRollup, CustomerRollup> collector() {
+        return Collector.of(CustomerRollup::new, CustomerRollup::add, CustomerRollup::merge,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public void add(SalesRow r) {
+        String name = r.customerName() == null ? "UNKNOWN" : r.customerName();
+        Customer c = customers.computeIfAbsent(name, k -> new Customer());
+        c.revenue += r.revenue();
+        int order = OrderRollup.parseOrderNumber(r.orderNumber());
+        if (order >= 0) {
+            c.orders.add(order);
+        } else {
+            c.otherOrders().add(String.valueOf(r.orderNumber()));
+        }
+        int year = r.orderYear();
+        if (year != 0) {
+            c.lastDay = Math.max(c.lastDay, epochDay(year, r.orderMonth(), r.orderDay()));
+            c.months.add(year * 12 + r.orderMonth() - 1);
+        }
+    }
+
+    public CustomerRollup merge(CustomerRollup o) {
+        o.customers.forEach((name, theirs) -> customers.merge(name, theirs, Customer::merge));
+        return this;
+    }
+
+    public int customerCount() {
+        return customers.size();
+    }
+
+    /** Scores as of the day after the latest order in the data. */
+    public List<RfmScore> rfm() {
+        long latest = customers.values().stream().mapToLong(c -> c.lastDay).max().orElse(Long.MIN_VALUE);
+        return latest == Long.MIN_VALUE ? List.of() : rfm(LocalDate.ofEpochDay(latest + 1));
+    }
+
+    /** RFM profile of every customer with a dated order, highest revenue first. */
+    public List<RfmScore> rfm(LocalDate asOf) {
+        List<Map.Entry<String, Customer>> dated = new ArrayList<>();
+        customers.entrySet().stream().filter(e -> e.getValue().lastDay != Long.MIN_VALUE).forEach(dated::add);
+        long day = asOf.toEpochDay();
+        Map<String, Integer> r = quintiles(dated, c -> -(double) (day - c.lastDay));
+        Map<String, Integer> f = quintiles(dated, Customer::orderCount);
+        Map<String, Integer> m = quintiles(dated, c -> c.revenue);
+        List<RfmScore> out = new ArrayList<>();
+        for (Map.Entry<String, Customer> e : dated) {
+            Customer c = e.getValue();
+            String name = e.getKey();
+            out.add(new RfmScore(name, day - c.lastDay, c.orderCount(), c.revenue, r.get(name), f.get(name), m.get(name)));
+        }
+        out.sort(Comparator.comparingDouble(RfmScore::monetary).reversed().thenComparing(RfmScore::customer));
+        return out;
+    }
+
+    /** Cohorts by first-purchase month, oldest first, with active customers per month offset. */
+    public List<Cohort> cohorts() {
+        Map<Integer, int[]> active = new TreeMap<>();
+        int maxMonth = customers.values().stream()
+                .filter(c -> c.months.size > 0)
+                .mapToInt(c -> c.months.values[c.months.size - 1])
+                .max().orElse(0);
+        for (Customer c : customers.values()) {
+            if (c.months.size == 0) {
+                continue;
+            }
+            int first = c.months.values[0];
+            int[] counts = active.computeIfAbsent(first, k -> new int[maxMonth - k + 1]);
+            for (int i = 0; i < c.months.size; i++) {
+                counts[c.months.values[i] - first]++;
+            }
+        }
+        List<Cohort> out = new ArrayList<>();
+        active.forEach((month, counts) -> out.add(new Cohort(
+                String.format("%d-%02d", month / 12, month % 12 + 1), counts[0],
+                Arrays.stream(counts).boxed().toList())));
+        return Collections.unmodifiableList(out);
+    }
+
+    /** Same as {@code LocalDate.of(year, month, day).toEpochDay()} for years from 0 on, without the LocalDate. */
+    static long epochDay(int year, int month, int day) {
+        long y = year;
+        long days = 365 * y + (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        days += (367L * month - 362) / 12 + day - 1;
+        if (month > 2) {
+            days -= Year.isLeap(year) ? 1 : 2;
+        }
+        return days - DAYS_0000_TO_1970;
+    }
+
+    /** Quintile score 1-5 per customer by the metric, higher is better; ties share a score. */
+    private static Map<String, Integer> quintiles(List<Map.Entry<String, Customer>> customers,
+                                                  ToDoubleFunction<Customer> metric) {
+        List<Map.Entry<String, Customer>> sorted = new ArrayList<>(customers);
+        sorted.sort(Comparator.comparingDouble(e -> metric.applyAsDouble(e.getValue())));
+        Map<String, Integer> scores = new HashMap<>();
+        int n = sorted.size();
+        int rank = 0;
+        for (int i = 0; i < n; i++) {
+            double value = metric.applyAsDouble(sorted.get(i).getValue());
+            if (i > 0 && value != metric.applyAsDouble(sorted.get(i - 1).getValue())) {
+                rank = i;
+            }
+            scores.put(sorted.get(i).getKey(), 1 + (int) (5L * rank / n));
+        }
+        return scores;
+    }
+
+    private static final class Customer {
+        private long lastDay = Long.MIN_VALUE;
+        private double revenue;
+        private final IntSet orders = new IntSet();
+        private final IntSet months = new IntSet();
+        private Set<String> otherOrders;
+
+        Set<String> otherOrders() {
+            if (otherOrders == null) {
+                otherOrders = new HashSet<>();
+            }
+            return otherOrders;
+        }
+
+        int orderCount() {
+            return orders.size + (otherOrders == null ? 0 : otherOrders.size());
+        }
+
+        Customer merge(Customer o) {
+            lastDay = Math.max(lastDay, o.lastDay);
+            revenue += o.revenue;
+            orders.addAll(o.orders);
+            months.addAll(o.months);
+            if (o.otherOrders != null) {
+                otherOrders().addAll(o.otherOrders);
+            }
+            return this;
+        }
+    }
+
+    /** Sorted set of ints in a growable array; customers have few orders and months. */
+    private static final class IntSet {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int v) {
+            int at = Arrays.binarySearch(values, 0, size, v);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, at, values, at + 1, size - at);
+            values[at] = v;
+            size++;
+        }
+
+        void addAll(IntSet o) {
+            for (int i = 0; i < o.size; i++) {
+                add(o.values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.sales.service;
+
+/**
+ * Approximate answer with its 95% confidence interval and the block sample rate it was
+ * computed from. An interval is unbounded when too few blocks were sampled to estimate
+ * the variance.
+ */
+public record Estimate(double value, double lower, double upper, double sampleRate) {
+
+    /** Half the interval width. */
+    public double halfWidth() {
+        return (upper - lower) / 2.0;
+    }
+
+    /** Half-width relative to the value; 0 for an exact zero. */
+    public double relativeError() {
+        if (value == 0.0) {
+            return halfWidth() == 0.0 ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+        return halfWidth() / Math.abs(value);
+    }
+
+    public boolean contains(double x) {
+        return x >= lower && x <= upper;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.2f ± %.2f (95%% CI, %.1f%% sample)", value, halfWidth(), sampleRate * 100.0);
+    }
+}
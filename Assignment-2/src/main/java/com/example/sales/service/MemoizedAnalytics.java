@@ -0,0 +1,155 @@
+package com.example.sales.service;
+
+import com.example.sales.dataset.SalesDataset;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Report metrics over one immutable {@link SalesDataset} snapshot, computed lazily and
+ * then remembered. The first metric requested scans the snapshot once into a
+ * {@link PartialAggregate}; every metric, including the ones sharing a grouping such as
+ * totals, revenueByYear and monthlyRevenue, is then derived from that partial and cached
+ * on first use. High-value partitions for other thresholds come from the dataset's
+ * revenue index. Map results are unmodifiable and shared between callers; top-N
+ * rankings are returned as copies. Safe for concurrent use.
+ */
+public final class MemoizedAnalytics implements SalesAnalytics {
+
+    private final SalesDataset dataset;
+    private final double highValueThreshold;
+    private final Map<Object, Object> results = new ConcurrentHashMap<>();
+    private final AtomicInteger scans = new AtomicInteger();
+    private volatile PartialAggregate partial;
+
+    /** Memoizes over the snapshot; partitions at highValueThreshold come from the shared scan. */
+    public MemoizedAnalytics(SalesDataset dataset, double highValueThreshold) {
+        this.dataset = dataset;
+        this.highValueThreshold = highValueThreshold;
+    }
+
+    public SalesDataset dataset() {
+        return dataset;
+    }
+
+    /** Scans of the dataset so far: 0 before the first metric, 1 after. */
+    public int scans() {
+        return scans.get();
+    }
+
+    @Override
+    public double totalRevenue() {
+        return memo("totalRevenue", PartialAggregate::totalRevenue);
+    }
+
+    @Override
+    public long totalOrders() {
+        return memo("totalOrders", PartialAggregate::totalOrders);
+    }
+
+    @Override
+    public long totalQuantity() {
+        return memo("totalQuantity", PartialAggregate::totalQuantity);
+    }
+
+    @Override
+    public double averageOrderValue() {
+        return memo("averageOrderValue", PartialAggregate::averageOrderValue);
+    }
+
+    @Override
+    public OrderMetrics orderMetrics() {
+        return memo("orderMetrics", PartialAggregate::orderMetrics);
+    }
+
+    @Override
+    public Map<Integer, Double> revenueByYear() {
+        return memo("revenueByYear", p -> Collections.unmodifiableMap(p.revenueByYear()));
+    }
+
+    @Override
+    public Map<String, Double> revenueByRegion() {
+        return memo("revenueByRegion", p -> Collections.unmodifiableMap(p.revenueByRegion()));
+    }
+
+    @Override
+    public LinkedHashMap<String, Double> topProducts(int topN) {
+        return new LinkedHashMap<>(memo("topProducts:" + topN, p -> p.topProducts(topN)));
+    }
+
+    @Override
+    public LinkedHashMap<String, Double> topCustomers(int topN) {
+        return new LinkedHashMap<>(memo("topCustomers:" + topN, p -> p.topCustomers(topN)));
+    }
+
+    @Override
+    public Map<String, Long> ordersByStatus() {
+        return memo("ordersByStatus", p -> Collections.unmodifiableMap(p.ordersByStatus()));
+    }
+
+    @Override
+    public Map<String, Long> ordersByDealSize() {
+        return memo("ordersByDealSize", p -> Collections.unmodifiableMap(p.ordersByDealSize()));
+    }
+
+    /** From the shared scan at the construction threshold, otherwise from the revenue index. */
+    @Override
+    public Map<Boolean, Long> partitionHighValue(double threshold) {
+        if (Double.compare(threshold, highValueThreshold) == 0) {
+            return memo("partitionHighValue", p -> Collections.unmodifiableMap(p.partitionHighValue(threshold)));
+        }
+        @SuppressWarnings("unchecked")
+        Map<Boolean, Long> out = (Map<Boolean, Long>) results.computeIfAbsent(threshold,
+                t -> Collections.unmodifiableMap(dataset.revenueIndex().partition(threshold)));
+        return out;
+    }
+
+    @Override
+    public Map<String, Double> monthlyRevenue() {
+        return memo("monthlyRevenue", p -> Collections.unmodifiableMap(p.monthlyRevenue()));
+    }
+
+    @Override
+    public Map<String, Map<String, Double>> orderValuePercentilesByTerritory() {
+        return memo("orderValuePercentilesByTerritory", p -> {
+            Map<String, Map<String, Double>> out = new LinkedHashMap<>();
+            p.orderValuePercentilesByTerritory().forEach((k, v) -> out.put(k, Collections.unmodifiableMap(v)));
+            return Collections.unmodifiableMap(out);
+        });
+    }
+
+    @Override
+    public Map<String, Object> dataQualityChecks() {
+        return memo("dataQualityChecks", p -> Collections.unmodifiableMap(p.dataQualityChecks()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T memo(String metric, Function<PartialAggregate, T> derive) {
+        Object cached = results.get(metric);
+        if (cached == null) {
+            PartialAggregate p = partial();
+            cached = results.computeIfAbsent(metric, k -> derive.apply(p));
+        }
+        return (T) cached;
+    }
+
+    /** The shared partial, built by the first metric requested. */
+    private PartialAggregate partial() {
+        PartialAggregate p = partial;
+        if (p == null) {
+            synchronized (this) {
+                p = partial;
+                if (p == null) {
+                    p = dataset.stream().collect(PartialAggregate.collector(highValueThreshold));
+                    scans.incrementAndGet();
+                    partial = p;
+                }
+            }
+        }
+        return p;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.sales.service;
+
+/**
+ * Order-level (basket) metrics, as opposed to the per-line totals.
+ *
+ * @param distinctOrders       number of distinct ORDERNUMBER values
+ * @param averageBasketValue   revenue per distinct order
+ * @param averageLinesPerOrder order lines per distinct order
+ */
+public record OrderMetrics(long distinctOrders, double averageBasketValue, double averageLinesPerOrder) {
+}
@@ -0,0 +1,131 @@
+package com.example.sales.service;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.util.IntAccumulatorMap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collector;
+
+/**
+ * Mutable per-order accumulation state: lines and revenue keyed by order number.
+ * Numeric order numbers go into a primitive {@link IntAccumulatorMap}; anything
+ * else falls back to a boxed map so no row is dropped.
+ */
+public final class OrderRollup {
+
+    private final IntAccumulatorMap numeric = new IntAccumulatorMap(1024);
+    private final Map<String, double[]> other = new HashMap<>();
+    private long lines;
+    private double revenue;
+
+    /** Collector that builds a rollup in one pass; partitions merge for parallel streams. */
+    public static Collector<SalesRecord, OrderRollup, OrderRollup> collector() {
+        return Collector.of(OrderRollup::new, OrderRollup::add, OrderRollup::merge,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public void add(SalesRecord r) {
+        double value = r.revenue();
+        int key = parseOrderNumber(r.orderNumber());
+        if (key >= 0) {
+            numeric.add(key, value);
+        } else {
+            double[] acc = other.computeIfAbsent(String.valueOf(r.orderNumber()), k -> new double[2]);
+            acc[0]++;
+            acc[1] += value;
+        }
+        lines++;
+        revenue += value;
+    }
+
+    public OrderRollup merge(OrderRollup o) {
+        numeric.merge(o.numeric);
+        o.other.forEach((k, acc) -> {
+            double[] mine = other.computeIfAbsent(k, x -> new double[2]);
+            mine[0] += acc[0];
+            mine[1] += acc[1];
+        });
+        lines += o.lines;
+        revenue += o.revenue;
+        return this;
+    }
+
+    public long distinctOrders() {
+        return numeric.size() + other.size();
+    }
+
+    /** Per-order accumulators for numeric order numbers. */
+    public IntAccumulatorMap orders() {
+        return numeric;
+    }
+
+    public OrderMetrics toMetrics() {
+        long orders = distinctOrders();
+        if (orders == 0) {
+            return new OrderMetrics(0, 0.0, 0.0);
+        }
+        return new OrderMetrics(orders, revenue / orders, (double) lines / orders);
+    }
+
+    /** Writes the rollup state; {@link #readFrom} restores it. */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(lines);
+        out.writeDouble(revenue);
+        out.writeInt(numeric.size());
+        IOException[] failure = new IOException[1];
+        numeric.forEach((key, count, sum) -> {
+            if (failure[0] == null) {
+                try {
+                    out.writeInt(key);
+                    out.writeInt(count);
+                    out.writeDouble(sum);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        out.writeInt(other.size());
+        for (Map.Entry<String, double[]> e : other.entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeDouble(e.getValue()[0]);
+            out.writeDouble(e.getValue()[1]);
+        }
+    }
+
+    /** Reads a rollup written by {@link #writeTo}. */
+    public static OrderRollup readFrom(DataInput in) throws IOException {
+        OrderRollup rollup = new OrderRollup();
+        rollup.lines = in.readLong();
+        rollup.revenue = in.readDouble();
+        for (int i = in.readInt(); i > 0; i--) {
+            rollup.numeric.add(in.readInt(), in.readInt(), in.readDouble());
+        }
+        for (int i = in.readInt(); i > 0; i--) {
+            rollup.other.put(in.readUTF(), new double[] {in.readDouble(), in.readDouble()});
+        }
+        return rollup;
+    }
+
+    /** Parses a non-negative int order number without exceptions; -1 if not numeric. */
+    static int parseOrderNumber(String s) {
+        if (s == null || s.isEmpty() || s.length() > 10) {
+            return -1;
+        }
+        long v = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            v = v * 10 + (c - '0');
+        }
+        return v > Integer.MAX_VALUE ? -1 : (int) v;
+    }
+}
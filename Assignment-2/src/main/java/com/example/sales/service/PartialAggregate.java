@@ -0,0 +1,338 @@
+package com.example.sales.service;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.sketch.KllSketch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Mergeable state behind every report metric: sums, counts, per-order rollups, group
+ * maps and quantile sketches. Partials built over different files (or by different
+ * processes) merge into exactly the state one pass over all of them would give, except
+ * for the approximate percentiles. Top-N rankings keep their full group maps, so merged
+ * rankings are exact. The high-value partition is counted for one threshold fixed at
+ * build time. Partials are written in a versioned binary format; see {@link #write}.
+ * Not thread-safe.
+ */
+public final class PartialAggregate implements SalesAnalytics {
+
+    /** Current binary format version; readers reject any other. */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x53414C50; // "SALP"
+
+    private final double highValueThreshold;
+    private long rows;
+    private double revenue;
+    private long quantity;
+    private long highValueRows;
+    private long missingOrderDate;
+    private long missingSalesValue;
+    private OrderRollup orders = new OrderRollup();
+    private final Map<Integer, Double> revenueByYear = new HashMap<>();
+    private final Map<String, Double> revenueByMonth = new HashMap<>();
+    private final Map<String, Double> revenueByTerritory = new HashMap<>();
+    private final Map<String, Double> revenueByProductLine = new HashMap<>();
+    private final Map<String, Double> revenueByCustomer = new HashMap<>();
+    private final Map<String, Long> ordersByStatus = new HashMap<>();
+    private final Map<String, Long> ordersByDealSize = new HashMap<>();
+    private final Map<String, KllSketch> sketchByTerritory = new HashMap<>();
+
+    public PartialAggregate(double highValueThreshold) {
+        this.highValueThreshold = highValueThreshold;
+    }
+
+    /** Collector building one partial in a single pass; partitions merge for parallel streams. */
+    public static Collector<SalesRecord, PartialAggregate, PartialAggregate> collector(double highValueThreshold) {
+        return Collector.of(() -> new PartialAggregate(highValueThreshold), PartialAggregate::add,
+                PartialAggregate::merge, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public void add(SalesRecord r) {
+        double value = r.revenue();
+        LocalDate date = r.orderDate();
+        String territory = orUnknown(r.territory());
+        rows++;
+        revenue += value;
+        quantity += r.quantityOrdered();
+        if (value > highValueThreshold) {
+            highValueRows++;
+        }
+        if (date == null) {
+            missingOrderDate++;
+        } else {
+            revenueByYear.merge(date.getYear(), value, Double::sum);
+            revenueByMonth.merge(String.format("%d-%02d", date.getYear(), date.getMonthValue()), value, Double::sum);
+        }
+        if (value == 0.0) {
+            missingSalesValue++;
+        }
+        orders.add(r);
+        revenueByTerritory.merge(territory, value, Double::sum);
+        revenueByProductLine.merge(orUnknown(r.productLine()), value, Double::sum);
+        revenueByCustomer.merge(orUnknown(r.customerName()), value, Double::sum);
+        ordersByStatus.merge(orUnknown(r.status()), 1L, Long::sum);
+        ordersByDealSize.merge(orUnknown(r.dealSize()), 1L, Long::sum);
+        sketchByTerritory.computeIfAbsent(territory, t -> new KllSketch()).update(value);
+    }
+
+    /**
+     * Folds another partial into this one and returns this.
+     * Both must have been built with the same high-value threshold.
+     */
+    public PartialAggregate merge(PartialAggregate o) {
+        if (Double.compare(highValueThreshold, o.highValueThreshold) != 0) {
+            throw new IllegalArgumentException("Cannot merge partials with high-value thresholds "
+                    + highValueThreshold + " and " + o.highValueThreshold);
+        }
+        rows += o.rows;
+        revenue += o.revenue;
+        quantity += o.quantity;
+        highValueRows += o.highValueRows;
+        missingOrderDate += o.missingOrderDate;
+        missingSalesValue += o.missingSalesValue;
+        orders.merge(o.orders);
+        o.revenueByYear.forEach((k, v) -> revenueByYear.merge(k, v, Double::sum));
+        o.revenueByMonth.forEach((k, v) -> revenueByMonth.merge(k, v, Double::sum));
+        o.revenueByTerritory.forEach((k, v) -> revenueByTerritory.merge(k, v, Double::sum));
+        o.revenueByProductLine.forEach((k, v) -> revenueByProductLine.merge(k, v, Double::sum));
+        o.revenueByCustomer.forEach((k, v) -> revenueByCustomer.merge(k, v, Double::sum));
+        o.ordersByStatus.forEach((k, v) -> ordersByStatus.merge(k, v, Long::sum));
+        o.ordersByDealSize.forEach((k, v) -> ordersByDealSize.merge(k, v, Long::sum));
+        o.sketchByTerritory.forEach((k, v) -> sketchByTerritory.computeIfAbsent(k, x -> new KllSketch()).merge(v));
+        return this;
+    }
+
+    public double highValueThreshold() {
+        return highValueThreshold;
+    }
+
+    @Override
+    public double totalRevenue() {
+        return revenue;
+    }
+
+    @Override
+    public long totalOrders() {
+        return rows;
+    }
+
+    @Override
+    public long totalQuantity() {
+        return quantity;
+    }
+
+    @Override
+    public double averageOrderValue() {
+        return rows == 0 ? 0.0 : revenue / rows;
+    }
+
+    @Override
+    public OrderMetrics orderMetrics() {
+        return orders.toMetrics();
+    }
+
+    @Override
+    public Map<Integer, Double> revenueByYear() {
+        return new HashMap<>(revenueByYear);
+    }
+
+    @Override
+    public Map<String, Double> revenueByRegion() {
+        return new HashMap<>(revenueByTerritory);
+    }
+
+    @Override
+    public LinkedHashMap<String, Double> topProducts(int topN) {
+        return top(revenueByProductLine, topN);
+    }
+
+    @Override
+    public LinkedHashMap<String, Double> topCustomers(int topN) {
+        return top(revenueByCustomer, topN);
+    }
+
+    @Override
+    public Map<String, Long> ordersByStatus() {
+        return new HashMap<>(ordersByStatus);
+    }
+
+    @Override
+    public Map<String, Long> ordersByDealSize() {
+        return new HashMap<>(ordersByDealSize);
+    }
+
+    /** Only available for the threshold the partial was built with. */
+    @Override
+    public Map<Boolean, Long> partitionHighValue(double threshold) {
+        if (Double.compare(threshold, highValueThreshold) != 0) {
+            throw new IllegalArgumentException("Partial was built for high-value threshold "
+                    + highValueThreshold + ", not " + threshold);
+        }
+        Map<Boolean, Long> out = new LinkedHashMap<>();
+        out.put(false, rows - highValueRows);
+        out.put(true, highValueRows);
+        return out;
+    }
+
+    @Override
+    public Map<String, Double> monthlyRevenue() {
+        return new HashMap<>(revenueByMonth);
+    }
+
+    @Override
+    public Map<String, Map<String, Double>> orderValuePercentilesByTerritory() {
+        return AnalyticsService.percentiles(sketchByTerritory);
+    }
+
+    @Override
+    public Map<String, Object> dataQualityChecks() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("rows", rows);
+        out.put("missingOrderDate", missingOrderDate);
+        out.put("missingSalesValue", missingSalesValue);
+        out.put("duplicateOrderNumbers", rows - orders.distinctOrders());
+        return out;
+    }
+
+    /** Writes this partial to a file, replacing it. */
+    public void write(Path path) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write partial: " + path, e);
+        }
+    }
+
+    /** Reads a partial written by {@link #write}. */
+    public static PartialAggregate read(Path path) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            return readFrom(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read partial: " + path, e);
+        }
+    }
+
+    public void writeTo(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeDouble(highValueThreshold);
+        out.writeLong(rows);
+        out.writeDouble(revenue);
+        out.writeLong(quantity);
+        out.writeLong(highValueRows);
+        out.writeLong(missingOrderDate);
+        out.writeLong(missingSalesValue);
+        orders.writeTo(out);
+        out.writeInt(revenueByYear.size());
+        for (Map.Entry<Integer, Double> e : revenueByYear.entrySet()) {
+            out.writeInt(e.getKey());
+            out.writeDouble(e.getValue());
+        }
+        writeSums(out, revenueByMonth);
+        writeSums(out, revenueByTerritory);
+        writeSums(out, revenueByProductLine);
+        writeSums(out, revenueByCustomer);
+        writeCounts(out, ordersByStatus);
+        writeCounts(out, ordersByDealSize);
+        out.writeInt(sketchByTerritory.size());
+        for (Map.Entry<String, KllSketch> e : sketchByTerritory.entrySet()) {
+            out.writeUTF(e.getKey());
+            e.getValue().writeTo(out);
+        }
+        out.flush();
+    }
+
+    /** Reads a partial; throws IllegalArgumentException for foreign data or another format version. */
+    public static PartialAggregate readFrom(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a sales partial aggregate");
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported partial format version: " + version);
+        }
+        PartialAggregate p = new PartialAggregate(in.readDouble());
+        p.rows = in.readLong();
+        p.revenue = in.readDouble();
+        p.quantity = in.readLong();
+        p.highValueRows = in.readLong();
+        p.missingOrderDate = in.readLong();
+        p.missingSalesValue = in.readLong();
+        p.orders = OrderRollup.readFrom(in);
+        for (int i = in.readInt(); i > 0; i--) {
+            p.revenueByYear.put(in.readInt(), in.readDouble());
+        }
+        readSums(in, p.revenueByMonth);
+        readSums(in, p.revenueByTerritory);
+        readSums(in, p.revenueByProductLine);
+        readSums(in, p.revenueByCustomer);
+        readCounts(in, p.ordersByStatus);
+        readCounts(in, p.ordersByDealSize);
+        for (int i = in.readInt(); i > 0; i--) {
+            p.sketchByTerritory.put(in.readUTF(), KllSketch.readFrom(in));
+        }
+        return p;
+    }
+
+    private static LinkedHashMap<String, Double> top(Map<String, Double> m, int topN) {
+        return m.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(topN)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
+                        (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private static String orUnknown(String s) {
+        return Optional.ofNullable(s).orElse("UNKNOWN");
+    }
+
+    private static void writeSums(DataOutput out, Map<String, Double> m) throws IOException {
+        out.writeInt(m.size());
+        for (Map.Entry<String, Double> e : new TreeMap<>(m).entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeDouble(e.getValue());
+        }
+    }
+
+    private static void writeCounts(DataOutput out, Map<String, Long> m) throws IOException {
+        out.writeInt(m.size());
+        for (Map.Entry<String, Long> e : new TreeMap<>(m).entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeLong(e.getValue());
+        }
+    }
+
+    private static void readSums(DataInput in, Map<String, Double> m) throws IOException {
+        for (int i = in.readInt(); i > 0; i--) {
+            m.put(in.readUTF(), in.readDouble());
+        }
+    }
+
+    private static void readCounts(DataInput in, Map<String, Long> m) throws IOException {
+        for (int i = in.readInt(); i > 0; i--) {
+            m.put(in.readUTF(), in.readLong());
+        }
+    }
+}
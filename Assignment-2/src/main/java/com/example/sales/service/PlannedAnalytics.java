@@ -0,0 +1,150 @@
+package com.example.sales.service;
+
+import com.example.sales.index.CategoryFilter;
+import com.example.sales.model.SalesRecord;
+import com.example.sales.reader.CsvSalesReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * {@link SalesAnalytics} that asks a {@link QueryPlanner} for the cheapest access path of
+ * every call and runs it there. Each plan is kept so a report can end with an explanation
+ * of the choices. Not thread-safe.
+ */
+public final class PlannedAnalytics implements SalesAnalytics {
+
+    private final QueryPlanner planner;
+    private final Map<AccessPath, SalesAnalytics> services = new EnumMap<>(AccessPath.class);
+    private final List<QueryPlan> plans = new ArrayList<>();
+
+    public PlannedAnalytics(QueryPlanner planner) {
+        this.planner = planner;
+    }
+
+    @Override
+    public double totalRevenue() {
+        return on(Query.TOTAL_REVENUE).totalRevenue();
+    }
+
+    @Override
+    public long totalOrders() {
+        return on(Query.TOTAL_ORDERS).totalOrders();
+    }
+
+    @Override
+    public long totalQuantity() {
+        return on(Query.TOTAL_QUANTITY).totalQuantity();
+    }
+
+    @Override
+    public double averageOrderValue() {
+        return on(Query.AVERAGE_ORDER_VALUE).averageOrderValue();
+    }
+
+    @Override
+    public OrderMetrics orderMetrics() {
+        return on(Query.ORDER_METRICS).orderMetrics();
+    }
+
+    @Override
+    public Map<Integer, Double> revenueByYear() {
+        return on(Query.REVENUE_BY_YEAR).revenueByYear();
+    }
+
+    @Override
+    public Map<String, Double> revenueByRegion() {
+        return on(Query.REVENUE_BY_REGION).revenueByRegion();
+    }
+
+    @Override
+    public LinkedHashMap<String, Double> topProducts(int topN) {
+        return on(Query.TOP_PRODUCTS).topProducts(topN);
+    }
+
+    @Override
+    public LinkedHashMap<String, Double> topCustomers(int topN) {
+        return on(Query.TOP_CUSTOMERS).topCustomers(topN);
+    }
+
+    @Override
+    public Map<String, Long> ordersByStatus() {
+        return on(Query.ORDERS_BY_STATUS).ordersByStatus();
+    }
+
+    @Override
+    public Map<String, Long> ordersByDealSize() {
+        return on(Query.ORDERS_BY_DEAL_SIZE).ordersByDealSize();
+    }
+
+    @Override
+    public Map<Boolean, Long> partitionHighValue(double threshold) {
+        return run(planner.planPartition(threshold)).partitionHighValue(threshold);
+    }
+
+    @Override
+    public Map<String, Double> monthlyRevenue() {
+        return on(Query.MONTHLY_REVENUE).monthlyRevenue();
+    }
+
+    @Override
+    public Map<String, Map<String, Double>> orderValuePercentilesByTerritory() {
+        return on(Query.PERCENTILES_BY_TERRITORY).orderValuePercentilesByTerritory();
+    }
+
+    @Override
+    public Map<String, Object> dataQualityChecks() {
+        return on(Query.DATA_QUALITY).dataQualityChecks();
+    }
+
+    /** Revenue of rows matching the filter, via the index when selective enough. */
+    public double revenueWhere(CategoryFilter filter) {
+        return ((AnalyticsService) run(planner.plan(Query.REVENUE_WHERE, filter))).revenueWhere(filter);
+    }
+
+    /** Rows matching the filter. */
+    public long countWhere(CategoryFilter filter) {
+        return ((AnalyticsService) run(planner.plan(Query.COUNT_WHERE, filter))).countWhere(filter);
+    }
+
+    /** Every plan made so far, in call order. */
+    public List<QueryPlan> plans() {
+        return Collections.unmodifiableList(plans);
+    }
+
+    /** Latest plan per query method, explained; suitable for a report section. */
+    public Map<String, String> explain() {
+        Map<String, String> out = new LinkedHashMap<>();
+        plans.forEach(p -> out.put(p.query().method(), p.explain()));
+        return out;
+    }
+
+    private SalesAnalytics on(Query query) {
+        return run(planner.plan(query));
+    }
+
+    private SalesAnalytics run(QueryPlan plan) {
+        plans.add(plan);
+        return services.computeIfAbsent(plan.path(), this::open);
+    }
+
+    private SalesAnalytics open(AccessPath path) {
+        return switch (path) {
+            case PARTIAL_AGGREGATE -> planner.partial();
+            case DATASET_INDEX -> new AnalyticsService(planner.dataset());
+            case DATASET_SCAN -> new AnalyticsService(planner.dataset()::stream);
+            case ROW_CURSOR -> new AnalyticsService(CsvSalesReader.rowSource(planner.csv()));
+            case MAPPED_PARALLEL -> {
+                Supplier<Stream<SalesRecord>> mapped = CsvSalesReader.mappedStreamSupplier(planner.csv());
+                yield new AnalyticsService(() -> mapped.get().parallel());
+            }
+            case CSV_STREAM -> new AnalyticsService(CsvSalesReader.streamSupplier(planner.csv()));
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.sales.service;
+
+/**
+ * Queries the planner knows how to cost: the {@link SalesAnalytics} methods plus the
+ * filtered sums. groupColumn names the column whose distinct count sizes the result,
+ * and cursorNative marks queries that {@link AnalyticsService} runs directly on a row view.
+ */
+public enum Query {
+    TOTAL_REVENUE("totalRevenue", null, true),
+    TOTAL_ORDERS("totalOrders", null, true),
+    TOTAL_QUANTITY("totalQuantity", null, true),
+    AVERAGE_ORDER_VALUE("averageOrderValue", null, true),
+    ORDER_METRICS("orderMetrics", "ORDERNUMBER", false),
+    REVENUE_BY_YEAR("revenueByYear", null, true),
+    REVENUE_BY_REGION("revenueByRegion", "TERRITORY", true),
+    TOP_PRODUCTS("topProducts", "PRODUCTLINE", false),
+    TOP_CUSTOMERS("topCustomers", "CUSTOMERNAME", false),
+    ORDERS_BY_STATUS("ordersByStatus", "STATUS", true),
+    ORDERS_BY_DEAL_SIZE("ordersByDealSize", "DEALSIZE", true),
+    PARTITION_HIGH_VALUE("partitionHighValue", null, true),
+    MONTHLY_REVENUE("monthlyRevenue", null, true),
+    PERCENTILES_BY_TERRITORY("orderValuePercentilesByTerritory", "TERRITORY", false),
+    DATA_QUALITY("dataQualityChecks", "ORDERNUMBER", false),
+    REVENUE_WHERE("revenueWhere", null, false),
+    COUNT_WHERE("countWhere", null, false);
+
+    private final String method;
+    private final String groupColumn;
+    private final boolean cursorNative;
+
+    Query(String method, String groupColumn, boolean cursorNative) {
+        this.method = method;
+        this.groupColumn = groupColumn;
+        this.cursorNative = cursorNative;
+    }
+
+    /** Name of the AnalyticsService method. */
+    public String method() {
+        return method;
+    }
+
+    /** Column that determines the number of groups, or null for scalar results. */
+    public String groupColumn() {
+        return groupColumn;
+    }
+
+    public boolean isCursorNative() {
+        return cursorNative;
+    }
+
+    public boolean isFiltered() {
+        return this == REVENUE_WHERE || this == COUNT_WHERE;
+    }
+}
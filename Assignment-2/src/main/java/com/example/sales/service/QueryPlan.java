@@ -0,0 +1,22 @@
+package com.example.sales.service;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The planner's choice for one query: the cheapest available path, its estimated cost
+ * in row-scan units, the cost of every other candidate and the rows it expects to touch.
+ */
+public record QueryPlan(Query query, AccessPath path, double cost, Map<AccessPath, Double> candidates,
+                        long estimatedRows, String note) {
+
+    /** One-line explanation, e.g. {@code ROW_CURSOR cost 423 over ~2823 rows (CSV_STREAM 2823, ...)}. */
+    public String explain() {
+        String others = candidates.entrySet().stream()
+                .filter(e -> e.getKey() != path)
+                .map(e -> String.format("%s %.0f", e.getKey(), e.getValue()))
+                .collect(Collectors.joining(", "));
+        return String.format("%s cost %.0f over ~%d rows%s%s", path, cost, estimatedRows,
+                others.isEmpty() ? "" : " (" + others + ")", note.isEmpty() ? "" : "; " + note);
+    }
+}
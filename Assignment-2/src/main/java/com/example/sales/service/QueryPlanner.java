@@ -0,0 +1,181 @@
+package com.example.sales.service;
+
+import com.example.sales.dataset.SalesDataset;
+import com.example.sales.dataset.TableStats;
+import com.example.sales.index.CategoryFilter;
+import com.example.sales.index.Dimension;
+import com.example.sales.reader.CsvSalesReader;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cost-based choice of access path per query. Costs are in units of one row parsed by
+ * commons-csv, scaled by the estimated rows each path touches. Row counts, group counts
+ * and filter selectivity come from the dataset's load-time {@link TableStats} when a
+ * dataset is available; over a bare file the row count is estimated from the mapped
+ * file's sampled record length and groups and selectivity fall back to fixed guesses.
+ * Planners are immutable; {@code with*} returns a planner that also knows the new source.
+ */
+public final class QueryPlanner {
+
+    // Relative per-row costs, measured on the sample data against the commons-csv reader.
+    static final double CSV_ROW = 1.0;
+    static final double MAPPED_ROW = 0.6;
+    static final double CURSOR_ROW = 0.15;
+    static final double DATASET_ROW = 0.02;
+    static final double INDEX_ROW = 0.005;
+    static final double GROUP = 0.05;
+    static final double PARALLEL_STARTUP = 200.0;
+
+    private static final double DEFAULT_SELECTIVITY = 0.1;
+
+    private final Path csv;
+    private final SalesDataset dataset;
+    private final PartialAggregate partial;
+    private final long fileRows;
+    private final int threads;
+
+    private QueryPlanner(Path csv, SalesDataset dataset, PartialAggregate partial, long fileRows) {
+        this.csv = csv;
+        this.dataset = dataset;
+        this.partial = partial;
+        this.fileRows = fileRows;
+        this.threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    /** Planner over a CSV file only. */
+    public static QueryPlanner forFile(Path csvPath) {
+        return new QueryPlanner(csvPath, null, null, CsvSalesReader.mappedSpliterator(csvPath).estimateSize());
+    }
+
+    /** Planner over a loaded dataset only. */
+    public static QueryPlanner forDataset(SalesDataset dataset) {
+        return new QueryPlanner(null, dataset, null, 0);
+    }
+
+    public QueryPlanner withDataset(SalesDataset dataset) {
+        return new QueryPlanner(csv, dataset, partial, fileRows);
+    }
+
+    /** Adds a precomputed partial aggregate, which answers unfiltered queries without a scan. */
+    public QueryPlanner withPartial(PartialAggregate partial) {
+        return new QueryPlanner(csv, dataset, partial, fileRows);
+    }
+
+    /** Load-time statistics, or null when there is no dataset. */
+    public TableStats stats() {
+        return dataset == null ? null : dataset.stats();
+    }
+
+    public QueryPlan plan(Query query) {
+        if (query == Query.PARTITION_HIGH_VALUE) {
+            throw new IllegalArgumentException("Use planPartition(threshold) for " + query);
+        }
+        return plan(query, CategoryFilter.all(), true);
+    }
+
+    /** Plans a filtered query (revenueWhere or countWhere). */
+    public QueryPlan plan(Query query, CategoryFilter filter) {
+        if (!query.isFiltered()) {
+            throw new IllegalArgumentException("Not a filtered query: " + query);
+        }
+        return plan(query, filter, false);
+    }
+
+    /** Plans partitionHighValue; a partial aggregate only qualifies at its own threshold. */
+    public QueryPlan planPartition(double threshold) {
+        return plan(Query.PARTITION_HIGH_VALUE, CategoryFilter.all(),
+                partial != null && partial.highValueThreshold() == threshold);
+    }
+
+    private QueryPlan plan(Query query, CategoryFilter filter, boolean partialUsable) {
+        long rows = rows();
+        double groups = groups(query, rows);
+        double selectivity = selectivity(filter);
+        double grouping = groups * GROUP;
+        Map<AccessPath, Double> costs = new EnumMap<>(AccessPath.class);
+        if (partial != null && partialUsable && !query.isFiltered()) {
+            costs.put(AccessPath.PARTIAL_AGGREGATE, 1.0 + grouping);
+        }
+        if (dataset != null) {
+            costs.put(AccessPath.DATASET_SCAN, rows * DATASET_ROW + grouping);
+            if (query.isFiltered()) {
+                double bitmapWork = filter.predicates().size() * rows / 64.0;
+                costs.put(AccessPath.DATASET_INDEX, (bitmapWork + selectivity * rows) * INDEX_ROW);
+            } else if (query == Query.PARTITION_HIGH_VALUE) {
+                costs.put(AccessPath.DATASET_INDEX, Math.log(Math.max(2, rows)) / Math.log(2) * INDEX_ROW);
+            }
+        }
+        if (csv != null) {
+            costs.put(AccessPath.CSV_STREAM, rows * CSV_ROW + grouping);
+            costs.put(AccessPath.MAPPED_PARALLEL, PARALLEL_STARTUP + rows * MAPPED_ROW / threads + grouping * threads);
+            costs.put(AccessPath.ROW_CURSOR, rows * (query.isCursorNative() ? CURSOR_ROW : MAPPED_ROW) + grouping);
+        }
+        if (costs.isEmpty()) {
+            throw new IllegalStateException("No access path can answer " + query.method());
+        }
+        AccessPath best = costs.entrySet().stream().min(Map.Entry.comparingByValue()).orElseThrow().getKey();
+        long touched = switch (best) {
+            case PARTIAL_AGGREGATE -> Math.round(groups);
+            case DATASET_INDEX -> query.isFiltered() ? Math.round(selectivity * rows) : 1;
+            default -> rows;
+        };
+        String note = dataset == null ? "no column stats, estimated rows" : "";
+        if (query.isFiltered()) {
+            note = (note.isEmpty() ? "" : note + ", ") + String.format("selectivity %.3f", selectivity);
+        }
+        return new QueryPlan(query, best, costs.get(best), costs, touched, note);
+    }
+
+    private long rows() {
+        if (dataset != null) {
+            return dataset.stats().rowCount();
+        }
+        if (partial != null && csv == null) {
+            return partial.totalOrders();
+        }
+        return fileRows;
+    }
+
+    /** Expected result groups: the group column's distinct estimate, or sqrt(rows) without stats. */
+    private double groups(Query query, long rows) {
+        if (query.groupColumn() == null) {
+            return 1;
+        }
+        if (dataset != null) {
+            return dataset.stats().column(query.groupColumn()).distinct();
+        }
+        return Math.sqrt(rows);
+    }
+
+    /** Product of per-dimension equality selectivities; dimensions are independent by assumption. */
+    private double selectivity(CategoryFilter filter) {
+        double s = 1.0;
+        for (Map.Entry<Dimension, Set<String>> e : filter.predicates().entrySet()) {
+            s *= dataset == null
+                    ? DEFAULT_SELECTIVITY
+                    : dataset.stats().column(columnOf(e.getKey())).equalitySelectivity(e.getValue().size());
+        }
+        return s;
+    }
+
+    /** CSV header name of a dimension, e.g. PRODUCT_LINE to PRODUCTLINE. */
+    private static String columnOf(Dimension dim) {
+        return dim.name().replace("_", "");
+    }
+
+    Path csv() {
+        return csv;
+    }
+
+    SalesDataset dataset() {
+        return dataset;
+    }
+
+    PartialAggregate partial() {
+        return partial;
+    }
+}
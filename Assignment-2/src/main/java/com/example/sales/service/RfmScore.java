@@ -0,0 +1,18 @@
+package com.example.sales.service;
+
+/**
+ * Recency/frequency/monetary profile of one customer with quintile scores 1-5, where 5
+ * is the most recent, most frequent or highest-spending fifth of customers.
+ *
+ * @param recencyDays days from the customer's last order to the as-of date
+ * @param frequency   distinct orders
+ * @param monetary    total revenue
+ */
+public record RfmScore(String customer, long recencyDays, int frequency, double monetary,
+                       int recencyScore, int frequencyScore, int monetaryScore) {
+
+    /** Conventional three-digit code, e.g. "545". */
+    public String code() {
+        return "" + recencyScore + frequencyScore + monetaryScore;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.sales.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The report metrics, independent of where they come from: {@link AnalyticsService}
+ * computes them from a record stream, {@link PartialAggregate} from merged partial state.
+ */
+public interface SalesAnalytics {
+
+    double totalRevenue();
+
+    long totalOrders();
+
+    long totalQuantity();
+
+    double averageOrderValue();
+
+    OrderMetrics orderMetrics();
+
+    Map<Integer, Double> revenueByYear();
+
+    Map<String, Double> revenueByRegion();
+
+    LinkedHashMap<String, Double> topProducts(int topN);
+
+    LinkedHashMap<String, Double> topCustomers(int topN);
+
+    Map<String, Long> ordersByStatus();
+
+    Map<String, Long> ordersByDealSize();
+
+    Map<Boolean, Long> partitionHighValue(double threshold);
+
+    Map<String, Double> monthlyRevenue();
+
+    Map<String, Map<String, Double>> orderValuePercentilesByTerritory();
+
+    Map<String, Object> dataQualityChecks();
+}
@@ -0,0 +1,36 @@
+package com.example.sales.service;
+
+/**
+ * How much of the file an approximate query may read: either a fixed block sample rate,
+ * or a target relative error (95% half-width over value) from which a pilot sample
+ * derives the rate.
+ */
+public record SampleSpec(double rate, double targetError) {
+
+    public SampleSpec {
+        boolean byRate = rate > 0.0 && rate <= 1.0 && Double.isNaN(targetError);
+        boolean byError = Double.isNaN(rate) && targetError > 0.0;
+        if (!byRate && !byError) {
+            throw new IllegalArgumentException("Give either a rate in (0, 1] or a positive target error");
+        }
+    }
+
+    /** Samples each block with the given probability. */
+    public static SampleSpec ofRate(double rate) {
+        return new SampleSpec(rate, Double.NaN);
+    }
+
+    /** Picks the smallest rate expected to reach the given relative error, e.g. 0.01 for ±1%. */
+    public static SampleSpec ofTargetError(double relativeError) {
+        return new SampleSpec(Double.NaN, relativeError);
+    }
+
+    /** Reads every block; intervals collapse to the exact value. */
+    public static SampleSpec exact() {
+        return ofRate(1.0);
+    }
+
+    public boolean hasTargetError() {
+        return !Double.isNaN(targetError);
+    }
+}
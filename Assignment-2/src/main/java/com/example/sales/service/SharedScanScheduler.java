@@ -0,0 +1,356 @@
+package com.example.sales.service;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.reader.CsvBlocks;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Cooperative scan of one CSV file shared by every query submitted while it runs. A single
+ * scan thread walks the file's blocks in a circle, parses each block once and hands its
+ * rows to all attached queries. A query that arrives mid-scan joins at the current block,
+ * wraps around past the end and completes when it has seen every block, so N concurrent
+ * queries cost about one pass of I/O and parsing instead of N.
+ *
+ * <p>Queries are either collectors, completed on the scan thread through a
+ * {@link CompletableFuture}, or pull streams from {@link #stream()}, which make the
+ * scheduler a drop-in source for {@code new AnalyticsService(scheduler::stream)}. Rows
+ * reach each query out of file order. The file's blocks are fixed when the scheduler opens.
+ */
+public final class SharedScanScheduler implements Closeable {
+
+    /** Default block size; smaller blocks let late queries join sooner. */
+    public static final int DEFAULT_BLOCK_BYTES = 256 * 1024;
+
+    /** Default time a stream's buffer may stay full before the stream is detached. */
+    public static final Duration DEFAULT_STALL_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final int STREAM_BUFFER_BLOCKS = 4;
+
+    /** End-of-stream marker, compared by identity. */
+    private static final List<SalesRecord> END = Collections.unmodifiableList(new ArrayList<>());
+
+    private final CsvBlocks blocks;
+    private final ExecutorService scanner;
+    private final List<Subscriber> pending = new ArrayList<>();
+    private final AtomicLong blocksRead = new AtomicLong();
+    private final long stallNanos;
+    private boolean scanning;
+    private boolean closed;
+    private int next;
+
+    public SharedScanScheduler(Path csvPath) {
+        this(csvPath, DEFAULT_BLOCK_BYTES);
+    }
+
+    public SharedScanScheduler(Path csvPath, int blockBytes) {
+        this(csvPath, blockBytes, DEFAULT_STALL_TIMEOUT);
+    }
+
+    /**
+     * stallTimeout bounds how long the scan waits on one stream whose consumer has stopped
+     * reading; past it the stream is detached so the other queries keep going.
+     */
+    public SharedScanScheduler(Path csvPath, int blockBytes, Duration stallTimeout) {
+        if (stallTimeout.isZero() || stallTimeout.isNegative()) {
+            throw new IllegalArgumentException("Stall timeout must be positive: " + stallTimeout);
+        }
+        this.stallNanos = stallTimeout.toNanos();
+        this.blocks = CsvBlocks.open(csvPath, blockBytes);
+        this.scanner = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "shared-scan");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Runs the collector over every row as part of the shared scan. */
+    public <A, R> CompletableFuture<R> submit(Collector<? super SalesRecord, A, R> collector) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        A container = collector.supplier().get();
+        BiConsumer<A, ? super SalesRecord> accumulator = collector.accumulator();
+        attach(new Subscriber() {
+            @Override
+            boolean deliver(List<SalesRecord> rows) {
+                for (SalesRecord r : rows) {
+                    accumulator.accept(container, r);
+                }
+                return true;
+            }
+
+            @Override
+            void complete() {
+                result.complete(collector.finisher().apply(container));
+            }
+
+            @Override
+            void fail(Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Fresh stream fed by the shared scan; the calling thread consumes rows as the scan
+     * produces them. A slow consumer holds the scan back once its buffer fills, so close
+     * the stream (try-with-resources) or drain it: closing early detaches it at once. A
+     * stream left unclosed with a full buffer for the stall timeout is detached, and
+     * reading it further fails with IllegalStateException.
+     */
+    public Stream<SalesRecord> stream() {
+        StreamSubscriber sub = new StreamSubscriber(stallNanos);
+        attach(sub);
+        Iterator<SalesRecord> rows = sub.iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.NONNULL), false)
+                .onClose(sub::cancel);
+    }
+
+    /** Number of blocks in the file. */
+    public int blockCount() {
+        return blocks.count();
+    }
+
+    /** Blocks parsed so far across all scans; compare with blockCount() to see the sharing. */
+    public long blocksRead() {
+        return blocksRead.get();
+    }
+
+    /** Stops the scan thread; attached queries fail with IllegalStateException. */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        if (scanner.shutdownNow().isEmpty()) {
+            return;
+        }
+        // The scan task never started, so nobody else will fail its subscribers
+        List<Subscriber> unstarted;
+        synchronized (this) {
+            unstarted = new ArrayList<>(pending);
+            pending.clear();
+            scanning = false;
+        }
+        unstarted.forEach(sub -> sub.fail(new IllegalStateException("Scheduler is closed")));
+    }
+
+    private void attach(Subscriber sub) {
+        if (blocks.count() == 0) {
+            sub.complete();
+            return;
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Scheduler is closed");
+            }
+            pending.add(sub);
+            if (!scanning) {
+                scanning = true;
+                scanner.execute(this::scan);
+            }
+        }
+    }
+
+    /** The scan thread: one block per step, shared by every attached query. */
+    private void scan() {
+        List<Subscriber> active = new ArrayList<>();
+        while (true) {
+            synchronized (this) {
+                for (Subscriber sub : pending) {
+                    sub.remaining = blocks.count();
+                }
+                active.addAll(pending);
+                pending.clear();
+                if (active.isEmpty() || closed) {
+                    scanning = false;
+                    break;
+                }
+            }
+            List<SalesRecord> rows;
+            try {
+                rows = blocks.parse(next);
+            } catch (RuntimeException e) {
+                active.forEach(sub -> sub.fail(e));
+                active.clear();
+                continue;
+            }
+            blocksRead.incrementAndGet();
+            next = (next + 1) % blocks.count();
+            for (Iterator<Subscriber> it = active.iterator(); it.hasNext(); ) {
+                Subscriber sub = it.next();
+                try {
+                    if (!sub.deliver(rows)) {
+                        it.remove();
+                    } else if (--sub.remaining == 0) {
+                        sub.complete();
+                        it.remove();
+                    }
+                } catch (RuntimeException e) {
+                    sub.fail(e);
+                    it.remove();
+                }
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        IllegalStateException stopped = new IllegalStateException("Scheduler is closed");
+        synchronized (this) {
+            active.addAll(pending);
+            pending.clear();
+            scanning = false;
+        }
+        active.forEach(sub -> sub.fail(stopped));
+    }
+
+    /** A query attached to the scan; remaining counts the blocks it has yet to see. */
+    private abstract static class Subscriber {
+        int remaining;
+
+        /** Hands over one block's rows; false detaches the subscriber. */
+        abstract boolean deliver(List<SalesRecord> rows);
+
+        abstract void complete();
+
+        abstract void fail(Throwable t);
+    }
+
+    /** Subscriber behind {@link #stream()}: a bounded hand-off queue of blocks. */
+    private static final class StreamSubscriber extends Subscriber {
+        private final BlockingQueue<List<SalesRecord>> queue = new ArrayBlockingQueue<>(STREAM_BUFFER_BLOCKS);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final long stallNanos;
+        private volatile boolean cancelled;
+        private boolean stalled;
+
+        StreamSubscriber(long stallNanos) {
+            this.stallNanos = stallNanos;
+        }
+
+        @Override
+        boolean deliver(List<SalesRecord> rows) {
+            if (put(rows)) {
+                return true;
+            }
+            if (!cancelled) {
+                fail(stopped());
+            }
+            return false;
+        }
+
+        @Override
+        void complete() {
+            if (!put(END) && !cancelled) {
+                fail(stopped());
+            }
+        }
+
+        /**
+         * Ends the stream without waiting: buffered blocks are dropped to make room for
+         * END, so the hand-off cannot block or be interrupted by close().
+         */
+        @Override
+        void fail(Throwable t) {
+            failure.compareAndSet(null, t);
+            queue.clear();
+            queue.offer(END);
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        private IllegalStateException stopped() {
+            return new IllegalStateException(stalled
+                    ? "Stream was not read for " + TimeUnit.NANOSECONDS.toMillis(stallNanos) + " ms; detached from the shared scan"
+                    : "Scheduler is closed");
+        }
+
+        /**
+         * Blocks the scan until the consumer makes room, unless it has gone away or left
+         * the buffer full for the stall timeout.
+         */
+        private boolean put(List<SalesRecord> rows) {
+            long deadline = System.nanoTime() + stallNanos;
+            try {
+                while (!cancelled) {
+                    if (queue.offer(rows, 10, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                    if (System.nanoTime() - deadline > 0) {
+                        stalled = true;
+                        return false;
+                    }
+                }
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        Iterator<SalesRecord> iterator() {
+            return new Iterator<>() {
+                private Iterator<SalesRecord> block = END.iterator();
+                private boolean done;
+
+                @Override
+                public boolean hasNext() {
+                    while (!block.hasNext() && !done) {
+                        List<SalesRecord> rows = take();
+                        if (rows == END) {
+                            done = true;
+                            Throwable t = failure.get();
+                            if (t != null) {
+                                throw t instanceof RuntimeException re ? re : new IllegalStateException(t);
+                            }
+                        } else {
+                            block = rows.iterator();
+                        }
+                    }
+                    return block.hasNext();
+                }
+
+                @Override
+                public SalesRecord next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return block.next();
+                }
+            };
+        }
+
+        private List<SalesRecord> take() {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelled = true;
+                throw new IllegalStateException("Interrupted while waiting for the shared scan", e);
+            }
+        }
+    }
+}
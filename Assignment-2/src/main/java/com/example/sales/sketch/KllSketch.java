@@ -0,0 +1,250 @@
+package com.example.sales.sketch;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * KLL quantile sketch: a stack of compactors where level h holds items of weight 2^h.
+ * When a level overflows it is sorted and every other item (random offset) is promoted,
+ * so memory stays O(k log(n/k)) while rank error stays around 1.7/k. Sketches built on
+ * separate partitions merge level by level, which makes them usable from parallel streams.
+ * Not thread-safe.
+ */
+public final class KllSketch {
+
+    /** Default accuracy parameter: roughly 1% normalized rank error. */
+    public static final int DEFAULT_K = 200;
+
+    private static final int MIN_CAPACITY = 8;
+    private static final double DECAY = 2.0 / 3.0;
+
+    private final int k;
+    private double[][] levels = new double[1][];
+    private int[] sizes = new int[1];
+    private long n;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private long rng = 0x9E3779B97F4A7C15L;
+
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    public KllSketch(int k) {
+        if (k < MIN_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY + ": " + k);
+        }
+        this.k = k;
+        levels[0] = new double[k];
+    }
+
+    /** Collector producing one sketch of the extracted values; combiner merges partitions. */
+    public static <T> Collector<T, KllSketch, KllSketch> collector(ToDoubleFunction<T> value) {
+        return Collector.of(KllSketch::new, (s, t) -> s.update(value.applyAsDouble(t)), KllSketch::merge,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /** Adds one value; NaN is ignored. */
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        n++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        append(0, value);
+        compressIfNeeded();
+    }
+
+    /** Folds another sketch into this one and returns this. */
+    public KllSketch merge(KllSketch other) {
+        if (other.n == 0) {
+            return this;
+        }
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+        n += other.n;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        compressIfNeeded();
+        return this;
+    }
+
+    /** Number of values summarized. */
+    public long count() {
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public double min() {
+        return n == 0 ? Double.NaN : min;
+    }
+
+    public double max() {
+        return n == 0 ? Double.NaN : max;
+    }
+
+    /** Number of items currently retained; bounded independently of {@link #count()}. */
+    public int retainedItems() {
+        int total = 0;
+        for (int size : sizes) {
+            total += size;
+        }
+        return total;
+    }
+
+    /** Approximate value at normalized rank q in [0, 1]; NaN if empty. */
+    public double quantile(double q) {
+        if (q < 0.0 || q > 1.0) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + q);
+        }
+        if (n == 0) {
+            return Double.NaN;
+        }
+        if (q == 0.0) {
+            return min;
+        }
+        if (q == 1.0) {
+            return max;
+        }
+        double[][] sorted = new double[levels.length][];
+        for (int h = 0; h < levels.length; h++) {
+            sorted[h] = Arrays.copyOf(levels[h], sizes[h]);
+            Arrays.sort(sorted[h]);
+        }
+        int[] heads = new int[levels.length];
+        double target = q * n;
+        long cumulative = 0;
+        while (true) {
+            int best = -1;
+            for (int h = 0; h < sorted.length; h++) {
+                if (heads[h] < sorted[h].length
+                        && (best < 0 || sorted[h][heads[h]] < sorted[best][heads[best]])) {
+                    best = h;
+                }
+            }
+            if (best < 0) {
+                return max;
+            }
+            double value = sorted[best][heads[best]++];
+            cumulative += 1L << best;
+            if (cumulative >= target) {
+                return value;
+            }
+        }
+    }
+
+    /** Approximate fraction of values less than or equal to x. */
+    public double rank(double x) {
+        if (n == 0) {
+            return Double.NaN;
+        }
+        long weight = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                if (levels[h][i] <= x) {
+                    weight += 1L << h;
+                }
+            }
+        }
+        return (double) weight / n;
+    }
+
+    /** Writes the sketch state; {@link #readFrom} restores an identical sketch. */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(k);
+        out.writeLong(n);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeLong(rng);
+        out.writeInt(levels.length);
+        for (int h = 0; h < levels.length; h++) {
+            out.writeInt(sizes[h]);
+            for (int i = 0; i < sizes[h]; i++) {
+                out.writeDouble(levels[h][i]);
+            }
+        }
+    }
+
+    /** Reads a sketch written by {@link #writeTo}. */
+    public static KllSketch readFrom(DataInput in) throws IOException {
+        KllSketch sketch = new KllSketch(in.readInt());
+        sketch.n = in.readLong();
+        sketch.min = in.readDouble();
+        sketch.max = in.readDouble();
+        sketch.rng = in.readLong();
+        int depth = in.readInt();
+        sketch.levels = new double[depth][];
+        sketch.sizes = new int[depth];
+        for (int h = 0; h < depth; h++) {
+            int size = in.readInt();
+            sketch.levels[h] = new double[Math.max(MIN_CAPACITY, size)];
+            for (int i = 0; i < size; i++) {
+                sketch.levels[h][i] = in.readDouble();
+            }
+            sketch.sizes[h] = size;
+        }
+        return sketch;
+    }
+
+    private int capacity(int level) {
+        int depth = levels.length - 1 - level;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(DECAY, depth)));
+    }
+
+    private void append(int level, double value) {
+        while (level >= levels.length) {
+            levels = Arrays.copyOf(levels, levels.length + 1);
+            sizes = Arrays.copyOf(sizes, sizes.length + 1);
+            levels[levels.length - 1] = new double[MIN_CAPACITY];
+        }
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        }
+        levels[level][sizes[level]++] = value;
+    }
+
+    private void compressIfNeeded() {
+        boolean compacted = true;
+        while (compacted) {
+            compacted = false;
+            for (int h = 0; h < levels.length; h++) {
+                if (sizes[h] > capacity(h)) {
+                    compact(h);
+                    compacted = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    /** Sorts a level and promotes every other item to the next level. */
+    private void compact(int level) {
+        double[] items = levels[level];
+        int size = sizes[level];
+        Arrays.sort(items, 0, size);
+        int keep = size % 2;
+        int offset = nextBit();
+        for (int i = keep + offset; i < size; i += 2) {
+            append(level + 1, items[i]);
+        }
+        sizes[level] = keep;
+    }
+
+    private int nextBit() {
+        rng ^= rng << 13;
+        rng ^= rng >>> 7;
+        rng ^= rng << 17;
+        return (int) (rng & 1);
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.sales.util;
 
+import com.example.sales.profile.Phase;
+import com.example.sales.profile.PipelineProfiler;
+
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -20,6 +23,17 @@ public final class DateUtils {
      * Parses date string using multiple formats. Returns null if parsing fails.
      */
     public static LocalDate parseToLocalDate(String raw) {
+        boolean timed = PipelineProfiler.enter(Phase.DATE);
+        try {
+            return parse(raw);
+        } finally {
+            if (timed) {
+                PipelineProfiler.exit();
+            }
+        }
+    }
+
+    private static LocalDate parse(String raw) {
         if (raw == null || raw.isBlank()) {
             return null;
         }
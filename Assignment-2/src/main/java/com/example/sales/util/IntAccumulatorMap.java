@@ -0,0 +1,121 @@
+package com.example.sales.util;
+
+/**
+ * Open-addressing map from int keys to a (count, sum) accumulator, stored in parallel
+ * primitive arrays so per-row updates never box. A zero count marks an empty slot.
+ * Not thread-safe; parallel use goes through one map per partition plus {@link #merge}.
+ */
+public final class IntAccumulatorMap {
+
+    private int[] keys;
+    private int[] counts;
+    private double[] sums;
+    private int size;
+
+    public IntAccumulatorMap() {
+        this(16);
+    }
+
+    public IntAccumulatorMap(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedKeys * 2 - 1)) << 1;
+        keys = new int[capacity];
+        counts = new int[capacity];
+        sums = new double[capacity];
+    }
+
+    /** Callback for {@link #forEach}. */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int count, double sum);
+    }
+
+    /** Adds one observation for the key. */
+    public void add(int key, double value) {
+        add(key, 1, value);
+    }
+
+    /** Adds count observations totalling sum for the key. */
+    public void add(int key, int count, double sum) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Count must be positive: " + count);
+        }
+        int slot = slot(key);
+        if (counts[slot] == 0) {
+            keys[slot] = key;
+            if (++size * 2 > keys.length) {
+                counts[slot] = count;
+                sums[slot] = sum;
+                grow();
+                return;
+            }
+        }
+        counts[slot] += count;
+        sums[slot] += sum;
+    }
+
+    /** Number of distinct keys. */
+    public int size() {
+        return size;
+    }
+
+    /** Observation count for a key, or 0 if absent. */
+    public int count(int key) {
+        return counts[slot(key)];
+    }
+
+    /** Sum for a key, or 0.0 if absent. */
+    public double sum(int key) {
+        return sums[slot(key)];
+    }
+
+    /** Folds another map's accumulators into this one. */
+    public IntAccumulatorMap merge(IntAccumulatorMap other) {
+        other.forEach(this::add);
+        return this;
+    }
+
+    /** Visits every key in unspecified order. */
+    public void forEach(EntryConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (counts[i] != 0) {
+                action.accept(keys[i], counts[i], sums[i]);
+            }
+        }
+    }
+
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (counts[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldCounts = counts;
+        double[] oldSums = sums;
+        keys = new int[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        sums = new double[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldCounts[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+                sums[slot] = oldSums[i];
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        return "IntAccumulatorMap{size=" + size + ", capacity=" + keys.length + "}";
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.sales.util;
+
+/**
+ * Open-addressing map from long keys to int counts, stored in parallel primitive arrays
+ * so counting never boxes. A zero count marks an empty slot. Not thread-safe; parallel
+ * use goes through one map per partition plus {@link #merge}.
+ */
+public final class LongCountMap {
+
+    private long[] keys;
+    private int[] counts;
+    private int size;
+
+    public LongCountMap() {
+        this(16);
+    }
+
+    public LongCountMap(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedKeys * 2 - 1)) << 1;
+        keys = new long[capacity];
+        counts = new int[capacity];
+    }
+
+    /** Callback for {@link #forEach}. */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, int count);
+    }
+
+    /** Counts one occurrence of the key. */
+    public void increment(long key) {
+        add(key, 1);
+    }
+
+    /** Adds count occurrences of the key. */
+    public void add(long key, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Count must be positive: " + count);
+        }
+        int slot = slot(key);
+        if (counts[slot] == 0) {
+            keys[slot] = key;
+            if (++size * 2 > keys.length) {
+                counts[slot] = count;
+                grow();
+                return;
+            }
+        }
+        counts[slot] += count;
+    }
+
+    /** Number of distinct keys. */
+    public int size() {
+        return size;
+    }
+
+    /** Count for a key, or 0 if absent. */
+    public int count(long key) {
+        return counts[slot(key)];
+    }
+
+    /** Folds another map's counts into this one. */
+    public LongCountMap merge(LongCountMap other) {
+        other.forEach(this::add);
+        return this;
+    }
+
+    /** Visits every key in unspecified order. */
+    public void forEach(EntryConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (counts[i] != 0) {
+                action.accept(keys[i], counts[i]);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (counts[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new long[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldCounts[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "LongCountMap{size=" + size + ", capacity=" + keys.length + "}";
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.sales.util;
+
+/**
+ * Exception-free numeric parsing for raw CSV fields.
+ * Each parse call returns a status code and leaves the value in the parser, so
+ * malformed input costs a few character comparisons instead of a thrown exception.
+ * Instances are reusable but not thread-safe; use one per parsing thread.
+ */
+public final class NumberParser {
+
+    /** Field parsed successfully. */
+    public static final int OK = 0;
+    /** Field was empty or only whitespace. */
+    public static final int EMPTY = 1;
+    /** Field was not a plain decimal number. */
+    public static final int MALFORMED = 2;
+    /** Field was well-formed but does not fit the target type. */
+    public static final int OUT_OF_RANGE = 3;
+
+    /** Exactly representable powers of ten for the fast double path. */
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private int intValue;
+    private double doubleValue;
+
+    /** Value of the last successful {@link #parseInt} call. */
+    public int intValue() {
+        return intValue;
+    }
+
+    /** Value of the last successful {@link #parseDouble} call. */
+    public double doubleValue() {
+        return doubleValue;
+    }
+
+    public int parseInt(CharSequence s) {
+        return s == null ? EMPTY : parseInt(s, 0, s.length());
+    }
+
+    /** Parses an optionally signed decimal int from s[start, end), ignoring surrounding whitespace. */
+    public int parseInt(CharSequence s, int start, int end) {
+        while (start < end && s.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return EMPTY;
+        }
+        boolean negative = false;
+        char first = s.charAt(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            start++;
+            if (start == end) {
+                return MALFORMED;
+            }
+        }
+        long v = 0;
+        boolean overflow = false;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return MALFORMED;
+            }
+            if (!overflow) {
+                v = v * 10 + (c - '0');
+                overflow = v > (long) Integer.MAX_VALUE + 1;
+            }
+        }
+        if (negative) {
+            v = -v;
+        }
+        if (overflow || v > Integer.MAX_VALUE || v < Integer.MIN_VALUE) {
+            return OUT_OF_RANGE;
+        }
+        intValue = (int) v;
+        return OK;
+    }
+
+    public int parseDouble(CharSequence s) {
+        return s == null ? EMPTY : parseDouble(s, 0, s.length());
+    }
+
+    /**
+     * Parses a plain decimal ({@code [+-]digits[.digits][e[+-]digits]}) from s[start, end).
+     * Short inputs are converted exactly with one multiply or divide by a power of ten;
+     * longer ones are validated first and then handed to Double.parseDouble, which
+     * therefore never throws.
+     */
+    public int parseDouble(CharSequence s, int start, int end) {
+        while (start < end && s.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return EMPTY;
+        }
+        int i = start;
+        boolean negative = false;
+        if (s.charAt(i) == '-' || s.charAt(i) == '+') {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significant = 0;
+        int scale = 0;
+        int digits = 0;
+        boolean seenDot = false;
+        for (; i < end; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (mantissa != 0 || c != '0') {
+                    significant++;
+                }
+                if (significant <= 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (seenDot) {
+                        scale--;
+                    }
+                } else if (!seenDot) {
+                    scale++;
+                }
+            } else if (c == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return MALFORMED;
+        }
+        if (i < end) {
+            char c = s.charAt(i);
+            if (c != 'e' && c != 'E') {
+                return MALFORMED;
+            }
+            i++;
+            boolean expNegative = false;
+            if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                expNegative = s.charAt(i) == '-';
+                i++;
+            }
+            if (i == end) {
+                return MALFORMED;
+            }
+            int exp = 0;
+            for (; i < end; i++) {
+                c = s.charAt(i);
+                if (c < '0' || c > '9') {
+                    return MALFORMED;
+                }
+                if (exp < 100_000) {
+                    exp = exp * 10 + (c - '0');
+                }
+            }
+            scale += expNegative ? -exp : exp;
+        }
+        double v;
+        if (significant <= 18 && mantissa < MAX_EXACT_MANTISSA && Math.abs(scale) < POW10.length) {
+            v = scale >= 0 ? mantissa * POW10[scale] : mantissa / POW10[-scale];
+            if (negative) {
+                v = -v;
+            }
+        } else {
+            v = Double.parseDouble(s.subSequence(start, end).toString());
+        }
+        if (Double.isInfinite(v)) {
+            return OUT_OF_RANGE;
+        }
+        doubleValue = v;
+        return OK;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.sales.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Canonicalizing pool for one low-cardinality column (status, country, ...).
+ * Equal values map to one shared String, so rows collected into lists retain a
+ * handful of instances instead of one per row. Values can be looked up straight
+ * from encoded bytes: a hit compares bytes in place and never decodes.
+ * Once {@code maxSize} distinct values are pooled, misses return fresh Strings.
+ * The charset must be ASCII-compatible (UTF-8, ISO-8859-1, windows-1252).
+ * Not thread-safe; use one pool per parsing thread.
+ */
+public final class StringPool {
+
+    /** Default cap on distinct values per column. */
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    private final int maxSize;
+    private final Charset charset;
+    private String[] values;
+    private byte[][] encoded;
+    private int[] hashes;
+    private int size;
+
+    public StringPool() {
+        this(DEFAULT_MAX_SIZE, StandardCharsets.UTF_8);
+    }
+
+    public StringPool(int maxSize, Charset charset) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.charset = charset;
+        int capacity = 16;
+        values = new String[capacity];
+        encoded = new byte[capacity][];
+        hashes = new int[capacity];
+    }
+
+    /** Number of distinct pooled values. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the canonical instance equal to s, pooling s if there is room.
+     * ASCII values are hashed from their chars, so a hit allocates nothing.
+     */
+    public String intern(String s) {
+        if (s == null) {
+            return null;
+        }
+        int h = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                byte[] bytes = s.getBytes(charset);
+                return lookup(s, bytes, hash(bytes, 0, bytes.length));
+            }
+            h = 31 * h + c;
+        }
+        return lookup(s, null, h);
+    }
+
+    /**
+     * Returns the canonical String for buf[off, off + len) using absolute reads.
+     * Decodes only when the value has not been seen before.
+     */
+    public String intern(ByteBuffer buf, int off, int len) {
+        int h = 0;
+        for (int i = 0; i < len; i++) {
+            h = 31 * h + (buf.get(off + i) & 0xFF);
+        }
+        int mask = values.length - 1;
+        for (int i = spread(h) & mask; values[i] != null; i = (i + 1) & mask) {
+            if (hashes[i] == h && sameBytes(encoded[i], buf, off, len)) {
+                return values[i];
+            }
+        }
+        byte[] bytes = new byte[len];
+        buf.get(off, bytes);
+        return insert(new String(bytes, charset), bytes, h);
+    }
+
+    private String lookup(String s, byte[] bytes, int h) {
+        int mask = values.length - 1;
+        for (int i = spread(h) & mask; values[i] != null; i = (i + 1) & mask) {
+            if (hashes[i] == h && values[i].equals(s)) {
+                return values[i];
+            }
+        }
+        return insert(s, bytes == null ? s.getBytes(charset) : bytes, h);
+    }
+
+    private String insert(String s, byte[] bytes, int h) {
+        if (size >= maxSize) {
+            return s;
+        }
+        if ((size + 1) * 2 > values.length) {
+            grow();
+        }
+        int mask = values.length - 1;
+        int i = spread(h) & mask;
+        while (values[i] != null) {
+            i = (i + 1) & mask;
+        }
+        values[i] = s;
+        encoded[i] = bytes;
+        hashes[i] = h;
+        size++;
+        return s;
+    }
+
+    private void grow() {
+        String[] oldValues = values;
+        byte[][] oldEncoded = encoded;
+        int[] oldHashes = hashes;
+        values = new String[oldValues.length * 2];
+        encoded = new byte[oldValues.length * 2][];
+        hashes = new int[oldValues.length * 2];
+        int mask = values.length - 1;
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != null) {
+                int i = spread(oldHashes[j]) & mask;
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                values[i] = oldValues[j];
+                encoded[i] = oldEncoded[j];
+                hashes[i] = oldHashes[j];
+            }
+        }
+    }
+
+    private static boolean sameBytes(byte[] a, ByteBuffer buf, int off, int len) {
+        if (a.length != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (a[i] != buf.get(off + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static int hash(byte[] bytes, int off, int len) {
+        int h = 0;
+        for (int i = off; i < off + len; i++) {
+            h = 31 * h + (bytes[i] & 0xFF);
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "StringPool{size=" + size + ", max=" + maxSize + ", charset=" + charset + "}";
+    }
+}
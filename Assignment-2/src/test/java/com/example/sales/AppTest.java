@@ -4,9 +4,14 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -234,4 +239,99 @@ class AppTest {
         String output = outContent.toString();
         assertTrue(output.matches("(?s).*\\$[\\d,]+\\.\\d{2}.*"));
     }
+
+    // Test --profile prints the phase breakdown after the report
+    @Test
+    @DisplayName("Should print a profile breakdown with --profile")
+    void testProfileFlag() {
+        String[] args = {"--profile", "src/test/resources/test_sales_data.csv"};
+
+        assertDoesNotThrow(() -> App.main(args));
+
+        String output = outContent.toString();
+        assertTrue(output.contains("Total Revenue"));
+        assertTrue(output.contains("=== Profile ==="));
+        assertTrue(output.contains("AGGREGATION"));
+        assertTrue(output.contains("Rows/s"));
+        assertTrue(output.indexOf("Data Quality Checks") < output.indexOf("=== Profile ==="));
+    }
+
+    // Test --partial writes a partial and --merge reports the combined totals
+    @Test
+    @DisplayName("Should write partials and merge them into one report")
+    void testPartialAndMerge(@TempDir Path dir) {
+        Path a = dir.resolve("a.partial");
+        Path b = dir.resolve("b.partial");
+
+        App.main(new String[] {"--partial", a.toString(), "src/test/resources/test_sales_data.csv"});
+        App.main(new String[] {"--partial", b.toString(), "src/test/resources/test_sales_data.csv"});
+        assertTrue(Files.exists(a));
+        outContent.reset();
+
+        App.main(new String[] {"--merge", a.toString(), b.toString()});
+
+        String output = outContent.toString();
+        assertTrue(output.contains("$24,530.00"));
+        assertTrue(output.contains("Shipped : 16"));
+        assertTrue(output.contains("Data Quality Checks"));
+        assertThrows(IllegalArgumentException.class, () -> App.main(new String[] {"--merge"}));
+    }
+
+    // Test --extract copies only matching rows and skips the report
+    @Test
+    @DisplayName("Should extract matching rows to a new CSV")
+    void testExtract(@TempDir Path dir) throws IOException {
+        Path out = dir.resolve("shipped.csv");
+
+        App.main(new String[] {"--extract", out.toString(), "--where", "status=Shipped", "--year", "2024",
+                "src/test/resources/test_sales_data.csv"});
+
+        List<String> lines = Files.readAllLines(out);
+        assertTrue(lines.size() > 1);
+        assertTrue(lines.stream().skip(1).allMatch(l -> l.contains("Shipped") && l.contains("2024")));
+        assertTrue(outContent.toString().contains("Extract Written"));
+        assertFalse(outContent.toString().contains("Total Revenue"));
+        assertThrows(IllegalArgumentException.class,
+                () -> App.main(new String[] {"--extract", out.toString(), "--where", "status"}));
+    }
+
+    // Test --explain prints the planner's choice for every report section
+    @Test
+    @DisplayName("Should explain the query plan after the report")
+    void testExplainFlag() {
+        App.main(new String[] {"--explain", "src/test/resources/test_sales_data.csv"});
+
+        String output = outContent.toString();
+        assertTrue(output.contains("$12,265.00"));
+        assertTrue(output.contains("Query Plan"));
+        assertTrue(output.contains("totalRevenue : ROW_CURSOR cost"));
+    }
+
+    // Test --format json writes the report as parseable sections
+    @Test
+    @DisplayName("Should write the report as JSON with --format")
+    void testFormatJson() {
+        App.main(new String[] {"--format", "json", "src/test/resources/test_sales_data.csv"});
+
+        String output = outContent.toString();
+        assertTrue(output.startsWith("[\n  {\"section\":\"Total Revenue\",\"data\":\"$12,265.00\"}"));
+        assertTrue(output.contains("{\"section\":\"Total Orders\",\"data\":10}"));
+        assertFalse(output.contains("==="));
+        assertTrue(output.endsWith("]\n"));
+    }
+
+    // Test --batch writes one file per definition into the output directory
+    @Test
+    @DisplayName("Should run a batch of report definitions")
+    void testBatch(@TempDir Path dir) throws IOException {
+        Path defs = Files.write(dir.resolve("reports.txt"), List.of("full", "ships where=PRODUCT_LINE=Ships format=json"));
+        Path out = dir.resolve("reports");
+
+        App.main(new String[] {"--batch", defs.toString(), "--out-dir", out.toString(),
+                "src/test/resources/test_sales_data.csv"});
+
+        assertTrue(outContent.toString().contains("Batch Reports Written"));
+        assertTrue(Files.readString(out.resolve("full.txt")).contains("$12,265.00"));
+        assertTrue(Files.readString(out.resolve("ships.json")).contains("\"data\":\"$1,200.00\""));
+    }
 }
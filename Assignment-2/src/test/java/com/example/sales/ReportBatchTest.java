@@ -0,0 +1,97 @@
+package com.example.sales;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.reader.CsvSalesReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for ReportBatch - validates definition parsing, fused scans and per-report output. */
+@DisplayName("ReportBatch Tests")
+class ReportBatchTest {
+
+    private static final Path TEST_DATA = Path.of("src/test/resources/test_sales_data.csv");
+
+    // Test every definition is rendered into its own file from a single scan
+    @Test
+    @DisplayName("Should write every report from one scan")
+    void testRun(@TempDir Path dir) throws IOException {
+        Path defs = write(dir, "# nightly variants",
+                "all",
+                "",
+                "y2023 year=2023 top=3 format=json",
+                "y2023-hv year=2023 threshold=1000 format=csv",
+                "classic \"where=PRODUCT_LINE=Classic Cars\" format=ndjson");
+        AtomicInteger scans = new AtomicInteger();
+        Supplier<Stream<SalesRecord>> source = CsvSalesReader.streamSupplier(TEST_DATA);
+
+        Map<String, Path> written = ReportBatch.read(defs).run(() -> {
+            scans.incrementAndGet();
+            return source.get();
+        }, dir.resolve("out"));
+
+        assertEquals(1, scans.get());
+        assertEquals(List.of("all", "y2023", "y2023-hv", "classic"), List.copyOf(written.keySet()));
+        String all = Files.readString(written.get("all"));
+        assertTrue(written.get("all").toString().endsWith("all.txt"));
+        assertTrue(all.contains("=== Total Revenue ===\n  $12,265.00"));
+        assertTrue(all.contains("=== Top 10 Products by Revenue ==="));
+
+        String y2023 = Files.readString(written.get("y2023"));
+        assertTrue(y2023.contains("{\"section\":\"Total Orders\",\"data\":5}"));
+        assertTrue(y2023.contains("\"Top 3 Products by Revenue\""));
+        assertTrue(y2023.contains("{\"section\":\"Total Revenue\",\"data\":\"$4,875.00\"}"));
+
+        String hv = Files.readString(written.get("y2023-hv"));
+        assertTrue(hv.startsWith("section,key,value\n"));
+        assertTrue(hv.contains("Partition High Value Orders (> 1000.0),true,1\n"));
+        assertTrue(hv.contains("Partition High Value Orders (> 1000.0),false,4\n"));
+
+        String classic = Files.readString(written.get("classic"));
+        assertTrue(classic.contains("{\"section\":\"Total Revenue\",\"data\":\"$3,190.00\"}\n"));
+    }
+
+    // Test definitions covering the same rows and threshold share one aggregate
+    @Test
+    @DisplayName("Should share aggregates between definitions over the same rows")
+    void testSharedAggregates(@TempDir Path dir) throws IOException {
+        ReportBatch batch = ReportBatch.read(write(dir,
+                "a year=2023 format=json",
+                "b year=2023 top=3 format=csv",
+                "c year=2023 threshold=800",
+                "d"));
+
+        assertEquals(4, batch.definitions().size());
+        assertEquals(3, batch.aggregateCount());
+    }
+
+    // Test malformed definitions are rejected with their line number
+    @Test
+    @DisplayName("Should reject malformed definitions with the line number")
+    void testParseErrors(@TempDir Path dir) throws IOException {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ReportBatch.read(write(dir, "# header", "ok", "bad colour=red")));
+        assertTrue(e.getMessage().endsWith(":3: Unknown option: colour=red"), e.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> ReportBatch.read(write(dir, "../escape")));
+        assertThrows(IllegalArgumentException.class, () -> ReportBatch.read(write(dir, "x top=0")));
+        assertThrows(IllegalArgumentException.class, () -> ReportBatch.read(write(dir, "x \"where=STATUS=Shipped")));
+        assertThrows(IllegalArgumentException.class, () -> ReportBatch.read(write(dir, "x", "x format=json")));
+        assertThrows(IllegalArgumentException.class, () -> ReportBatch.read(write(dir, "# nothing")));
+    }
+
+    private static Path write(Path dir, String... lines) throws IOException {
+        return Files.write(dir.resolve("reports.txt"), List.of(lines));
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.sales.dataset;
+
+import com.example.sales.reader.CsvSalesReader;
+import com.example.sales.service.AnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for ReloadableDataset - validates snapshot isolation, atomic swaps and release. */
+@DisplayName("ReloadableDataset Tests")
+class ReloadableDatasetTest {
+
+    private static final Path TEST_DATA = Path.of("src/test/resources/test_sales_data.csv");
+
+    // Test in-flight leases keep the old snapshot while new leases see the reload
+    @Test
+    @DisplayName("Should isolate open leases from a reload")
+    void testSnapshotIsolation(@TempDir Path dir) throws Exception {
+        Path csv = Files.copy(TEST_DATA, dir.resolve("sales.csv"));
+        List<Long> released = new CopyOnWriteArrayList<>();
+        try (ReloadableDataset data = ReloadableDataset.ofFile(csv)) {
+            data.onRelease(released::add);
+            ReloadableDataset.Lease old = data.acquire();
+            assertEquals(12265.0, new AnalyticsService(old.dataset()).totalRevenue(), 0.01);
+
+            truncate(csv, 5);
+            assertEquals(2L, data.reload().get(5, TimeUnit.SECONDS));
+
+            assertEquals(10, old.dataset().size());
+            assertEquals(5, data.read(SalesDataset::size));
+            assertEquals(2, data.epoch());
+            assertTrue(released.isEmpty());
+
+            old.close();
+            old.close();
+            assertEquals(List.of(1L), released);
+            assertThrows(IllegalStateException.class, old::dataset);
+        }
+    }
+
+    // Test reloadIfChanged only swaps when the file's version moves
+    @Test
+    @DisplayName("Should skip reloads when the source is unchanged")
+    void testReloadIfChanged(@TempDir Path dir) throws Exception {
+        Path csv = Files.copy(TEST_DATA, dir.resolve("sales.csv"));
+        try (ReloadableDataset data = ReloadableDataset.ofFile(csv)) {
+            assertEquals(1L, data.reloadIfChanged().get(5, TimeUnit.SECONDS));
+
+            truncate(csv, 3);
+            assertEquals(2L, data.reloadIfChanged().get(5, TimeUnit.SECONDS));
+            assertEquals(3, data.read(SalesDataset::size));
+        }
+    }
+
+    // Test readers are served immediately while a slow reload is still building
+    @Test
+    @DisplayName("Should never block readers on a reload")
+    void testReadersDoNotBlock() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        ReloadableDataset data = new ReloadableDataset(() -> {
+            if (loads.getAndIncrement() > 0) {
+                building.countDown();
+                await(proceed);
+            }
+            return SalesDataset.load(CsvSalesReader.streamSupplier(TEST_DATA));
+        }, Object::new);
+        try (data) {
+            CompletableFuture<Long> reload = data.reload();
+            assertTrue(building.await(5, TimeUnit.SECONDS));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+                assertEquals(10, data.read(SalesDataset::size));
+                assertEquals(1, data.epoch());
+            });
+
+            proceed.countDown();
+            assertEquals(2L, reload.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    // Test a failing load keeps serving the previous snapshot
+    @Test
+    @DisplayName("Should keep the current snapshot when a reload fails")
+    void testFailedReload() {
+        AtomicInteger loads = new AtomicInteger();
+        try (ReloadableDataset data = new ReloadableDataset(() -> {
+            if (loads.getAndIncrement() > 0) {
+                throw new IllegalStateException("boom");
+            }
+            return SalesDataset.load(CsvSalesReader.streamSupplier(TEST_DATA));
+        }, Object::new)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> data.reload().get(5, TimeUnit.SECONDS));
+
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            assertSame(e.getCause(), data.lastReloadFailure());
+            assertEquals(1, data.epoch());
+            assertEquals(10, data.read(SalesDataset::size));
+        }
+    }
+
+    // Test the watcher picks up a changed file on its own
+    @Test
+    @DisplayName("Should reload automatically when watching the file")
+    void testWatch(@TempDir Path dir) throws Exception {
+        Path csv = Files.copy(TEST_DATA, dir.resolve("sales.csv"));
+        try (ReloadableDataset data = ReloadableDataset.ofFile(csv)) {
+            data.watch(Duration.ofMillis(20));
+            truncate(csv, 4);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (data.epoch() == 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, data.epoch());
+            assertEquals(4, data.read(SalesDataset::size));
+        }
+    }
+
+    // Test a closed holder refuses new leases
+    @Test
+    @DisplayName("Should refuse leases after close")
+    void testClose() {
+        ReloadableDataset data = ReloadableDataset.ofFile(TEST_DATA);
+        ReloadableDataset.Lease lease = data.acquire();
+        data.close();
+
+        assertEquals(10, lease.dataset().size());
+        assertThrows(IllegalStateException.class, data::acquire);
+        lease.close();
+    }
+
+    // Test a reload that finishes after close releases its snapshot instead of publishing it
+    @Test
+    @DisplayName("Should release a snapshot loaded while closing")
+    void testCloseDuringReload() throws Exception {
+        SalesDataset loaded = SalesDataset.load(CsvSalesReader.streamSupplier(TEST_DATA));
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        List<Long> released = new CopyOnWriteArrayList<>();
+        ReloadableDataset data = new ReloadableDataset(() -> {
+            if (loads.getAndIncrement() > 0) {
+                building.countDown();
+                await(proceed);
+            }
+            return loaded;
+        }, Object::new);
+        data.onRelease(released::add);
+        CompletableFuture<Long> reload = data.reload();
+        assertTrue(building.await(5, TimeUnit.SECONDS));
+
+        data.close();
+        proceed.countDown();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> reload.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        // close() interrupts the loader, so the two releases may come in either order
+        assertEquals(Set.of(1L, 2L), Set.copyOf(released));
+        assertEquals(2, released.size());
+        assertThrows(IllegalStateException.class, data::acquire);
+    }
+
+    /** Keeps the header and the first rows of the file. */
+    private static void truncate(Path csv, int rows) throws IOException {
+        List<String> lines = Files.readAllLines(csv);
+        Files.write(csv, lines.subList(0, rows + 1));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
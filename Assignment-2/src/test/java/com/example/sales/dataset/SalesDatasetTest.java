@@ -0,0 +1,80 @@
+package com.example.sales.dataset;
+
+import com.example.sales.index.CategoryFilter;
+import com.example.sales.index.Dimension;
+import com.example.sales.index.NumericColumn;
+import com.example.sales.reader.CsvSalesReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for SalesDataset - validates loading and index-backed aggregation. */
+@DisplayName("SalesDataset Tests")
+class SalesDatasetTest {
+
+    private SalesDataset dataset;
+
+    @BeforeEach
+    void setUp() {
+        dataset = SalesDataset.load(CsvSalesReader.streamSupplier(Path.of("src/test/resources/test_sales_data.csv")));
+    }
+
+    // Test rows are materialized in file order
+    @Test
+    @DisplayName("Should load all rows in file order")
+    void testLoad() {
+        assertEquals(10, dataset.size());
+        assertEquals("10001", dataset.record(0).orderNumber());
+        assertEquals(10, dataset.stream().count());
+    }
+
+    // Test revenue sum over bitmap-selected rows
+    @Test
+    @DisplayName("Should sum revenue over selected rows")
+    void testSumRevenue() {
+        CategoryFilter filter = CategoryFilter.where(Dimension.PRODUCT_LINE, "Motorcycles");
+        assertEquals(5125.0, dataset.sumRevenue(dataset.select(filter)), 0.01);
+    }
+
+    // Test empty dataset
+    @Test
+    @DisplayName("Should handle empty dataset")
+    void testEmpty() {
+        SalesDataset empty = SalesDataset.load(CsvSalesReader.streamSupplier(Path.of("src/test/resources/empty_sales_data.csv")));
+        assertEquals(0, empty.size());
+        assertEquals(0.0, empty.sumRevenue(empty.select(CategoryFilter.all())));
+    }
+
+    // Test clustering sorts rows by date so a date range touches fewer blocks
+    @Test
+    @DisplayName("Should cluster rows by order date and prune blocks")
+    void testClusterByOrderDate() {
+        SalesDataset clustered = SalesDataset.load(
+                CsvSalesReader.streamSupplier(Path.of("src/test/resources/test_sales_data.csv")), true, 2);
+
+        assertTrue(clustered.isClusteredByOrderDate());
+        assertEquals(LocalDate.of(2023, 1, 15), clustered.record(0).orderDate());
+        assertEquals(5, clustered.zoneMap(NumericColumn.ORDER_DATE).blockCount());
+        double lo = LocalDate.of(2024, 1, 1).toEpochDay();
+        double hi = LocalDate.of(2024, 12, 31).toEpochDay();
+        assertEquals(3, clustered.zoneMap(NumericColumn.ORDER_DATE).candidateBlocks(lo, hi));
+    }
+
+    // Test date and numeric range selection agrees with a scan
+    @Test
+    @DisplayName("Should select rows by date and measure ranges")
+    void testSelectRange() {
+        SalesDataset small = SalesDataset.load(
+                CsvSalesReader.streamSupplier(Path.of("src/test/resources/test_sales_data.csv")), false, 3);
+
+        assertEquals(4875.0, small.sumRevenue(small.selectDateRange(
+                LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31))), 0.01);
+        assertEquals(3, small.selectRange(NumericColumn.QUANTITY_ORDERED, 20, 30).getCardinality());
+        assertEquals(1, small.selectRange(NumericColumn.SALES, 2000, Double.MAX_VALUE).getCardinality());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.sales.dataset;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.reader.CsvSalesReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for TableStats - validates per-column statistics and selectivity estimates. */
+@DisplayName("TableStats Tests")
+class TableStatsTest {
+
+    private static final Path TEST_DATA = Path.of("src/test/resources/test_sales_data.csv");
+
+    // Test the dataset collects row counts, ranges and distinct counts at load time
+    @Test
+    @DisplayName("Should collect column statistics when a dataset loads")
+    void testCollectedAtLoad() {
+        TableStats stats = SalesDataset.load(CsvSalesReader.streamSupplier(TEST_DATA)).stats();
+
+        assertEquals(10, stats.rowCount());
+        assertEquals(3, stats.column("STATUS").distinct());
+        assertEquals(3, stats.column("DEALSIZE").distinct());
+        assertEquals(0, stats.column("STATUS").nullCount());
+        assertEquals(LocalDate.of(2023, 1, 15).toEpochDay(), stats.column("ORDERDATE").min());
+        assertTrue(Double.isNaN(stats.column("TERRITORY").min()));
+        assertEquals("ORDERNUMBER", stats.columns().keySet().iterator().next());
+        assertThrows(IllegalArgumentException.class, () -> stats.column("PHONE"));
+    }
+
+    // Test nulls and merging partitions through the parallel collector
+    @Test
+    @DisplayName("Should count nulls and merge partitions")
+    void testNullsAndMerge() {
+        SalesRecord full = new SalesRecord("1", LocalDate.of(2024, 1, 1), "A", "Shipped", 2, 10, 20, "Cars",
+                "C1", "USA", "NYC", "NA", "Small");
+        SalesRecord sparse = new SalesRecord("2", null, "", null, 4, 10, 40, "Cars", "C1", "USA", "NYC", "NA", "Small");
+        List<SalesRecord> rows = Stream.generate(() -> List.of(full, sparse)).limit(500)
+                .flatMap(List::stream).toList();
+
+        TableStats stats = rows.parallelStream().collect(TableStats.collector());
+
+        assertEquals(1000, stats.rowCount());
+        assertEquals(500, stats.column("ORDERDATE").nullCount());
+        assertEquals(500, stats.column("CUSTOMERNAME").nullCount());
+        assertEquals(2, stats.column("ORDERNUMBER").distinct());
+        assertEquals(20.0, stats.column("SALES").min());
+        assertEquals(40.0, stats.column("SALES").max());
+    }
+
+    // Test selectivity estimates from the collected statistics
+    @Test
+    @DisplayName("Should estimate equality and range selectivity")
+    void testSelectivity() {
+        ColumnStats status = new ColumnStats("STATUS", 100, 20, Double.NaN, Double.NaN, 4);
+        ColumnStats sales = new ColumnStats("SALES", 100, 0, 0.0, 1000.0, 90);
+
+        assertEquals(0.2, status.equalitySelectivity(1), 1e-9);
+        assertEquals(0.8, status.equalitySelectivity(9), 1e-9);
+        assertEquals(0.25, sales.rangeSelectivity(250.0, 500.0), 1e-9);
+        assertEquals(0.0, sales.rangeSelectivity(2000.0, 3000.0));
+        assertEquals(0.0, status.rangeSelectivity(0, 1));
+    }
+}
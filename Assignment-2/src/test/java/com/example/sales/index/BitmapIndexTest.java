@@ -0,0 +1,74 @@
+package com.example.sales.index;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.reader.CsvSalesReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for BitmapIndex and CategoryFilter - validates filter resolution via bitmaps. */
+@DisplayName("BitmapIndex Tests")
+class BitmapIndexTest {
+
+    private List<SalesRecord> records;
+    private BitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        try (Stream<SalesRecord> s = CsvSalesReader.streamSupplier(Path.of("src/test/resources/test_sales_data.csv")).get()) {
+            records = s.toList();
+        }
+        BitmapIndex.Builder builder = BitmapIndex.builder();
+        records.forEach(builder::add);
+        index = builder.build();
+    }
+
+    // Test single-value bitmaps
+    @Test
+    @DisplayName("Should index rows per categorical value")
+    void testRowsPerValue() {
+        assertEquals(10, index.rowCount());
+        assertEquals(8, index.rows(Dimension.STATUS, "Shipped").getCardinality());
+        assertEquals(3, index.rows(Dimension.DEAL_SIZE, "Large").getCardinality());
+        assertTrue(index.rows(Dimension.COUNTRY, "France").isEmpty());
+        assertTrue(index.values(Dimension.PRODUCT_LINE).contains("Motorcycles"));
+    }
+
+    // Test AND across dimensions and OR within a dimension agree with row-by-row evaluation
+    @Test
+    @DisplayName("Should resolve multi-predicate filters like a scan")
+    void testEvaluateMatchesScan() {
+        CategoryFilter filter = CategoryFilter.where(Dimension.STATUS, "Shipped")
+                .and(Dimension.COUNTRY, "USA")
+                .and(Dimension.DEAL_SIZE, "Large", "Medium");
+
+        int[] expected = java.util.stream.IntStream.range(0, records.size())
+                .filter(i -> filter.test(records.get(i)))
+                .toArray();
+
+        assertArrayEquals(expected, index.evaluate(filter).toArray());
+        assertEquals(4, expected.length);
+    }
+
+    // Test empty filter selects all rows
+    @Test
+    @DisplayName("Should select all rows for empty filter")
+    void testEmptyFilter() {
+        assertEquals(10, index.evaluate(CategoryFilter.all()).getCardinality());
+    }
+
+    // Test repeated predicates on one dimension intersect their value sets
+    @Test
+    @DisplayName("Should intersect repeated predicates on the same dimension")
+    void testRepeatedDimension() {
+        CategoryFilter filter = CategoryFilter.where(Dimension.DEAL_SIZE, "Large", "Small")
+                .and(Dimension.DEAL_SIZE, "Large");
+        assertEquals(3, index.evaluate(filter).getCardinality());
+    }
+}
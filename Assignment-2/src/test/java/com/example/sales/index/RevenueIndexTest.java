@@ -0,0 +1,78 @@
+package com.example.sales.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for RevenueIndex - validates threshold, rank and percentile queries. */
+@DisplayName("RevenueIndex Tests")
+class RevenueIndexTest {
+
+    private final RevenueIndex index = RevenueIndex.build(new double[]{500, 100, 300, 300, 200});
+
+    // Test counts and sums above thresholds, including ties
+    @Test
+    @DisplayName("Should count and sum values above a threshold")
+    void testAbove() {
+        assertEquals(5, index.countAbove(0));
+        assertEquals(3, index.countAbove(200));
+        assertEquals(1, index.countAbove(300));
+        assertEquals(0, index.countAbove(500));
+        assertEquals(1100.0, index.sumAbove(200));
+        assertEquals(1400.0, index.total());
+    }
+
+    // Test a NaN threshold counts nothing above it, as comparing against NaN in a scan does
+    @Test
+    @DisplayName("Should treat a NaN threshold like a scan does")
+    void testNaNThreshold() {
+        assertEquals(0, index.countAbove(Double.NaN));
+        assertEquals(0.0, index.sumAbove(Double.NaN));
+        assertEquals(Map.of(false, 5L, true, 0L), index.partition(Double.NaN));
+    }
+
+    // Test ranks and nearest-rank percentiles
+    @Test
+    @DisplayName("Should compute ranks and exact percentiles")
+    void testRankAndPercentile() {
+        assertEquals(0, index.rank(100));
+        assertEquals(2, index.rank(300));
+        assertEquals(5, index.rank(1000));
+        assertEquals(100.0, index.percentile(0.0));
+        assertEquals(300.0, index.percentile(0.5));
+        assertEquals(500.0, index.percentile(1.0));
+        assertThrows(IllegalArgumentException.class, () -> index.percentile(-0.1));
+    }
+
+    // Test threshold sweep agrees with brute force
+    @Test
+    @DisplayName("Should match brute force for a threshold sweep")
+    void testSweep() {
+        Random rnd = new Random(3);
+        double[] values = rnd.doubles(5_000, 0, 10_000).toArray();
+        RevenueIndex idx = RevenueIndex.build(values);
+
+        for (double t = 0; t < 10_000; t += 97) {
+            double threshold = t;
+            long count = Arrays.stream(values).filter(v -> v > threshold).count();
+            double sum = Arrays.stream(values).filter(v -> v > threshold).sum();
+            assertEquals(count, idx.countAbove(threshold));
+            assertEquals(sum, idx.sumAbove(threshold), 1e-6 * idx.total());
+        }
+    }
+
+    // Test partition shape and empty index
+    @Test
+    @DisplayName("Should partition like partitionHighValue and handle empty input")
+    void testPartitionAndEmpty() {
+        assertEquals(Map.of(true, 3L, false, 2L), index.partition(200));
+        RevenueIndex empty = RevenueIndex.build(new double[0]);
+        assertEquals(0, empty.countAbove(0));
+        assertTrue(Double.isNaN(empty.percentile(0.5)));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.sales.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for RoaringBitmap - validates container behaviour and set operations. */
+@DisplayName("RoaringBitmap Tests")
+class RoaringBitmapTest {
+
+    // Test adding and probing rows across several high keys
+    @Test
+    @DisplayName("Should add and contain rows across containers")
+    void testAddContains() {
+        RoaringBitmap b = RoaringBitmap.of(1, 5, 70_000, 5);
+
+        assertEquals(3, b.getCardinality());
+        assertTrue(b.contains(1));
+        assertTrue(b.contains(70_000));
+        assertFalse(b.contains(2));
+        assertFalse(b.contains(-1));
+        assertArrayEquals(new int[]{1, 5, 70_000}, b.toArray());
+    }
+
+    // Test dense ranges are promoted to bitmap containers without losing rows
+    @Test
+    @DisplayName("Should handle dense ranges beyond array container limit")
+    void testDenseRange() {
+        RoaringBitmap b = RoaringBitmap.range(100_000);
+
+        assertEquals(100_000, b.getCardinality());
+        assertTrue(b.contains(65_535));
+        assertTrue(b.contains(99_999));
+        assertFalse(b.contains(100_000));
+    }
+
+    // Test AND and OR against a BitSet reference on mixed sparse/dense data
+    @Test
+    @DisplayName("Should match BitSet for AND and OR")
+    void testAndOrAgainstBitSet() {
+        Random rnd = new Random(42);
+        RoaringBitmap a = new RoaringBitmap();
+        RoaringBitmap b = new RoaringBitmap();
+        BitSet ra = new BitSet();
+        BitSet rb = new BitSet();
+        for (int i = 0; i < 200_000; i++) {
+            if (rnd.nextInt(3) == 0) { a.add(i); ra.set(i); }
+            if (i > 50_000 && rnd.nextInt(50) == 0) { b.add(i); rb.set(i); }
+        }
+
+        BitSet and = (BitSet) ra.clone();
+        and.and(rb);
+        BitSet or = (BitSet) ra.clone();
+        or.or(rb);
+
+        assertArrayEquals(and.stream().toArray(), a.and(b).toArray());
+        assertArrayEquals(or.stream().toArray(), a.or(b).toArray());
+        assertArrayEquals(and.stream().toArray(), b.and(a).toArray());
+    }
+
+    // Test rejecting negative row ids
+    @Test
+    @DisplayName("Should reject negative row ids")
+    void testNegativeRow() {
+        assertThrows(IllegalArgumentException.class, () -> new RoaringBitmap().add(-1));
+    }
+
+    // Test operations on empty bitmaps
+    @Test
+    @DisplayName("Should handle empty bitmaps")
+    void testEmpty() {
+        RoaringBitmap empty = new RoaringBitmap();
+        RoaringBitmap b = RoaringBitmap.of(3, 4);
+
+        assertTrue(empty.isEmpty());
+        assertTrue(empty.and(b).isEmpty());
+        assertEquals(b, empty.or(b));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.sales.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for ZoneMap - validates block statistics and pruning decisions. */
+@DisplayName("ZoneMap Tests")
+class ZoneMapTest {
+
+    // Test min/max per block including a short trailing block
+    @Test
+    @DisplayName("Should compute min and max per block")
+    void testBlockStats() {
+        ZoneMap zm = ZoneMap.build(new double[]{5, 1, 9, 20, 30, 25, 7}, 3);
+
+        assertEquals(3, zm.blockCount());
+        assertEquals(1, zm.min(0));
+        assertEquals(9, zm.max(0));
+        assertEquals(20, zm.min(1));
+        assertEquals(30, zm.max(1));
+        assertEquals(7, zm.min(2));
+        assertEquals(6, zm.blockStart(2));
+        assertEquals(7, zm.blockEnd(2));
+    }
+
+    // Test pruning and full-coverage decisions
+    @Test
+    @DisplayName("Should prune blocks outside the range")
+    void testPruning() {
+        ZoneMap zm = ZoneMap.build(new double[]{1, 2, 3, 10, 11, 12}, 3);
+
+        assertTrue(zm.mayContain(0, 2, 5));
+        assertFalse(zm.mayContain(1, 2, 5));
+        assertTrue(zm.fullyInside(1, 10, 12));
+        assertFalse(zm.fullyInside(0, 2, 5));
+        assertEquals(1, zm.candidateBlocks(0, 5));
+        assertEquals(2, zm.candidateBlocks(3, 10));
+    }
+
+    // Test NaN values are tracked as nulls and prevent full-coverage shortcuts
+    @Test
+    @DisplayName("Should track missing values per block")
+    void testNulls() {
+        ZoneMap zm = ZoneMap.build(new double[]{Double.NaN, 4, 5}, 3);
+
+        assertEquals(1, zm.nullCount(0));
+        assertEquals(4, zm.min(0));
+        assertFalse(zm.fullyInside(0, 0, 100));
+        assertFalse(ZoneMap.build(new double[]{Double.NaN}, 1).mayContain(0, 0, 100));
+    }
+
+    // Test invalid block size
+    @Test
+    @DisplayName("Should reject non-positive block size")
+    void testInvalidBlockSize() {
+        assertThrows(IllegalArgumentException.class, () -> ZoneMap.build(new double[1], 0));
+    }
+}
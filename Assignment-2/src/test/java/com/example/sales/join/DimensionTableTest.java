@@ -0,0 +1,75 @@
+package com.example.sales.join;
+
+import com.example.sales.model.SalesRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for DimensionTable - validates loading, hash lookup and numeric attributes. */
+@DisplayName("DimensionTable Tests")
+class DimensionTableTest {
+
+    private static final Path PRODUCTS = Path.of("src/test/resources/product_dimension.csv");
+
+    // Test loading and key lookup
+    @Test
+    @DisplayName("Should load dimension rows and look them up by key")
+    void testLookup() {
+        DimensionTable dim = DimensionTable.load(PRODUCTS, JoinKey.PRODUCT_CODE);
+
+        assertEquals(9, dim.size());
+        int row = dim.lookup("C002");
+        assertTrue(row >= 0);
+        assertEquals("Classic Works", dim.attribute(row, dim.columnIndex("VENDOR")));
+        assertEquals(-1, dim.lookup("NOPE"));
+        assertEquals(-1, dim.lookup(null));
+    }
+
+    // Test numeric columns are pre-parsed and text columns are not
+    @Test
+    @DisplayName("Should expose pre-parsed numeric attributes")
+    void testNumericAttributes() {
+        DimensionTable dim = DimensionTable.load(PRODUCTS, JoinKey.PRODUCT_CODE);
+        int row = dim.lookup("M003");
+
+        assertEquals(200.0, dim.number(row, dim.columnIndex("UNITCOST")));
+        assertTrue(Double.isNaN(dim.number(row, dim.columnIndex("VENDOR"))));
+    }
+
+    // Test probing with a fact record
+    @Test
+    @DisplayName("Should probe with the fact record's join key")
+    void testProbe() {
+        DimensionTable dim = DimensionTable.load(PRODUCTS, JoinKey.PRODUCT_CODE);
+        SalesRecord r = new SalesRecord("1", LocalDate.now(), "C", "Shipped", 1, 1.0, 1.0,
+                "Motorcycles", "M001", "USA", "NYC", "NA", "Small");
+
+        assertEquals(dim.lookup("M001"), dim.probe(r));
+    }
+
+    // Test duplicate keys keep the first row
+    @Test
+    @DisplayName("Should keep the first row for duplicate keys")
+    void testDuplicateKeys(@TempDir Path dir) throws IOException {
+        Path csv = dir.resolve("dup.csv");
+        Files.writeString(csv, "CUSTOMERNAME,SEGMENT\nA,First\nA,Second\nB,Other\n");
+
+        DimensionTable dim = DimensionTable.load(csv, JoinKey.CUSTOMER_NAME);
+
+        assertEquals("First", dim.attribute(dim.lookup("A"), 1));
+    }
+
+    // Test missing key column is rejected
+    @Test
+    @DisplayName("Should reject files without the join column")
+    void testMissingKeyColumn() {
+        assertThrows(IllegalArgumentException.class, () -> DimensionTable.load(PRODUCTS, JoinKey.CUSTOMER_NAME));
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.sales.output;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for StreamingReporter - validates JSON, CSV and NDJSON output and buffering. */
+@DisplayName("StreamingReporter Tests")
+class StreamingReporterTest {
+
+    // Test JSON output is one array of section objects with nested and typed values
+    @Test
+    @DisplayName("Should write a JSON array of sections")
+    void testJson() {
+        String out = render(ReportFormat.JSON, rpt -> {
+            rpt.info("Total Orders", 10L);
+            rpt.info("Revenue by Year", sample());
+            rpt.info("Empty", Map.of());
+        });
+
+        assertEquals("[\n"
+                + "  {\"section\":\"Total Orders\",\"data\":10},\n"
+                + "  {\"section\":\"Revenue by Year\",\"data\":{\"2023\":4875.5,\"say \\\"hi\\\"\\n\":null,"
+                + "\"APAC\":{\"p50\":1.5},\"list\":[1,\"a,b\"]}},\n"
+                + "  {\"section\":\"Empty\",\"data\":{}}\n"
+                + "]\n", out);
+        assertEquals("[]\n", render(ReportFormat.JSON, rpt -> { }));
+    }
+
+    // Test NDJSON writes one section object per line
+    @Test
+    @DisplayName("Should write one JSON object per line for NDJSON")
+    void testNdjson() {
+        String out = render(ReportFormat.NDJSON, rpt -> {
+            rpt.info("Total Revenue", "$12,265.00");
+            rpt.info("Orders by Status", Map.of("Shipped", 9L));
+        });
+
+        assertEquals("{\"section\":\"Total Revenue\",\"data\":\"$12,265.00\"}\n"
+                + "{\"section\":\"Orders by Status\",\"data\":{\"Shipped\":9}}\n", out);
+    }
+
+    // Test CSV rows flatten nested values and quote special characters
+    @Test
+    @DisplayName("Should write section,key,value rows for CSV")
+    void testCsv() {
+        String out = render(ReportFormat.CSV, rpt -> {
+            rpt.info("Total Revenue", "$12,265.00");
+            rpt.info("Revenue by Year", sample());
+        });
+
+        assertEquals("section,key,value\n"
+                + "Total Revenue,,\"$12,265.00\"\n"
+                + "Revenue by Year,2023,4875.5\n"
+                + "Revenue by Year,\"say \"\"hi\"\"\n\",NaN\n"
+                + "Revenue by Year,APAC.p50,1.5\n"
+                + "Revenue by Year,list.0,1\n"
+                + "Revenue by Year,list.1,\"a,b\"\n", out);
+    }
+
+    // Test TEXT keeps the console layout and messages inline
+    @Test
+    @DisplayName("Should write the console layout for TEXT")
+    void testText() {
+        String out = render(ReportFormat.TEXT, rpt -> {
+            rpt.info("Total Orders", 10L);
+            rpt.info("Orders by Status", Map.of("Shipped", 9L));
+            rpt.info("Empty", Map.of());
+            rpt.warn("careful");
+        });
+
+        assertEquals("=== Total Orders ===\n  10\n"
+                + "=== Orders by Status ===\n  Shipped : 9\n"
+                + "=== Empty ===\n  (no data)\n"
+                + "WARNING: careful\n", out);
+    }
+
+    // Test a very large map streams through a few buffer-sized channel writes
+    @Test
+    @DisplayName("Should stream large maps in buffer-sized writes")
+    void testLargeMapStreams() {
+        CountingChannel channel = new CountingChannel();
+        int entries = 500_000;
+        try (StreamingReporter rpt = new StreamingReporter(ReportFormat.NDJSON, channel)) {
+            rpt.info("Customers", generated(entries));
+        }
+
+        assertTrue(channel.bytes > entries * 10L);
+        assertTrue(channel.writes <= channel.bytes / StreamingReporter.BUFFER_BYTES + 2,
+                channel.writes + " writes for " + channel.bytes + " bytes");
+    }
+
+    // Test writing to a file and refusing sections after close
+    @Test
+    @DisplayName("Should write a file and reject sections after close")
+    void testFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("report.json");
+        StreamingReporter rpt = StreamingReporter.toFile(ReportFormat.JSON, file);
+        rpt.info("Total Orders", 3);
+        rpt.close();
+        rpt.close();
+
+        assertEquals("[\n  {\"section\":\"Total Orders\",\"data\":3}\n]\n", Files.readString(file));
+        assertThrows(IllegalStateException.class, () -> rpt.info("Late", 1));
+    }
+
+    // Test parsing format names
+    @Test
+    @DisplayName("Should parse format names case-insensitively")
+    void testParseFormat() {
+        assertEquals(ReportFormat.NDJSON, ReportFormat.parse("ndjson"));
+        assertEquals(ReportFormat.CSV, ReportFormat.parse(" CSV "));
+        assertEquals("txt", ReportFormat.parse("text").extension());
+        assertThrows(IllegalArgumentException.class, () -> ReportFormat.parse("xml"));
+    }
+
+    private static Map<String, Object> sample() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("2023", 4875.5);
+        map.put("say \"hi\"\n", Double.NaN);
+        map.put("APAC", Map.of("p50", 1.5));
+        map.put("list", List.of(1, "a,b"));
+        return map;
+    }
+
+    private static String render(ReportFormat format, Consumer<Reporter> body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (StreamingReporter rpt = new StreamingReporter(format, Channels.newChannel(bytes))) {
+            body.accept(rpt);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    /** Map whose entries are produced on iteration, so the test holds no large data itself. */
+    private static Map<String, Double> generated(int size) {
+        return new AbstractMap<>() {
+            @Override
+            public Set<Entry<String, Double>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<String, Double>> iterator() {
+                        return new Iterator<>() {
+                            private int i;
+
+                            @Override
+                            public boolean hasNext() {
+                                return i < size;
+                            }
+
+                            @Override
+                            public Entry<String, Double> next() {
+                                i++;
+                                return Map.entry("Customer " + i, i * 1.5);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return size;
+                    }
+                };
+            }
+        };
+    }
+
+    /** Discards bytes, counting them and the write calls. */
+    private static final class CountingChannel implements WritableByteChannel {
+        long bytes;
+        int writes;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int n = src.remaining();
+            src.position(src.limit());
+            bytes += n;
+            writes++;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.sales.profile;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.output.ConsoleReporter;
+import com.example.sales.reader.CsvSalesReader;
+import com.example.sales.service.AnalyticsService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for the JFR event types - validates they are emitted with their payloads. */
+@DisplayName("Flight Recorder Event Tests")
+class FlightRecorderEventsTest {
+
+    private static final Path TEST_DATA = Path.of("src/test/resources/test_sales_data.csv");
+
+    // Test file-open and query-execute events carry path, size, query name and row count
+    @Test
+    @DisplayName("Should record file-open and query events")
+    void testFileOpenAndQuery(@TempDir Path dir) throws Exception {
+        List<RecordedEvent> events = record(dir, () -> {
+            AnalyticsService svc = new AnalyticsService(CsvSalesReader.streamSupplier(TEST_DATA));
+            svc.totalRevenue();
+            svc.totalOrders();
+        });
+
+        List<RecordedEvent> opens = ofType(events, "com.example.sales.FileOpen");
+        assertEquals(2, opens.size());
+        assertEquals("csv", opens.get(0).getString("reader"));
+        assertEquals(Files.size(TEST_DATA), opens.get(0).getLong("bytes"));
+        assertTrue(opens.get(0).getString("path").endsWith("test_sales_data.csv"));
+
+        Map<String, Long> rowsByQuery = ofType(events, "com.example.sales.QueryExecute").stream()
+                .collect(Collectors.toMap(e -> e.getString("query"), e -> e.getLong("rows")));
+        assertEquals(Map.of("totalRevenue", 10L, "totalOrders", 10L), rowsByQuery);
+    }
+
+    // Test the mapped reader reports its parsed ranges as chunk events
+    @Test
+    @DisplayName("Should record chunk-parse events for mapped splits")
+    void testChunkParse(@TempDir Path dir) throws Exception {
+        List<RecordedEvent> events = record(dir, () -> {
+            try (Stream<SalesRecord> s = CsvSalesReader.mappedStreamSupplier(TEST_DATA).get()) {
+                assertEquals(10, s.count());
+            }
+        });
+
+        List<RecordedEvent> chunks = ofType(events, "com.example.sales.ChunkParse");
+        assertFalse(chunks.isEmpty());
+        assertEquals(10, chunks.stream().mapToLong(e -> e.getLong("rows")).sum());
+        assertEquals("mapped", ofType(events, "com.example.sales.FileOpen").get(0).getString("reader"));
+    }
+
+    // Test report sections are recorded with title and entry count
+    @Test
+    @DisplayName("Should record report-render events")
+    void testReportRender(@TempDir Path dir) throws Exception {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        List<RecordedEvent> events;
+        try {
+            events = record(dir, () -> new ConsoleReporter().info("Orders by Status", Map.of("Shipped", 8, "On Hold", 1)));
+        } finally {
+            System.setOut(original);
+        }
+
+        List<RecordedEvent> renders = ofType(events, "com.example.sales.ReportRender");
+        assertEquals(1, renders.size());
+        assertEquals("Orders by Status", renders.get(0).getString("title"));
+        assertEquals(2, renders.get(0).getInt("entries"));
+    }
+
+    private static List<RecordedEvent> record(Path dir, Runnable body) throws Exception {
+        Path file = dir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(FileOpenEvent.class);
+            recording.enable(ChunkParseEvent.class);
+            recording.enable(QueryExecuteEvent.class);
+            recording.enable(ReportRenderEvent.class);
+            recording.start();
+            body.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.sales.profile;
+
+import com.example.sales.reader.CsvSalesReader;
+import com.example.sales.reader.RejectSink;
+import com.example.sales.service.AnalyticsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for PipelineProfiler - validates phase accounting, counters and the JMX view. */
+@DisplayName("PipelineProfiler Tests")
+class PipelineProfilerTest {
+
+    private static final Path TEST_DATA = Path.of("src/test/resources/test_sales_data.csv");
+    private static final Path INVALID_DATA = Path.of("src/test/resources/invalid_sales_data.csv");
+
+    @BeforeEach
+    void setUp() {
+        PipelineProfiler.setEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        PipelineProfiler.setEnabled(false);
+        PipelineProfiler.reset();
+    }
+
+    // Test nested phases are charged exclusively to the innermost phase
+    @Test
+    @DisplayName("Should charge nested time to the innermost phase")
+    void testNestedPhases() throws InterruptedException {
+        assertTrue(PipelineProfiler.enter(Phase.AGGREGATION));
+        Thread.sleep(20);
+        assertTrue(PipelineProfiler.enter(Phase.READ));
+        Thread.sleep(40);
+        PipelineProfiler.exit();
+        PipelineProfiler.exit();
+
+        ProfileSnapshot snap = PipelineProfiler.snapshot();
+        assertTrue(snap.nanos(Phase.READ) >= 40_000_000L);
+        assertTrue(snap.nanos(Phase.AGGREGATION) >= 20_000_000L);
+        assertTrue(snap.nanos(Phase.AGGREGATION) < snap.nanos(Phase.READ) + 20_000_000L);
+        assertEquals(0, snap.nanos(Phase.DATE));
+    }
+
+    // Test nothing is recorded while disabled
+    @Test
+    @DisplayName("Should record nothing when disabled")
+    void testDisabled() {
+        PipelineProfiler.setEnabled(false);
+        PipelineProfiler.reset();
+
+        assertFalse(PipelineProfiler.enter(Phase.PARSE));
+        PipelineProfiler.addRows(5);
+        new AnalyticsService(CsvSalesReader.streamSupplier(TEST_DATA)).totalRevenue();
+
+        ProfileSnapshot snap = PipelineProfiler.snapshot();
+        assertEquals(0, snap.rows());
+        assertEquals(0, snap.ingestNanos() + snap.nanos(Phase.AGGREGATION));
+    }
+
+    // Test an end-to-end query fills every phase and the throughput counters
+    @Test
+    @DisplayName("Should profile a query over the CSV reader")
+    void testEndToEnd() throws Exception {
+        AnalyticsService svc = new AnalyticsService(CsvSalesReader.streamSupplier(TEST_DATA));
+        assertEquals(12265.0, svc.totalRevenue(), 0.01);
+
+        ProfileSnapshot snap = PipelineProfiler.snapshot();
+        assertEquals(10, snap.rows());
+        assertEquals(Files.size(TEST_DATA), snap.bytes());
+        for (Phase p : Phase.values()) {
+            assertTrue(snap.nanos(p) > 0, p.name());
+        }
+        assertTrue(snap.rowsPerSecond() > 0);
+        assertTrue(snap.bytesPerSecond() > 0);
+        assertTrue(snap.totalAllocatedBytes() > 0);
+        assertTrue(snap.breakdown().containsKey("Rows/s"));
+    }
+
+    // Test rejected rows are counted
+    @Test
+    @DisplayName("Should count rejected rows")
+    void testRejectedRows() {
+        try (RejectSink sink = RejectSink.counting()) {
+            new AnalyticsService(CsvSalesReader.streamSupplier(INVALID_DATA, sink)).totalOrders();
+            assertEquals(sink.total(), PipelineProfiler.snapshot().rejectedRows());
+            assertTrue(sink.total() > 0);
+        }
+    }
+
+    // Test the MBean is registered and reads the live counters
+    @Test
+    @DisplayName("Should expose counters over JMX")
+    void testMBean() throws Exception {
+        PipelineMetrics.register();
+        PipelineMetrics.register();
+        new AnalyticsService(CsvSalesReader.streamSupplier(TEST_DATA)).totalOrders();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(PipelineMetrics.OBJECT_NAME);
+        assertEquals(10L, server.getAttribute(name, "RowsRead"));
+        assertEquals(true, server.getAttribute(name, "Enabled"));
+
+        server.invoke(name, "reset", null, null);
+        assertEquals(0L, server.getAttribute(name, "RowsRead"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.sales.reader;
+
+import com.example.sales.model.SalesRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for BlockSample - validates record-aligned blocks and reproducible sampling. */
+@DisplayName("BlockSample Tests")
+class BlockSampleTest {
+
+    private static final Path SAMPLE_DATA = Path.of("data/sales_data_sample.csv");
+
+    // Test a full-rate sample holds every row, in file order
+    @Test
+    @DisplayName("Should keep every row at rate 1")
+    void testFullRate() {
+        BlockSample s = CsvSalesReader.blockSample(SAMPLE_DATA, 1.0, 4096, 1L);
+        List<SalesRecord> all;
+        try (Stream<SalesRecord> stream = CsvSalesReader.streamSupplier(SAMPLE_DATA).get()) {
+            all = stream.toList();
+        }
+
+        assertEquals(s.totalBlocks(), s.blocks().size());
+        assertTrue(s.totalBlocks() > 100);
+        assertEquals(all, s.stream().toList());
+    }
+
+    // Test partial rates keep roughly that share of blocks, reproducibly per seed
+    @Test
+    @DisplayName("Should sample blocks reproducibly")
+    void testReproducible() {
+        BlockSample a = CsvSalesReader.blockSample(SAMPLE_DATA, 0.2, 4096, 7L);
+        BlockSample b = CsvSalesReader.blockSample(SAMPLE_DATA, 0.2, 4096, 7L);
+        BlockSample c = CsvSalesReader.blockSample(SAMPLE_DATA, 0.2, 4096, 8L);
+
+        assertEquals(a.blocks(), b.blocks());
+        assertNotEquals(a.blocks(), c.blocks());
+        assertEquals(0.2 * a.totalBlocks(), a.blocks().size(), 0.1 * a.totalBlocks());
+        assertEquals(0.2, a.rate());
+    }
+
+    // Test invalid rates and block sizes
+    @Test
+    @DisplayName("Should reject invalid rates and block sizes")
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> CsvSalesReader.blockSample(SAMPLE_DATA, 0.0, 4096, 1L));
+        assertThrows(IllegalArgumentException.class, () -> CsvSalesReader.blockSample(SAMPLE_DATA, 1.5, 4096, 1L));
+        assertThrows(IllegalArgumentException.class, () -> CsvSalesReader.blockSample(SAMPLE_DATA, 0.5, 0, 1L));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.sales.reader;
+
+import com.example.sales.model.SalesRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for CsvEncoding - validates BOM and charset detection and decoding in every reader. */
+@DisplayName("CsvEncoding Tests")
+class CsvEncodingTest {
+
+    private static final Path TEST_DATA = Path.of("src/test/resources/test_sales_data.csv");
+    private static final Path SAMPLE_DATA = Path.of("data/sales_data_sample.csv");
+    private static final String NAME = "Café Zoë Müller";
+
+    // Test plain ASCII files are flagged for the no-decode fast path
+    @Test
+    @DisplayName("Should detect ASCII and UTF-8 files")
+    void testAscii() {
+        CsvEncoding enc = CsvEncoding.detect(TEST_DATA);
+        assertEquals(StandardCharsets.UTF_8, enc.charset());
+        assertEquals(0, enc.bomLength());
+        assertTrue(enc.ascii());
+        assertEquals(StandardCharsets.ISO_8859_1, enc.decodeCharset());
+
+        CsvEncoding sample = CsvEncoding.detect(SAMPLE_DATA);
+        assertEquals(StandardCharsets.UTF_8, sample.charset());
+        assertFalse(sample.ascii());
+    }
+
+    // Test byte order marks and charset detection from the bytes
+    @Test
+    @DisplayName("Should detect BOMs, UTF-8 and windows-1252")
+    void testDetect() {
+        CsvEncoding bom = detect(concat(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}, "abc".getBytes()));
+        assertEquals(StandardCharsets.UTF_8, bom.charset());
+        assertEquals(3, bom.bomLength());
+        assertTrue(bom.ascii());
+
+        CsvEncoding utf8 = detect("name,Café\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(StandardCharsets.UTF_8, utf8.charset());
+        assertFalse(utf8.ascii());
+
+        CsvEncoding cp1252 = detect("name,Café €\n".getBytes(CsvEncoding.WINDOWS_1252));
+        assertEquals(CsvEncoding.WINDOWS_1252, cp1252.charset());
+        assertEquals(0, cp1252.bomLength());
+
+        CsvEncoding utf16 = detect(new byte[] {(byte) 0xFF, (byte) 0xFE, 'a', 0});
+        assertEquals(StandardCharsets.UTF_16LE, utf16.charset());
+        assertFalse(utf16.asciiCompatible());
+
+        assertEquals(CsvEncoding.WINDOWS_1252, detect(new byte[] {'a', (byte) 0xC3}).charset());
+        assertEquals(CsvEncoding.WINDOWS_1252, detect(new byte[] {'a', (byte) 0xED, (byte) 0xA0, (byte) 0x80}).charset());
+    }
+
+    // Test sniffing a prefix tolerates a sequence cut at the boundary and never claims ASCII
+    @Test
+    @DisplayName("Should sniff a prefix without misreading a cut sequence")
+    void testSniff() {
+        byte[] bytes = new byte[CsvEncoding.SNIFF_BYTES + 10];
+        Arrays.fill(bytes, (byte) 'a');
+        bytes[CsvEncoding.SNIFF_BYTES - 1] = (byte) 0xC3;
+        bytes[CsvEncoding.SNIFF_BYTES] = (byte) 0xA9;
+        CsvEncoding sniffed = CsvEncoding.sniff(ByteBuffer.wrap(bytes), 0, bytes.length);
+
+        assertEquals(StandardCharsets.UTF_8, sniffed.charset());
+        assertFalse(sniffed.ascii());
+        assertFalse(CsvEncoding.sniff(ByteBuffer.wrap(new byte[CsvEncoding.SNIFF_BYTES * 2]), 0,
+                CsvEncoding.SNIFF_BYTES * 2).ascii());
+    }
+
+    // Test every reader resolves the header past a BOM and decodes UTF-8 names
+    @Test
+    @DisplayName("Should read UTF-8 files with a BOM in every reader")
+    void testUtf8BomReaders(@TempDir Path dir) throws IOException {
+        byte[] body = withName().getBytes(StandardCharsets.UTF_8);
+        Path csv = Files.write(dir.resolve("bom.csv"), concat(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}, body));
+
+        assertReadersDecode(csv);
+    }
+
+    // Test every reader decodes windows-1252 files
+    @Test
+    @DisplayName("Should read windows-1252 files in every reader")
+    void testWindows1252Readers(@TempDir Path dir) throws IOException {
+        Path csv = Files.write(dir.resolve("cp1252.csv"), withName().getBytes(CsvEncoding.WINDOWS_1252));
+
+        assertEquals(CsvEncoding.WINDOWS_1252, CsvEncoding.detect(csv).charset());
+        assertReadersDecode(csv);
+    }
+
+    // Test UTF-16 files go through the decoding reader and are refused by the byte readers
+    @Test
+    @DisplayName("Should read UTF-16 only through the decoding reader")
+    void testUtf16(@TempDir Path dir) throws IOException {
+        byte[] body = withName().getBytes(StandardCharsets.UTF_16LE);
+        Path csv = Files.write(dir.resolve("utf16.csv"), concat(new byte[] {(byte) 0xFF, (byte) 0xFE}, body));
+
+        assertEquals(NAME, first(CsvSalesReader.streamSupplier(csv)).customerName());
+        assertThrows(IllegalArgumentException.class, () -> first(CsvSalesReader.mappedStreamSupplier(csv)));
+    }
+
+    private static void assertReadersDecode(Path csv) {
+        List<Supplier<Stream<SalesRecord>>> readers = new ArrayList<>();
+        readers.add(CsvSalesReader.streamSupplier(csv));
+        readers.add(CsvSalesReader.mappedStreamSupplier(csv));
+        readers.add(CsvSalesReader.rowSource(csv)::records);
+        readers.add(() -> CsvSalesReader.blockSample(csv, 1.0, 1 << 16, 1L).stream());
+        readers.add(CsvSalesReader.pipelinedStreamSupplier(csv, 2));
+        for (Supplier<Stream<SalesRecord>> reader : readers) {
+            List<SalesRecord> rows;
+            try (Stream<SalesRecord> s = reader.get()) {
+                rows = s.toList();
+            }
+            assertEquals(10, rows.size());
+            assertEquals(3, rows.stream().filter(r -> NAME.equals(r.customerName())).count());
+            assertTrue(rows.stream().anyMatch(r -> "10001".equals(r.orderNumber())));
+        }
+        List<String> names = new ArrayList<>();
+        CsvSalesReader.rowSource(csv).forEachRow(r -> names.add(r.customerName()));
+        assertEquals(NAME, names.stream().filter(NAME::equals).findFirst().orElseThrow());
+    }
+
+    private static String withName() throws IOException {
+        return Files.readString(TEST_DATA).replace("Test Customer A", NAME);
+    }
+
+    private static SalesRecord first(Supplier<Stream<SalesRecord>> reader) {
+        try (Stream<SalesRecord> s = reader.get()) {
+            return s.findFirst().orElseThrow();
+        }
+    }
+
+    private static CsvEncoding detect(byte[] bytes) {
+        return CsvEncoding.detect(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(a);
+        out.writeBytes(b);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.sales.reader;
+
+import com.example.sales.index.CategoryFilter;
+import com.example.sales.index.Dimension;
+import com.example.sales.model.SalesRecord;
+import com.example.sales.model.SalesRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for CsvExtract - validates filtered byte-for-byte extraction. */
+@DisplayName("CsvExtract Tests")
+class CsvExtractTest {
+
+    private static final Path SAMPLE_DATA = Path.of("data/sales_data_sample.csv");
+
+    // Test the extract holds exactly the original lines of the matching rows
+    @Test
+    @DisplayName("Should copy the header and matching lines byte for byte")
+    void testMatchesOriginalLines(@TempDir Path dir) throws IOException {
+        Predicate<SalesRow> filter = CategoryFilter.where(Dimension.DEAL_SIZE, "Large")
+                .and(Dimension.TERRITORY, "EMEA")
+                .and(r -> r.orderYear() == 2004);
+        Path out = dir.resolve("extract.csv");
+
+        ExtractResult result = CsvExtract.write(SAMPLE_DATA, out, filter);
+
+        List<SalesRecord> all = read(SAMPLE_DATA);
+        List<String> lines = lines(SAMPLE_DATA);
+        StringBuilder expected = new StringBuilder(lines.get(0));
+        long matches = 0;
+        for (int i = 0; i < all.size(); i++) {
+            if (filter.test(all.get(i))) {
+                expected.append(lines.get(i + 1));
+                matches++;
+            }
+        }
+        assertTrue(matches > 0);
+        assertEquals(all.size(), result.rowsScanned());
+        assertEquals(matches, result.rowsWritten());
+        assertEquals(expected.toString(), Files.readString(out, StandardCharsets.ISO_8859_1));
+        assertEquals(Files.size(out), result.bytesWritten());
+        assertEquals(all.stream().filter(filter).collect(Collectors.toList()), read(out));
+    }
+
+    // Test quoting, CRLF endings and a missing final newline survive untouched
+    @Test
+    @DisplayName("Should preserve quoting and line endings")
+    void testPreservesFormatting(@TempDir Path dir) throws IOException {
+        String header = "ORDERNUMBER,ORDERDATE,CUSTOMERNAME,STATUS,TERRITORY\r\n";
+        String a = "1,1/1/2004,\"Acme, Inc.\",Shipped,EMEA\r\n";
+        String b = "2,1/2/2004,Other,Shipped,NA\r\n";
+        String c = "3,1/3/2004,\"Say \"\"hi\"\"\",Shipped,EMEA";
+        Path in = dir.resolve("in.csv");
+        Files.writeString(in, header + a + b + "\r\n" + c, StandardCharsets.US_ASCII);
+        Path out = dir.resolve("out.csv");
+
+        ExtractResult result = CsvExtract.write(in, out, CategoryFilter.where(Dimension.TERRITORY, "EMEA"));
+
+        assertEquals(header + a + c, Files.readString(out, StandardCharsets.US_ASCII));
+        assertEquals(new ExtractResult(3, 2, Files.size(out)), result);
+    }
+
+    // Test a filter that matches nothing still writes the header, and an empty file stays empty
+    @Test
+    @DisplayName("Should write only the header when nothing matches")
+    void testNoMatches(@TempDir Path dir) throws IOException {
+        Path out = dir.resolve("none.csv");
+        CsvExtract.write(SAMPLE_DATA, out, r -> false);
+        assertEquals(lines(SAMPLE_DATA).get(0), Files.readString(out, StandardCharsets.ISO_8859_1));
+
+        Path empty = Files.createFile(dir.resolve("empty.csv"));
+        assertEquals(new ExtractResult(0, 0, 0), CsvExtract.write(empty, dir.resolve("e.csv"), r -> true));
+    }
+
+    // Test a target that is the source is refused and the source is left intact
+    @Test
+    @DisplayName("Should refuse to extract a file onto itself")
+    void testSourceIsTarget(@TempDir Path dir) throws IOException {
+        Path csv = Files.copy(SAMPLE_DATA, dir.resolve("sales.csv"));
+        long size = Files.size(csv);
+
+        assertThrows(IllegalArgumentException.class, () -> CsvExtract.write(csv, csv, r -> true));
+        assertThrows(IllegalArgumentException.class,
+                () -> CsvExtract.write(csv, dir.resolve(".").resolve("sales.csv"), r -> true));
+        assertEquals(size, Files.size(csv));
+    }
+
+    // Test a failing extract keeps the previous target and leaves no temporary file
+    @Test
+    @DisplayName("Should leave an existing target untouched when the extract fails")
+    void testFailureKeepsTarget(@TempDir Path dir) throws IOException {
+        Path out = Files.writeString(dir.resolve("extract.csv"), "previous");
+
+        assertThrows(IllegalStateException.class, () -> CsvExtract.write(SAMPLE_DATA, out, r -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("previous", Files.readString(out));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of(out), files.toList());
+        }
+    }
+
+    private static List<SalesRecord> read(Path csv) {
+        try (Stream<SalesRecord> s = CsvSalesReader.mappedStreamSupplier(csv).get()) {
+            return s.collect(Collectors.toList());
+        }
+    }
+
+    /** Lines with their terminators, decoded one byte per char. */
+    private static List<String> lines(Path csv) throws IOException {
+        String text = Files.readString(csv, StandardCharsets.ISO_8859_1);
+        return List.of(text.split("(?<=\n)"));
+    }
+}
@@ -182,4 +182,74 @@ class CsvSalesReaderTest {
             assertEquals(1, count);
         }
     }
+
+    // Test malformed rows are diverted to the reject side file with reason counts
+    @Test
+    @DisplayName("Should divert malformed rows to reject sink")
+    void testRejectSink(@TempDir Path tempDir) throws IOException {
+        Path rejectFile = tempDir.resolve("rejects.csv");
+        Path csvPath = Path.of("src/test/resources/invalid_sales_data.csv");
+
+        List<SalesRecord> records;
+        try (RejectSink sink = RejectSink.toFile(rejectFile);
+             Stream<SalesRecord> stream = CsvSalesReader.streamSupplier(csvPath, sink).get()) {
+            records = stream.toList();
+            assertEquals(1, sink.total());
+            assertEquals(1, sink.count(RejectReason.INVALID_DATE));
+        }
+
+        assertEquals(1, records.size());
+        assertEquals("10012", records.get(0).orderNumber());
+        List<String> lines = Files.readAllLines(rejectFile);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).startsWith("2,INVALID_DATE,10011,invalid"));
+    }
+
+    // Test a counting-only sink reports every malformed numeric column
+    @Test
+    @DisplayName("Should count reject reasons without a side file")
+    void testCountingRejectSink(@TempDir Path tempDir) throws IOException {
+        Path csv = tempDir.resolve("dirty.csv");
+        Files.writeString(csv, """
+                ORDERNUMBER,QUANTITYORDERED,PRICEEACH,SALES,ORDERDATE,STATUS,CUSTOMERNAME
+                1,x,1.0,1.0,1/1/2023 0:00,Shipped,A
+                2,1,1..0,1.0,1/1/2023 0:00,Shipped,A
+                3,1,1.0,n/a,1/1/2023 0:00,Shipped,A
+                4,1,1.0,,1/1/2023 0:00,Shipped,A
+                """);
+        RejectSink sink = RejectSink.counting();
+
+        try (Stream<SalesRecord> stream = CsvSalesReader.streamSupplier(csv, sink).get()) {
+            assertEquals(1, stream.count());
+        }
+        assertEquals(1, sink.count(RejectReason.INVALID_QUANTITY));
+        assertEquals(1, sink.count(RejectReason.INVALID_PRICE));
+        assertEquals(1, sink.count(RejectReason.INVALID_SALES));
+        assertEquals(3, sink.counts().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    // Test missing required columns fail fast
+    @Test
+    @DisplayName("Should reject files without required columns")
+    void testMissingRequiredColumn(@TempDir Path tempDir) throws IOException {
+        Path csv = tempDir.resolve("bad_header.csv");
+        Files.writeString(csv, "ORDERNUMBER,SALES\n1,10.0\n");
+
+        assertThrows(IllegalArgumentException.class, () -> CsvSalesReader.streamSupplier(csv).get());
+    }
+
+    // Test categorical columns share canonical String instances across rows
+    @Test
+    @DisplayName("Should canonicalize low-cardinality string columns")
+    void testCanonicalStrings() {
+        Path csvPath = Path.of("src/test/resources/test_sales_data.csv");
+
+        try (Stream<SalesRecord> stream = CsvSalesReader.streamSupplier(csvPath).get()) {
+            List<SalesRecord> records = stream.toList();
+            assertSame(records.get(0).status(), records.get(1).status());
+            assertSame(records.get(0).country(), records.get(9).country());
+            assertSame(records.get(0).territory(), records.get(5).territory());
+            assertSame(records.get(0).dealSize(), records.get(4).dealSize());
+        }
+    }
 }
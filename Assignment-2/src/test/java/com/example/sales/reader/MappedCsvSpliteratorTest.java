@@ -0,0 +1,124 @@
+package com.example.sales.reader;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.service.AnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for MappedCsvSpliterator - validates byte-level parsing and record-aligned splitting. */
+@DisplayName("MappedCsvSpliterator Tests")
+class MappedCsvSpliteratorTest {
+
+    private static final Path TEST_DATA = Path.of("src/test/resources/test_sales_data.csv");
+    private static final Path SAMPLE_DATA = Path.of("data/sales_data_sample.csv");
+
+    // Test mapped reader yields the same records as the commons-csv reader
+    @Test
+    @DisplayName("Should produce the same records as the streaming reader")
+    void testSameRecords() {
+        assertEquals(readAll(CsvSalesReader.streamSupplier(TEST_DATA)),
+                readAll(CsvSalesReader.mappedStreamSupplier(TEST_DATA)));
+        assertEquals(readAll(CsvSalesReader.streamSupplier(SAMPLE_DATA)),
+                readAll(CsvSalesReader.mappedStreamSupplier(SAMPLE_DATA)));
+    }
+
+    // Test splits realign to record boundaries and together cover every row exactly once
+    @Test
+    @DisplayName("Should split at record boundaries without losing rows")
+    void testSplitCoversAllRows() {
+        List<SalesRecord> expected = readAll(CsvSalesReader.streamSupplier(SAMPLE_DATA));
+        MappedCsvSpliterator root = MappedCsvSpliterator.open(SAMPLE_DATA, 1);
+        List<Spliterator<SalesRecord>> parts = new ArrayList<>();
+        split(root, parts, 5);
+
+        assertTrue(parts.size() > 8);
+        List<SalesRecord> actual = new ArrayList<>();
+        parts.forEach(p -> p.forEachRemaining(actual::add));
+        assertEquals(expected, actual);
+    }
+
+    // Test parallel streams give the same analytics answers
+    @Test
+    @DisplayName("Should give identical analytics on a parallel stream")
+    void testParallelAnalytics() {
+        AnalyticsService sequential = new AnalyticsService(CsvSalesReader.streamSupplier(SAMPLE_DATA));
+        Supplier<Stream<SalesRecord>> mapped = CsvSalesReader.mappedStreamSupplier(SAMPLE_DATA);
+        AnalyticsService parallel = new AnalyticsService(() -> mapped.get().parallel());
+
+        assertEquals(sequential.totalRevenue(), parallel.totalRevenue(), 0.01);
+        assertEquals(sequential.totalOrders(), parallel.totalOrders());
+        assertEquals(sequential.ordersByStatus(), parallel.ordersByStatus());
+        assertEquals(sequential.orderMetrics().distinctOrders(), parallel.orderMetrics().distinctOrders());
+    }
+
+    // Test size estimate is close to the real row count
+    @Test
+    @DisplayName("Should estimate remaining rows")
+    void testEstimateSize() {
+        Spliterator<SalesRecord> s = CsvSalesReader.mappedSpliterator(SAMPLE_DATA);
+        assertEquals(2823, s.estimateSize(), 300);
+    }
+
+    // Test quoted fields, escaped quotes, CRLF, blank lines and short rows
+    @Test
+    @DisplayName("Should handle quoting, CRLF and blank lines")
+    void testQuotingAndLineEndings(@TempDir Path dir) throws IOException {
+        Path csv = dir.resolve("quoted.csv");
+        Files.writeString(csv, "ORDERNUMBER,QUANTITYORDERED,PRICEEACH,SALES,ORDERDATE,STATUS,CUSTOMERNAME,CITY\r\n"
+                + "1, 2 ,10.5,,1/2/2003 0:00,Shipped,\"Smith, \"\"Bob\"\" & Co\",\"Paris\"\r\n"
+                + "\r\n"
+                + "2,x,1.0,3.0,bad,On Hold,Plain\n");
+
+        List<SalesRecord> records = readAll(CsvSalesReader.mappedStreamSupplier(csv));
+
+        assertEquals(2, records.size());
+        assertEquals("Smith, \"Bob\" & Co", records.get(0).customerName());
+        assertEquals("Paris", records.get(0).city());
+        assertEquals(2, records.get(0).quantityOrdered());
+        assertEquals(21.0, records.get(0).sales());
+        assertEquals(0, records.get(1).quantityOrdered());
+        assertNull(records.get(1).orderDate());
+        assertEquals("", records.get(1).country());
+        assertEquals(records, readAll(CsvSalesReader.streamSupplier(csv)));
+    }
+
+    // Test empty file and missing file
+    @Test
+    @DisplayName("Should handle empty and missing files")
+    void testEmptyAndMissing(@TempDir Path dir) throws IOException {
+        Path empty = dir.resolve("empty.csv");
+        Files.writeString(empty, "");
+
+        assertTrue(readAll(CsvSalesReader.mappedStreamSupplier(empty)).isEmpty());
+        assertTrue(readAll(CsvSalesReader.mappedStreamSupplier(Path.of("src/test/resources/empty_sales_data.csv"))).isEmpty());
+        assertThrows(RuntimeException.class, () -> CsvSalesReader.mappedStreamSupplier(dir.resolve("none.csv")).get());
+    }
+
+    private static void split(Spliterator<SalesRecord> s, List<Spliterator<SalesRecord>> out, int depth) {
+        Spliterator<SalesRecord> prefix = depth > 0 ? s.trySplit() : null;
+        if (prefix == null) {
+            out.add(s);
+            return;
+        }
+        split(prefix, out, depth - 1);
+        split(s, out, depth - 1);
+    }
+
+    private static List<SalesRecord> readAll(Supplier<Stream<SalesRecord>> supplier) {
+        try (Stream<SalesRecord> s = supplier.get()) {
+            return s.toList();
+        }
+    }
+}
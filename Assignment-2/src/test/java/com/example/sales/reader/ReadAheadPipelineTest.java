@@ -0,0 +1,103 @@
+package com.example.sales.reader;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.service.AnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for ReadAheadPipeline - validates chunked read-ahead and multi-threaded parsing. */
+@DisplayName("ReadAheadPipeline Tests")
+class ReadAheadPipelineTest {
+
+    private static final Path TEST_DATA = Path.of("src/test/resources/test_sales_data.csv");
+    private static final Path SAMPLE_DATA = Path.of("data/sales_data_sample.csv");
+
+    // Test pipeline yields the same rows as the streaming reader, in any order
+    @Test
+    @DisplayName("Should produce the same records as the streaming reader")
+    void testSameRecords() {
+        assertEquals(countAll(CsvSalesReader.streamSupplier(TEST_DATA)),
+                countAll(CsvSalesReader.pipelinedStreamSupplier(TEST_DATA, 2)));
+        assertEquals(countAll(CsvSalesReader.streamSupplier(SAMPLE_DATA)),
+                countAll(CsvSalesReader.pipelinedStreamSupplier(SAMPLE_DATA, 4)));
+    }
+
+    // Test small chunks force many reads with partial records carried between buffers
+    @Test
+    @DisplayName("Should carry partial records across small chunks")
+    void testSmallChunks() {
+        Map<SalesRecord, Long> expected = countAll(CsvSalesReader.streamSupplier(SAMPLE_DATA));
+        assertEquals(expected, countAll(CsvSalesReader.pipelinedStreamSupplier(SAMPLE_DATA, 3, 1024)));
+        assertEquals(expected, countAll(CsvSalesReader.pipelinedStreamSupplier(SAMPLE_DATA, 1, 333)));
+    }
+
+    // Test analytics over the pipeline match the sequential reader
+    @Test
+    @DisplayName("Should give identical analytics")
+    void testAnalytics() {
+        AnalyticsService sequential = new AnalyticsService(CsvSalesReader.streamSupplier(SAMPLE_DATA));
+        AnalyticsService pipelined = new AnalyticsService(CsvSalesReader.pipelinedStreamSupplier(SAMPLE_DATA, 4, 8192));
+
+        assertEquals(sequential.totalRevenue(), pipelined.totalRevenue(), 0.01);
+        assertEquals(sequential.totalOrders(), pipelined.totalOrders());
+        assertEquals(sequential.ordersByStatus(), pipelined.ordersByStatus());
+        assertEquals(sequential.ordersByDealSize(), pipelined.ordersByDealSize());
+    }
+
+    // Test closing a partially consumed stream releases the pipeline
+    @Test
+    @DisplayName("Should stop cleanly when closed early")
+    void testEarlyClose() {
+        for (int i = 0; i < 20; i++) {
+            try (Stream<SalesRecord> s = CsvSalesReader.pipelinedStreamSupplier(SAMPLE_DATA, 2, 512).get()) {
+                assertEquals(5, s.limit(5).count());
+            }
+        }
+    }
+
+    // Test a row longer than one chunk is reported instead of being split
+    @Test
+    @DisplayName("Should fail on a record larger than the chunk size")
+    void testRecordLargerThanChunk(@TempDir Path dir) throws IOException {
+        Path csv = dir.resolve("wide.csv");
+        Files.writeString(csv, "ORDERNUMBER,ORDERDATE,CUSTOMERNAME,STATUS\n"
+                + "1,1/2/2003 0:00," + "x".repeat(200) + ",Shipped\n"
+                + "2,1/2/2003 0:00," + "y".repeat(5000) + ",Shipped\n");
+
+        Supplier<Stream<SalesRecord>> supplier = CsvSalesReader.pipelinedStreamSupplier(csv, 2, 1024);
+        assertThrows(IllegalStateException.class, () -> countAll(supplier));
+    }
+
+    // Test empty, missing and header-only files and invalid thread counts
+    @Test
+    @DisplayName("Should handle empty, missing and invalid inputs")
+    void testEdgeCases(@TempDir Path dir) throws IOException {
+        Path empty = dir.resolve("empty.csv");
+        Files.writeString(empty, "");
+        Path headerOnly = dir.resolve("header.csv");
+        Files.writeString(headerOnly, "ORDERNUMBER,ORDERDATE,CUSTOMERNAME,STATUS");
+
+        assertTrue(countAll(CsvSalesReader.pipelinedStreamSupplier(empty, 2)).isEmpty());
+        assertTrue(countAll(CsvSalesReader.pipelinedStreamSupplier(headerOnly, 2)).isEmpty());
+        assertThrows(RuntimeException.class, () -> CsvSalesReader.pipelinedStreamSupplier(dir.resolve("none.csv"), 2).get());
+        assertThrows(IllegalArgumentException.class, () -> CsvSalesReader.pipelinedStreamSupplier(TEST_DATA, 0).get());
+    }
+
+    private static Map<SalesRecord, Long> countAll(Supplier<Stream<SalesRecord>> supplier) {
+        try (Stream<SalesRecord> s = supplier.get()) {
+            return s.collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.sales.reader;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.util.DateUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for RowCursor - validates the flyweight row view against materialized records. */
+@DisplayName("RowCursor Tests")
+class RowCursorTest {
+
+    private static final Path SAMPLE_DATA = Path.of("data/sales_data_sample.csv");
+    private static final String HEADER = "ORDERNUMBER,QUANTITYORDERED,PRICEEACH,SALES,ORDERDATE,STATUS,TERRITORY,CUSTOMERNAME\n";
+
+    // Test every accessor agrees with the record the mapped reader builds
+    @Test
+    @DisplayName("Should expose the same values as the materialized records")
+    void testMatchesRecords() {
+        List<SalesRecord> expected;
+        try (Stream<SalesRecord> s = CsvSalesReader.mappedStreamSupplier(SAMPLE_DATA).get()) {
+            expected = s.collect(Collectors.toList());
+        }
+        List<SalesRecord> viewed = new ArrayList<>();
+        CsvSalesReader.rowSource(SAMPLE_DATA).forEachRow(r -> {
+            SalesRecord copy = r.toSalesRecord();
+            assertEquals(copy.revenue(), r.revenue());
+            assertEquals(copy.quantityOrdered(), r.quantityOrdered());
+            assertEquals(copy.territory(), r.territory());
+            assertEquals(copy.orderDate().getYear(), r.orderYear());
+            assertEquals(copy.orderDate().getMonthValue(), r.orderMonth());
+            viewed.add(copy);
+        });
+        assertEquals(expected, viewed);
+    }
+
+    // Test the byte-level date path agrees with DateUtils, including its fallbacks
+    @Test
+    @DisplayName("Should parse dates exactly like DateUtils")
+    void testDates() {
+        String[] dates = {"2/24/2003 0:00", "12/1/2004", "2024-03-15", "2/29/2024", "2/29/2023",
+                "4/31/2024", "13/1/2024", "2024-3-15", "1/2/2003 25:00", "garbage", ""};
+        for (String date : dates) {
+            RowCursor cursor = cursor(HEADER + "1,1,1,1," + date + ",Shipped,NA,Acme\n");
+            assertTrue(cursor.next());
+            LocalDate expected = DateUtils.parseToLocalDate(date);
+            assertEquals(expected, cursor.orderDate(), date);
+            assertEquals(expected == null ? 0 : expected.getYear(), cursor.orderYear(), date);
+        }
+    }
+
+    // Test one instance moves across rows and applies the lenient numeric defaults
+    @Test
+    @DisplayName("Should reuse one view and default malformed numbers")
+    void testReuseAndDefaults() {
+        RowCursor cursor = cursor(HEADER + "1,2,10,,1/1/2024,Shipped,NA,Acme\n\n2,x,5,7,1/2/2024,On Hold,,Acme\n");
+
+        assertTrue(cursor.next());
+        assertEquals(20.0, cursor.sales());
+        assertEquals(20.0, cursor.revenue());
+        assertTrue(cursor.next());
+        assertEquals("2", cursor.orderNumber());
+        assertEquals(0, cursor.quantityOrdered());
+        assertEquals(7.0, cursor.revenue());
+        assertEquals("On Hold", cursor.status());
+        assertEquals(2, cursor.orderDate().getDayOfMonth());
+        assertFalse(cursor.next());
+    }
+
+    private static RowCursor cursor(String csv) {
+        ByteBuffer buf = ByteBuffer.wrap(csv.getBytes(StandardCharsets.US_ASCII));
+        return RowCursor.over(buf, 0, buf.capacity());
+    }
+}
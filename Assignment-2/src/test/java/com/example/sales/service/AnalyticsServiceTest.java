@@ -1,5 +1,11 @@
 package com.example.sales.service;
 
+import com.example.sales.dataset.SalesDataset;
+import com.example.sales.index.CategoryFilter;
+import com.example.sales.index.Dimension;
+import com.example.sales.index.RevenueIndex;
+import com.example.sales.join.DimensionTable;
+import com.example.sales.join.JoinKey;
 import com.example.sales.model.SalesRecord;
 import com.example.sales.reader.CsvSalesReader;
 import org.junit.jupiter.api.BeforeEach;
@@ -349,4 +355,162 @@ class AnalyticsServiceTest {
             assertTrue(revenues.get(i) >= revenues.get(i + 1));
         }
     }
+
+    // Test filtered revenue via scan and via bitmap index agree
+    @Test
+    @DisplayName("Should compute filtered revenue with and without indexes")
+    void testRevenueWhere() {
+        CategoryFilter filter = CategoryFilter.where(Dimension.STATUS, "Shipped")
+                .and(Dimension.DEAL_SIZE, "Large");
+        AnalyticsService indexed = new AnalyticsService(SalesDataset.load(testDataSupplier));
+
+        assertEquals(4200.0, service.revenueWhere(filter), 0.01);
+        assertEquals(4200.0, indexed.revenueWhere(filter), 0.01);
+        assertEquals(2, service.countWhere(filter));
+        assertEquals(2, indexed.countWhere(filter));
+    }
+
+    // Test dataset-backed service gives the same answers as the streaming one
+    @Test
+    @DisplayName("Should match streaming results when backed by a dataset")
+    void testDatasetBackedService() {
+        AnalyticsService indexed = new AnalyticsService(SalesDataset.load(testDataSupplier));
+
+        assertEquals(service.totalRevenue(), indexed.totalRevenue(), 0.01);
+        assertEquals(service.ordersByStatus(), indexed.ordersByStatus());
+    }
+
+    // Test date-range revenue via scan and via zone maps agree
+    @Test
+    @DisplayName("Should compute revenue for a date range")
+    void testRevenueBetween() {
+        AnalyticsService indexed = new AnalyticsService(SalesDataset.load(testDataSupplier, true, 4));
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+
+        assertEquals(7390.0, service.revenueBetween(from, to), 0.01);
+        assertEquals(7390.0, indexed.revenueBetween(from, to), 0.01);
+        assertEquals(0.0, indexed.revenueBetween(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 2, 1)));
+    }
+
+    // Test grouping revenue by a joined customer attribute
+    @Test
+    @DisplayName("Should group revenue by joined dimension attribute")
+    void testRevenueByJoinedAttribute() {
+        DimensionTable customers = DimensionTable.load(
+                Path.of("src/test/resources/customer_dimension.csv"), JoinKey.CUSTOMER_NAME);
+
+        Map<String, Double> bySegment = service.revenueBy(customers, "SEGMENT");
+
+        assertEquals(7325.0, bySegment.get("Enterprise"), 0.01);
+        assertEquals(1750.0, bySegment.get("SMB"), 0.01);
+        assertEquals(2200.0, bySegment.get("Retail"), 0.01);
+        assertEquals(990.0, bySegment.get("UNKNOWN"), 0.01);
+    }
+
+    // Test margin by segment joins product cost and customer segment in one scan
+    @Test
+    @DisplayName("Should compute margin by segment from two dimensions")
+    void testMarginBy() {
+        DimensionTable products = DimensionTable.load(
+                Path.of("src/test/resources/product_dimension.csv"), JoinKey.PRODUCT_CODE);
+        DimensionTable customers = DimensionTable.load(
+                Path.of("src/test/resources/customer_dimension.csv"), JoinKey.CUSTOMER_NAME);
+
+        Map<String, Double> margin = service.marginBy(products, "UNITCOST", customers, "SEGMENT");
+
+        assertEquals(2575.0, margin.get("Enterprise"), 0.01);
+        assertEquals(550.0, margin.get("SMB"), 0.01);
+        assertEquals(240.0, margin.get("Retail"), 0.01);
+        assertEquals(270.0, margin.get("UNKNOWN"), 0.01);
+        assertThrows(IllegalArgumentException.class, () -> service.revenueBy(customers, "NOPE"));
+    }
+
+    // Test order-level metrics count baskets, not lines
+    @Test
+    @DisplayName("Should compute order-level metrics over repeated order numbers")
+    void testOrderMetrics() {
+        Supplier<Stream<SalesRecord>> lines = () -> Stream.of(
+                new SalesRecord("100", LocalDate.now(), "A", "Shipped", 1, 10.0, 100.0, "P", "P1", "USA", "NYC", "NA", "Small"),
+                new SalesRecord("100", LocalDate.now(), "A", "Shipped", 1, 10.0, 200.0, "P", "P2", "USA", "NYC", "NA", "Small"),
+                new SalesRecord("101", LocalDate.now(), "B", "Shipped", 1, 10.0, 300.0, "P", "P1", "USA", "NYC", "NA", "Small"),
+                new SalesRecord("X-1", LocalDate.now(), "C", "Shipped", 1, 10.0, 400.0, "P", "P3", "USA", "NYC", "NA", "Small")
+        );
+
+        OrderMetrics metrics = new AnalyticsService(lines).orderMetrics();
+
+        assertEquals(3, metrics.distinctOrders());
+        assertEquals(1000.0 / 3, metrics.averageBasketValue(), 0.001);
+        assertEquals(4.0 / 3, metrics.averageLinesPerOrder(), 0.001);
+        assertEquals(new OrderMetrics(10, 1226.5, 1.0), service.orderMetrics());
+    }
+
+    // Test order metrics on an empty dataset
+    @Test
+    @DisplayName("Should return zero order metrics for empty data")
+    void testOrderMetricsEmpty() {
+        assertEquals(new OrderMetrics(0, 0.0, 0.0), new AnalyticsService(Stream::empty).orderMetrics());
+    }
+
+    // Test percentile summaries per territory and month
+    @Test
+    @DisplayName("Should compute order value percentiles per group")
+    void testOrderValuePercentiles() {
+        Map<String, Map<String, Double>> byTerritory = service.orderValuePercentilesByTerritory();
+        Map<String, Map<String, Double>> byMonth = service.orderValuePercentilesByMonth();
+
+        assertEquals(Set.of("NA"), byTerritory.keySet());
+        assertEquals(1000.0, byTerritory.get("NA").get("p50"));
+        assertEquals(1200.0, byTerritory.get("NA").get("p90"));
+        assertEquals(3000.0, byTerritory.get("NA").get("p99"));
+        assertEquals(10, byMonth.size());
+        assertEquals(3000.0, byMonth.get("2024-09").get("p50"));
+    }
+
+    // Test revenue index answers what-if threshold queries like a rescan
+    @Test
+    @DisplayName("Should expose a revenue index for threshold sweeps")
+    void testRevenueIndex() {
+        RevenueIndex index = service.revenueIndex();
+        AnalyticsService indexed = new AnalyticsService(SalesDataset.load(testDataSupplier));
+
+        assertEquals(10, index.size());
+        assertEquals(1, index.countAbove(1500.0));
+        assertEquals(3000.0, index.sumAbove(1500.0));
+        assertSame(indexed.revenueIndex(), indexed.revenueIndex());
+        for (double t : new double[]{0.0, 999.0, 1000.0, 1500.0, 10000.0, Double.NaN}) {
+            assertEquals(service.partitionHighValue(t), indexed.partitionHighValue(t));
+        }
+    }
+
+    // Test the row-view scans give the stream answers and allocate nothing per row
+    @Test
+    @DisplayName("Should aggregate over a reused row view without per-row allocation")
+    void testRowSource() {
+        Path sample = Path.of("data/sales_data_sample.csv");
+        AnalyticsService streamed = new AnalyticsService(CsvSalesReader.streamSupplier(sample));
+        AnalyticsService viewed = new AnalyticsService(CsvSalesReader.rowSource(sample));
+
+        assertEquals(streamed.totalRevenue(), viewed.totalRevenue(), 0.01);
+        assertEquals(streamed.totalOrders(), viewed.totalOrders());
+        assertEquals(streamed.totalQuantity(), viewed.totalQuantity());
+        assertEquals(streamed.averageOrderValue(), viewed.averageOrderValue(), 0.01);
+        assertEquals(streamed.ordersByStatus(), viewed.ordersByStatus());
+        assertEquals(streamed.ordersByDealSize(), viewed.ordersByDealSize());
+        assertEquals(streamed.partitionHighValue(3000.0), viewed.partitionHighValue(3000.0));
+        assertEquals(streamed.monthlyRevenue().keySet(), viewed.monthlyRevenue().keySet());
+        streamed.revenueByYear().forEach((k, v) -> assertEquals(v, viewed.revenueByYear().get(k), 0.01));
+        streamed.revenueByRegion().forEach((k, v) -> assertEquals(v, viewed.revenueByRegion().get(k), 0.01));
+        assertEquals(streamed.topProducts(3), viewed.topProducts(3));
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 20; i++) {
+            viewed.revenueByRegion();
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        viewed.revenueByRegion();
+        long perRow = (threads.getCurrentThreadAllocatedBytes() - before) / streamed.totalOrders();
+        assertTrue(perRow < 8, "allocated " + perRow + " bytes per row");
+    }
 }
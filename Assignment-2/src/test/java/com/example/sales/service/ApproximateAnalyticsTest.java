@@ -0,0 +1,87 @@
+package com.example.sales.service;
+
+import com.example.sales.index.CategoryFilter;
+import com.example.sales.index.Dimension;
+import com.example.sales.reader.CsvSalesReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for ApproximateAnalytics - validates scaled estimates and confidence intervals. */
+@DisplayName("ApproximateAnalytics Tests")
+class ApproximateAnalyticsTest {
+
+    private static final Path SAMPLE_DATA = Path.of("data/sales_data_sample.csv");
+    private static final AnalyticsService EXACT = new AnalyticsService(CsvSalesReader.streamSupplier(SAMPLE_DATA));
+
+    // Test reading every block gives the exact answer with a zero-width interval
+    @Test
+    @DisplayName("Should be exact at rate 1")
+    void testExact() {
+        ApproximateAnalytics approx = new ApproximateAnalytics(SAMPLE_DATA, 4096, 1L);
+        Estimate revenue = approx.totalRevenue(SampleSpec.exact());
+
+        assertEquals(EXACT.totalRevenue(), revenue.value(), 0.01);
+        assertEquals(0.0, revenue.halfWidth());
+        assertEquals(2823.0, approx.totalOrders(SampleSpec.exact()).value(), 1e-9);
+        assertEquals(EXACT.averageOrderValue(), approx.averageOrderValue(SampleSpec.exact()).value(), 0.01);
+    }
+
+    // Test sampled estimates are scaled up and their intervals cover the truth
+    @Test
+    @DisplayName("Should scale sampled sums and cover the true value")
+    void testSampledCoverage() {
+        int covered = 0;
+        for (long seed = 0; seed < 20; seed++) {
+            ApproximateAnalytics approx = new ApproximateAnalytics(SAMPLE_DATA, 4096, seed);
+            Estimate revenue = approx.totalRevenue(SampleSpec.ofRate(0.3));
+            assertTrue(revenue.halfWidth() > 0);
+            assertEquals(EXACT.totalRevenue(), revenue.value(), EXACT.totalRevenue() * 0.2);
+            if (revenue.contains(EXACT.totalRevenue())) {
+                covered++;
+            }
+        }
+        assertTrue(covered >= 16, "covered " + covered + " of 20");
+    }
+
+    // Test a target error picks a rate whose interval is about that tight
+    @Test
+    @DisplayName("Should choose the rate from a target error")
+    void testTargetError() {
+        ApproximateAnalytics approx = new ApproximateAnalytics(SAMPLE_DATA, 4096, 3L);
+        Estimate loose = approx.totalRevenue(SampleSpec.ofTargetError(0.10));
+        Estimate tight = approx.totalRevenue(SampleSpec.ofTargetError(0.02));
+
+        assertTrue(loose.sampleRate() < tight.sampleRate());
+        assertTrue(tight.relativeError() < 0.04, tight.toString());
+        assertEquals(EXACT.totalRevenue(), tight.value(), EXACT.totalRevenue() * 0.05);
+    }
+
+    // Test grouped and filtered estimates
+    @Test
+    @DisplayName("Should estimate groups and filtered revenue")
+    void testGroupsAndFilters() {
+        ApproximateAnalytics approx = new ApproximateAnalytics(SAMPLE_DATA, 4096, 5L);
+        Map<String, Estimate> byStatus = approx.ordersByStatus(SampleSpec.exact());
+        Map<String, Estimate> byRegion = approx.revenueByRegion(SampleSpec.ofRate(0.5));
+        CategoryFilter emea = CategoryFilter.where(Dimension.TERRITORY, "EMEA");
+
+        EXACT.ordersByStatus().forEach((k, v) -> assertEquals(v, byStatus.get(k).value(), 1e-9));
+        assertTrue(byRegion.containsKey("EMEA"));
+        assertEquals(EXACT.revenueWhere(emea), approx.revenueWhere(emea, SampleSpec.exact()).value(), 0.01);
+        assertTrue(byRegion.get("EMEA").toString().contains("95% CI"));
+    }
+
+    // Test invalid sample specifications
+    @Test
+    @DisplayName("Should reject invalid sample specifications")
+    void testInvalidSpec() {
+        assertThrows(IllegalArgumentException.class, () -> SampleSpec.ofRate(0.0));
+        assertThrows(IllegalArgumentException.class, () -> SampleSpec.ofTargetError(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> new SampleSpec(0.5, 0.1));
+    }
+}
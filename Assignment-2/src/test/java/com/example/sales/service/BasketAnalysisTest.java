@@ -0,0 +1,130 @@
+package com.example.sales.service;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.reader.CsvSalesReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for BasketAnalysis - validates pair counts, support, lift and parallel merging. */
+@DisplayName("BasketAnalysis Tests")
+class BasketAnalysisTest {
+
+    private static final Path SAMPLE_DATA = Path.of("data/sales_data_sample.csv");
+
+    // Test support and lift on a hand-built set of orders
+    @Test
+    @DisplayName("Should compute support and lift per product pair")
+    void testSupportAndLift() {
+        BasketAnalysis basket = Stream.of(
+                line("1", "P1"), line("1", "P2"), line("1", "P2"),
+                line("2", "P1"), line("2", "P2"), line("2", "P3"),
+                line("3", "P3"),
+                line("4", "P1"))
+                .collect(BasketAnalysis.collector());
+
+        List<Association> top = basket.associations(10, 1);
+
+        assertEquals(3, basket.productCount());
+        assertEquals(3, top.size());
+        Association first = top.get(0);
+        assertEquals("P2", first.productB());
+        assertEquals("P1", first.productA());
+        assertEquals(2, first.orders());
+        assertEquals(0.5, first.support(), 1e-9);
+        assertEquals(0.5 / (0.75 * 0.5), first.lift(), 1e-9);
+        assertEquals(List.of(first), basket.associations(10, 2));
+        assertEquals(1, basket.associations(1, 1).size());
+    }
+
+    // Test orders with a single product yield no pairs
+    @Test
+    @DisplayName("Should return nothing when no order has two products")
+    void testNoPairs() {
+        BasketAnalysis basket = Stream.of(line("1", "P1"), line("2", "P2"))
+                .collect(BasketAnalysis.collector());
+
+        assertTrue(basket.associations(10, 1).isEmpty());
+        assertTrue(new BasketAnalysis().associations(10, 1).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> basket.associations(10, 0));
+    }
+
+    // Test non-numeric order numbers with equal hash codes stay separate baskets, also across partitions
+    @Test
+    @DisplayName("Should keep colliding non-numeric order numbers in separate baskets")
+    void testNonNumericOrders() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        BasketAnalysis left = Stream.of(line("Aa", "P1"), line("BB", "P2")).collect(BasketAnalysis.collector());
+        BasketAnalysis right = Stream.of(line("BB", "P1"), line("Aa", "P3")).collect(BasketAnalysis.collector());
+        List<Association> top = left.merge(right).associations(10, 1);
+
+        assertEquals(2, top.size());
+        assertTrue(top.stream().allMatch(a -> a.orders() == 1 && a.support() == 0.5));
+        assertEquals(Set.of("P1-P2", "P1-P3"),
+                top.stream().map(a -> a.productA() + "-" + a.productB()).collect(Collectors.toSet()));
+    }
+
+    // Test the fork-join counts match a boxed reference count over the sample data
+    @Test
+    @DisplayName("Should match a boxed reference count on the sample data")
+    void testAgainstReference() {
+        List<SalesRecord> rows;
+        try (Stream<SalesRecord> s = CsvSalesReader.streamSupplier(SAMPLE_DATA).get()) {
+            rows = s.toList();
+        }
+        Map<String, Set<String>> baskets = rows.stream().collect(Collectors.groupingBy(
+                SalesRecord::orderNumber, Collectors.mapping(SalesRecord::productCode, Collectors.toCollection(TreeSet::new))));
+        Map<String, Integer> reference = new HashMap<>();
+        for (Set<String> items : baskets.values()) {
+            for (String a : items) {
+                for (String b : items) {
+                    if (a.compareTo(b) < 0) {
+                        reference.merge(a + "|" + b, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+
+        BasketAnalysis parallel = rows.parallelStream().collect(BasketAnalysis.collector());
+        List<Association> all = parallel.associations(Integer.MAX_VALUE - 1, 1, new ForkJoinPool(4));
+
+        assertEquals(reference.size(), all.size());
+        for (Association a : all) {
+            String key = a.productA().compareTo(a.productB()) < 0
+                    ? a.productA() + "|" + a.productB() : a.productB() + "|" + a.productA();
+            assertEquals(reference.get(key), a.orders(), key);
+            assertEquals((double) a.orders() / baskets.size(), a.support(), 1e-12);
+        }
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).lift() >= all.get(i).lift());
+        }
+    }
+
+    // Test the service entry point
+    @Test
+    @DisplayName("Should expose associations through the analytics service")
+    void testService() {
+        List<Association> top = new AnalyticsService(CsvSalesReader.streamSupplier(SAMPLE_DATA))
+                .basketAssociations(5, 10);
+
+        assertEquals(5, top.size());
+        assertTrue(top.stream().allMatch(a -> a.orders() >= 10 && a.lift() > 0));
+    }
+
+    private static SalesRecord line(String order, String product) {
+        return new SalesRecord(order, LocalDate.of(2024, 1, 1), "C", "Shipped", 1, 10.0, 10.0,
+                "Classic Cars", product, "USA", "NYC", "NA", "Small");
+    }
+}
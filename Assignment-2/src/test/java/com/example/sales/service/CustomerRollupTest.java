@@ -0,0 +1,148 @@
+package com.example.sales.service;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.reader.CsvSalesReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for CustomerRollup - validates RFM scoring, cohort retention and merging. */
+@DisplayName("CustomerRollup Tests")
+class CustomerRollupTest {
+
+    private static final Path TEST_DATA = Path.of("src/test/resources/test_sales_data.csv");
+    private static final Path SAMPLE_DATA = Path.of("data/sales_data_sample.csv");
+
+    // Test recency, frequency and monetary values and their quintile scores
+    @Test
+    @DisplayName("Should score customers by recency, frequency and monetary quintiles")
+    void testRfm() {
+        AnalyticsService svc = new AnalyticsService(CsvSalesReader.streamSupplier(TEST_DATA));
+        List<RfmScore> scores = svc.rfmScores();
+
+        assertEquals(7, scores.size());
+        RfmScore a = scores.get(0);
+        assertEquals("Test Customer A", a.customer());
+        assertEquals(3, a.frequency());
+        assertEquals(5125.0, a.monetary(), 0.01);
+        assertEquals(36, a.recencyDays());
+        assertEquals("455", a.code());
+
+        RfmScore g = scores.stream().filter(s -> s.customer().equals("Test Customer G")).findFirst().orElseThrow();
+        assertEquals(1, g.recencyDays());
+        assertEquals("511", g.code());
+
+        RfmScore later = svc.customerRollup().rfm(LocalDate.of(2025, 1, 1)).get(0);
+        assertEquals(108, later.recencyDays());
+    }
+
+    // Test cohorts by first purchase month and their retention by month offset
+    @Test
+    @DisplayName("Should build first-purchase cohorts with monthly retention")
+    void testCohorts() {
+        List<Cohort> cohorts = new AnalyticsService(CsvSalesReader.streamSupplier(TEST_DATA)).cohortRetention();
+
+        assertEquals(7, cohorts.size());
+        Cohort first = cohorts.get(0);
+        assertEquals("2023-01", first.month());
+        assertEquals(1, first.customers());
+        assertEquals(22, first.active().size());
+        assertEquals(1.0, first.retention(3));
+        assertEquals(1.0, first.retention(20));
+        assertEquals(0.0, first.retention(1));
+        assertEquals(0.0, first.retention(99));
+        assertEquals("2023-02", cohorts.get(1).month());
+        assertEquals(1.0, cohorts.get(1).retention(16));
+        assertEquals("2024-10", cohorts.get(6).month());
+    }
+
+    // Test parallel partitions merge into the sequential answers
+    @Test
+    @DisplayName("Should merge parallel partitions exactly")
+    void testParallelMerge() {
+        List<SalesRecord> rows;
+        try (Stream<SalesRecord> s = CsvSalesReader.streamSupplier(SAMPLE_DATA).get()) {
+            rows = s.toList();
+        }
+        CustomerRollup sequential = rows.stream().collect(CustomerRollup.collector());
+        CustomerRollup parallel = rows.parallelStream().collect(CustomerRollup.collector());
+
+        assertEquals(sequential.customerCount(), parallel.customerCount());
+        assertEquals(sequential.cohorts(), parallel.cohorts());
+        List<RfmScore> a = sequential.rfm();
+        List<RfmScore> b = parallel.rfm();
+        assertEquals(a.size(), b.size());
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(a.get(i).code(), b.get(i).code());
+            assertEquals(a.get(i).frequency(), b.get(i).frequency());
+            assertEquals(a.get(i).monetary(), b.get(i).monetary(), 0.01);
+        }
+        long orders = rows.stream().map(SalesRecord::orderNumber).distinct().count();
+        assertEquals(orders, a.stream().mapToLong(RfmScore::frequency).sum());
+    }
+
+    // Test the row-view scan matches the record stream and RFM and cohorts share one scan
+    @Test
+    @DisplayName("Should roll up over the row view and share one rollup")
+    void testRowViewAndSharedRollup() {
+        Supplier<Stream<SalesRecord>> source = CsvSalesReader.streamSupplier(SAMPLE_DATA);
+        CustomerRollup expected = new AnalyticsService(source).customerRollup();
+        AnalyticsService rowView = new AnalyticsService(CsvSalesReader.rowSource(SAMPLE_DATA));
+        assertEquals(expected.cohorts(), rowView.cohortRetention());
+        assertEquals(expected.rfm(), rowView.rfmScores());
+
+        int[] scans = new int[1];
+        AnalyticsService counted = new AnalyticsService(() -> {
+            scans[0]++;
+            return source.get();
+        });
+        assertEquals(expected.rfm(), counted.rfmScores());
+        assertEquals(expected.cohorts(), counted.cohortRetention());
+        assertEquals(1, scans[0]);
+    }
+
+    // Test the arithmetic epoch day matches LocalDate
+    @Test
+    @DisplayName("Should compute epoch days like LocalDate")
+    void testEpochDay() {
+        for (LocalDate d = LocalDate.of(1899, 12, 25); d.isBefore(LocalDate.of(2101, 1, 5)); d = d.plusDays(17)) {
+            assertEquals(d.toEpochDay(), CustomerRollup.epochDay(d.getYear(), d.getMonthValue(), d.getDayOfMonth()));
+        }
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), CustomerRollup.epochDay(2024, 2, 29));
+        assertEquals(LocalDate.of(2000, 3, 1).toEpochDay(), CustomerRollup.epochDay(2000, 3, 1));
+    }
+
+    // Test non-numeric order numbers with equal hash codes count as separate orders
+    @Test
+    @DisplayName("Should count colliding non-numeric order numbers separately")
+    void testNonNumericOrders() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        LocalDate day = LocalDate.of(2024, 3, 1);
+        CustomerRollup rollup = Stream.of(
+                new SalesRecord("Aa", day, "Cust", "Shipped", 1, 10.0, 10.0, "Cars", "P1", "USA", "NYC", "NA", "Small"),
+                new SalesRecord("BB", day, "Cust", "Shipped", 1, 10.0, 10.0, "Cars", "P1", "USA", "NYC", "NA", "Small"),
+                new SalesRecord("BB", day, "Cust", "Shipped", 1, 10.0, 10.0, "Cars", "P2", "USA", "NYC", "NA", "Small"),
+                new SalesRecord("10100", day, "Cust", "Shipped", 1, 10.0, 10.0, "Cars", "P1", "USA", "NYC", "NA", "Small"))
+                .parallel()
+                .collect(CustomerRollup.collector());
+
+        assertEquals(3, rollup.rfm().get(0).frequency());
+    }
+
+    // Test an empty input yields no scores and no cohorts
+    @Test
+    @DisplayName("Should return empty results for no rows")
+    void testEmpty() {
+        CustomerRollup empty = new CustomerRollup();
+
+        assertTrue(empty.rfm().isEmpty());
+        assertTrue(empty.cohorts().isEmpty());
+    }
+}
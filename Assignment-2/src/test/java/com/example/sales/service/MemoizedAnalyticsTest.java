@@ -0,0 +1,104 @@
+package com.example.sales.service;
+
+import com.example.sales.dataset.SalesDataset;
+import com.example.sales.reader.CsvSalesReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for MemoizedAnalytics - validates lazy computation, shared partials and caching. */
+@DisplayName("MemoizedAnalytics Tests")
+class MemoizedAnalyticsTest {
+
+    private static final Path TEST_DATA = Path.of("src/test/resources/test_sales_data.csv");
+    private static final Path SAMPLE_DATA = Path.of("data/sales_data_sample.csv");
+
+    // Test nothing is computed until the first metric, then all metrics share one scan
+    @Test
+    @DisplayName("Should scan lazily and only once for all metrics")
+    void testLazySingleScan() {
+        MemoizedAnalytics memo = new MemoizedAnalytics(SalesDataset.load(CsvSalesReader.streamSupplier(TEST_DATA)), 500.0);
+        assertEquals(0, memo.scans());
+
+        assertEquals(12265.0, memo.totalRevenue(), 0.01);
+        assertEquals(1, memo.scans());
+
+        assertEquals(10, memo.totalOrders());
+        assertEquals(4875.0, memo.revenueByYear().get(2023), 0.01);
+        assertEquals(1000.0, memo.monthlyRevenue().get("2023-01"), 0.01);
+        assertEquals(3, memo.topProducts(3).size());
+        assertEquals(10L, memo.dataQualityChecks().get("rows"));
+        assertEquals(1, memo.scans());
+    }
+
+    // Test memoized results match a plain AnalyticsService over the same snapshot
+    @Test
+    @DisplayName("Should match AnalyticsService results")
+    void testMatchesAnalyticsService() {
+        SalesDataset dataset = SalesDataset.load(CsvSalesReader.streamSupplier(SAMPLE_DATA));
+        MemoizedAnalytics memo = new MemoizedAnalytics(dataset, 500.0);
+        AnalyticsService svc = new AnalyticsService(dataset);
+
+        assertEquals(svc.totalRevenue(), memo.totalRevenue(), 0.01);
+        assertEquals(svc.totalOrders(), memo.totalOrders());
+        assertEquals(svc.totalQuantity(), memo.totalQuantity());
+        assertEquals(svc.averageOrderValue(), memo.averageOrderValue(), 0.01);
+        assertEquals(svc.orderMetrics().distinctOrders(), memo.orderMetrics().distinctOrders());
+        assertEquals(svc.ordersByStatus(), memo.ordersByStatus());
+        assertEquals(svc.ordersByDealSize(), memo.ordersByDealSize());
+        assertEquals(svc.topProducts(5).keySet(), memo.topProducts(5).keySet());
+        assertEquals(svc.topCustomers(5).keySet(), memo.topCustomers(5).keySet());
+        assertEquals(svc.partitionHighValue(500.0), memo.partitionHighValue(500.0));
+        assertEquals(svc.partitionHighValue(5000.0), memo.partitionHighValue(5000.0));
+        svc.revenueByYear().forEach((year, v) -> assertEquals(v, memo.revenueByYear().get(year), 0.01));
+        svc.monthlyRevenue().forEach((month, v) -> assertEquals(v, memo.monthlyRevenue().get(month), 0.01));
+        svc.revenueByRegion().forEach((region, v) -> assertEquals(v, memo.revenueByRegion().get(region), 0.01));
+        assertEquals(1, memo.scans());
+    }
+
+    // Test cached maps are shared and read-only while rankings are copies
+    @Test
+    @DisplayName("Should share read-only maps and copy rankings")
+    void testCachedResults() {
+        MemoizedAnalytics memo = new MemoizedAnalytics(SalesDataset.load(CsvSalesReader.streamSupplier(TEST_DATA)), 500.0);
+
+        assertSame(memo.revenueByYear(), memo.revenueByYear());
+        assertSame(memo.partitionHighValue(1000.0), memo.partitionHighValue(1000.0));
+        assertThrows(UnsupportedOperationException.class, () -> memo.monthlyRevenue().clear());
+        assertThrows(UnsupportedOperationException.class,
+                () -> memo.orderValuePercentilesByTerritory().get("NA").clear());
+
+        memo.topProducts(2).clear();
+        assertEquals(2, memo.topProducts(2).size());
+        assertNotSame(memo.topProducts(2), memo.topProducts(2));
+    }
+
+    // Test concurrent first use still scans once
+    @Test
+    @DisplayName("Should scan once under concurrent first use")
+    void testConcurrentFirstUse() throws Exception {
+        MemoizedAnalytics memo = new MemoizedAnalytics(SalesDataset.load(CsvSalesReader.streamSupplier(SAMPLE_DATA)), 500.0);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Double>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(pool.submit(memo::totalRevenue));
+            }
+            double first = results.get(0).get();
+            for (Future<Double> f : results) {
+                assertEquals(first, f.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, memo.scans());
+    }
+}
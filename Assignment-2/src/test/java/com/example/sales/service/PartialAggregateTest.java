@@ -0,0 +1,141 @@
+package com.example.sales.service;
+
+import com.example.sales.reader.CsvSalesReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for PartialAggregate - validates single-pass metrics, merging and the binary format. */
+@DisplayName("PartialAggregate Tests")
+class PartialAggregateTest {
+
+    private static final Path TEST_DATA = Path.of("src/test/resources/test_sales_data.csv");
+    private static final Path SAMPLE_DATA = Path.of("data/sales_data_sample.csv");
+
+    // Test a partial over one file reports the same metrics as the service
+    @Test
+    @DisplayName("Should match AnalyticsService on a single file")
+    void testMatchesService() {
+        AnalyticsService svc = new AnalyticsService(CsvSalesReader.streamSupplier(TEST_DATA));
+        PartialAggregate p = svc.partialAggregate(500.0);
+
+        assertEquals(12265.0, p.totalRevenue(), 0.01);
+        assertEquals(10, p.totalOrders());
+        assertEquals(svc.totalQuantity(), p.totalQuantity());
+        assertEquals(svc.averageOrderValue(), p.averageOrderValue(), 0.01);
+        assertEquals(svc.orderMetrics(), p.orderMetrics());
+        assertEquals(4875.0, p.revenueByYear().get(2023), 0.01);
+        assertEquals(svc.ordersByStatus(), p.ordersByStatus());
+        assertEquals(svc.ordersByDealSize(), p.ordersByDealSize());
+        assertEquals(svc.partitionHighValue(500.0), p.partitionHighValue(500.0));
+        assertEquals(svc.topCustomers(3).keySet(), p.topCustomers(3).keySet());
+        assertEquals(svc.orderValuePercentilesByTerritory(), p.orderValuePercentilesByTerritory());
+        assertEquals(svc.dataQualityChecks().toString(), p.dataQualityChecks().toString());
+    }
+
+    // Test partials of two halves merge into the whole-file answers
+    @Test
+    @DisplayName("Should merge partials of split files into the full result")
+    void testMergeSplitFiles(@TempDir Path dir) throws IOException {
+        List<Path> parts = split(SAMPLE_DATA, dir, 3);
+        AnalyticsService whole = new AnalyticsService(CsvSalesReader.streamSupplier(SAMPLE_DATA));
+
+        PartialAggregate merged = new PartialAggregate(500.0);
+        for (Path part : parts) {
+            merged.merge(new AnalyticsService(CsvSalesReader.streamSupplier(part)).partialAggregate(500.0));
+        }
+
+        assertEquals(whole.totalRevenue(), merged.totalRevenue(), 0.01);
+        assertEquals(whole.totalOrders(), merged.totalOrders());
+        assertEquals(whole.totalQuantity(), merged.totalQuantity());
+        assertEquals(whole.orderMetrics().distinctOrders(), merged.orderMetrics().distinctOrders());
+        assertEquals(whole.ordersByStatus(), merged.ordersByStatus());
+        assertEquals(whole.partitionHighValue(500.0), merged.partitionHighValue(500.0));
+        assertEquals(whole.topProducts(10).keySet(), merged.topProducts(10).keySet());
+        assertEquals(whole.topCustomers(10).keySet(), merged.topCustomers(10).keySet());
+        assertEquals(whole.monthlyRevenue().keySet(), merged.monthlyRevenue().keySet());
+        whole.revenueByRegion().forEach((k, v) -> assertEquals(v, merged.revenueByRegion().get(k), 0.01));
+        assertEquals(whole.dataQualityChecks().toString(), merged.dataQualityChecks().toString());
+
+        double p50 = whole.orderValuePercentilesByTerritory().get("EMEA").get("p50");
+        assertEquals(p50, merged.orderValuePercentilesByTerritory().get("EMEA").get("p50"), p50 * 0.05);
+    }
+
+    // Test the binary format round-trips every metric
+    @Test
+    @DisplayName("Should round-trip through the binary format")
+    void testRoundTrip(@TempDir Path dir) {
+        PartialAggregate p = new AnalyticsService(CsvSalesReader.streamSupplier(SAMPLE_DATA)).partialAggregate(500.0);
+        Path file = dir.resolve("sample.partial");
+        p.write(file);
+        PartialAggregate back = PartialAggregate.read(file);
+
+        assertEquals(p.totalRevenue(), back.totalRevenue());
+        assertEquals(p.orderMetrics(), back.orderMetrics());
+        assertEquals(p.revenueByYear(), back.revenueByYear());
+        assertEquals(p.monthlyRevenue(), back.monthlyRevenue());
+        assertEquals(p.topCustomers(20), back.topCustomers(20));
+        assertEquals(p.ordersByDealSize(), back.ordersByDealSize());
+        assertEquals(p.orderValuePercentilesByTerritory(), back.orderValuePercentilesByTerritory());
+        assertEquals(p.dataQualityChecks(), back.dataQualityChecks());
+        assertEquals(500.0, back.highValueThreshold());
+    }
+
+    // Test foreign data, other versions and mismatched thresholds are rejected
+    @Test
+    @DisplayName("Should reject foreign data, other versions and threshold mismatches")
+    void testRejectsIncompatible() throws IOException {
+        assertThrows(IllegalArgumentException.class,
+                () -> PartialAggregate.readFrom(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 0, 0, 0, 1})));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new PartialAggregate(500.0).writeTo(bytes);
+        byte[] data = bytes.toByteArray();
+        data[7] = 99;
+        assertThrows(IllegalArgumentException.class, () -> PartialAggregate.readFrom(new ByteArrayInputStream(data)));
+
+        PartialAggregate a = new PartialAggregate(500.0);
+        assertThrows(IllegalArgumentException.class, () -> a.merge(new PartialAggregate(1000.0)));
+        assertThrows(IllegalArgumentException.class, () -> a.partitionHighValue(1000.0));
+    }
+
+    // Test an empty partial reports zeros instead of failing
+    @Test
+    @DisplayName("Should report zeros when empty")
+    void testEmpty() {
+        PartialAggregate p = new PartialAggregate(500.0);
+
+        assertEquals(0.0, p.averageOrderValue());
+        assertEquals(0, p.orderMetrics().distinctOrders());
+        assertEquals(Map.of(false, 0L, true, 0L), p.partitionHighValue(500.0));
+        assertTrue(p.topProducts(5).isEmpty());
+    }
+
+    private static List<Path> split(Path csv, Path dir, int pieces) throws IOException {
+        List<String> lines = Files.readAllLines(csv);
+        String header = lines.get(0);
+        List<String> rows = lines.subList(1, lines.size());
+        List<Path> out = new ArrayList<>();
+        int per = (rows.size() + pieces - 1) / pieces;
+        for (int i = 0; i < pieces; i++) {
+            List<String> part = new ArrayList<>();
+            part.add(header);
+            part.addAll(rows.subList(i * per, Math.min(rows.size(), (i + 1) * per)));
+            Path file = dir.resolve("part" + i + ".csv");
+            Files.write(file, part);
+            out.add(file);
+        }
+        return out;
+    }
+}
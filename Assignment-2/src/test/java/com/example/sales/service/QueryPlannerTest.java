@@ -0,0 +1,99 @@
+package com.example.sales.service;
+
+import com.example.sales.dataset.SalesDataset;
+import com.example.sales.index.CategoryFilter;
+import com.example.sales.index.Dimension;
+import com.example.sales.reader.CsvSalesReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for QueryPlanner - validates path choice, cost estimates and planned execution. */
+@DisplayName("QueryPlanner Tests")
+class QueryPlannerTest {
+
+    private static final Path SAMPLE_DATA = Path.of("data/sales_data_sample.csv");
+
+    // Test a bare file prefers the mapped paths over the commons-csv parse
+    @Test
+    @DisplayName("Should prefer mapped scans over a bare file")
+    void testFileOnly() {
+        QueryPlanner planner = QueryPlanner.forFile(SAMPLE_DATA);
+        QueryPlan plan = planner.plan(Query.TOTAL_REVENUE);
+
+        assertEquals(AccessPath.ROW_CURSOR, plan.path());
+        assertTrue(plan.candidates().get(AccessPath.CSV_STREAM) > plan.cost());
+        assertEquals(2823, plan.estimatedRows(), 2823 * 0.2);
+        assertTrue(plan.explain().startsWith("ROW_CURSOR cost "));
+        assertTrue(plan.explain().contains("no column stats"));
+        assertNotEquals(AccessPath.CSV_STREAM, planner.plan(Query.TOP_CUSTOMERS).path());
+        assertNull(planner.stats());
+    }
+
+    // Test load-time statistics steer filtered queries to the index and scans to memory
+    @Test
+    @DisplayName("Should use dataset statistics to choose index or scan")
+    void testDataset() {
+        SalesDataset dataset = SalesDataset.load(CsvSalesReader.streamSupplier(SAMPLE_DATA));
+        QueryPlanner planner = QueryPlanner.forFile(SAMPLE_DATA).withDataset(dataset);
+        CategoryFilter emea = CategoryFilter.where(Dimension.TERRITORY, "EMEA");
+
+        assertEquals(AccessPath.DATASET_SCAN, planner.plan(Query.TOTAL_REVENUE).path());
+        QueryPlan filtered = planner.plan(Query.REVENUE_WHERE, emea);
+        assertEquals(AccessPath.DATASET_INDEX, filtered.path());
+        assertEquals(2823 / 4, filtered.estimatedRows(), 2823 * 0.05);
+        assertTrue(filtered.explain().contains("selectivity"));
+        assertEquals(AccessPath.DATASET_INDEX, planner.planPartition(500.0).path());
+        assertEquals(2823, planner.stats().rowCount());
+    }
+
+    // Test a partial aggregate wins for unfiltered queries at its own threshold only
+    @Test
+    @DisplayName("Should answer from a partial aggregate when it applies")
+    void testPartial() {
+        PartialAggregate partial = new AnalyticsService(CsvSalesReader.streamSupplier(SAMPLE_DATA)).partialAggregate(500.0);
+        QueryPlanner planner = QueryPlanner.forFile(SAMPLE_DATA).withPartial(partial);
+
+        assertEquals(AccessPath.PARTIAL_AGGREGATE, planner.plan(Query.TOP_CUSTOMERS).path());
+        assertEquals(AccessPath.PARTIAL_AGGREGATE, planner.planPartition(500.0).path());
+        assertNotEquals(AccessPath.PARTIAL_AGGREGATE, planner.planPartition(1000.0).path());
+        assertNotEquals(AccessPath.PARTIAL_AGGREGATE,
+                planner.plan(Query.COUNT_WHERE, CategoryFilter.where(Dimension.STATUS, "Shipped")).path());
+    }
+
+    // Test misuse of the planning entry points is rejected
+    @Test
+    @DisplayName("Should reject mismatched planning calls")
+    void testInvalid() {
+        QueryPlanner planner = QueryPlanner.forFile(SAMPLE_DATA);
+
+        assertThrows(IllegalArgumentException.class, () -> planner.plan(Query.PARTITION_HIGH_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> planner.plan(Query.TOTAL_ORDERS, CategoryFilter.all()));
+    }
+
+    // Test planned execution gives the same answers and records an explanation per query
+    @Test
+    @DisplayName("Should execute on the chosen path with unchanged results")
+    void testPlannedAnalytics() {
+        AnalyticsService expected = new AnalyticsService(CsvSalesReader.streamSupplier(SAMPLE_DATA));
+        SalesDataset dataset = SalesDataset.load(CsvSalesReader.streamSupplier(SAMPLE_DATA));
+        PlannedAnalytics planned = new PlannedAnalytics(QueryPlanner.forFile(SAMPLE_DATA).withDataset(dataset));
+        CategoryFilter large = CategoryFilter.where(Dimension.DEAL_SIZE, "Large");
+
+        assertEquals(expected.totalRevenue(), planned.totalRevenue(), 0.01);
+        assertEquals(expected.ordersByStatus(), planned.ordersByStatus());
+        assertEquals(expected.topCustomers(5).keySet(), planned.topCustomers(5).keySet());
+        assertEquals(expected.partitionHighValue(3000.0), planned.partitionHighValue(3000.0));
+        assertEquals(expected.revenueWhere(large), planned.revenueWhere(large), 0.01);
+        assertEquals(expected.countWhere(large), planned.countWhere(large));
+
+        Map<String, String> explained = planned.explain();
+        assertEquals(6, planned.plans().size());
+        assertTrue(explained.get("revenueWhere").startsWith("DATASET_INDEX"));
+        assertTrue(explained.get("totalRevenue").startsWith("DATASET_SCAN"));
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.sales.service;
+
+import com.example.sales.model.SalesRecord;
+import com.example.sales.reader.CsvSalesReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for SharedScanScheduler - validates shared passes, late arrivals and stream queries. */
+@DisplayName("SharedScanScheduler Tests")
+class SharedScanSchedulerTest {
+
+    private static final Path SAMPLE_DATA = Path.of("data/sales_data_sample.csv");
+
+    // Test collector queries give the same answers as a normal scan
+    @Test
+    @DisplayName("Should answer collector queries like AnalyticsService")
+    void testCollectorResults() throws Exception {
+        AnalyticsService expected = new AnalyticsService(CsvSalesReader.streamSupplier(SAMPLE_DATA));
+        try (SharedScanScheduler scans = new SharedScanScheduler(SAMPLE_DATA, 16 * 1024)) {
+            CompletableFuture<Double> revenue = scans.submit(Collectors.summingDouble(SalesRecord::revenue));
+            CompletableFuture<Long> rows = scans.submit(Collectors.counting());
+            CompletableFuture<PartialAggregate> report = scans.submit(PartialAggregate.collector(500.0));
+
+            assertEquals(expected.totalRevenue(), revenue.get(5, TimeUnit.SECONDS), 0.01);
+            assertEquals(expected.totalOrders(), rows.get(5, TimeUnit.SECONDS));
+            assertEquals(expected.ordersByStatus(), report.get(5, TimeUnit.SECONDS).ordersByStatus());
+        }
+    }
+
+    // Test a query arriving mid-scan joins it and wraps around instead of starting a new pass
+    @Test
+    @DisplayName("Should attach late queries to the running scan and wrap around")
+    void testLateArrivalWrapsAround() throws Exception {
+        double total = new AnalyticsService(CsvSalesReader.streamSupplier(SAMPLE_DATA)).totalRevenue();
+        try (SharedScanScheduler scans = new SharedScanScheduler(SAMPLE_DATA, 8 * 1024)) {
+            CountDownLatch lateSubmitted = new CountDownLatch(1);
+            CountDownLatch firstRow = new CountDownLatch(1);
+            CompletableFuture<Double> early = scans.submit(Collector.of(
+                    () -> new double[1],
+                    (acc, r) -> {
+                        if (firstRow.getCount() > 0) {
+                            firstRow.countDown();
+                            await(lateSubmitted);
+                        }
+                        acc[0] += r.revenue();
+                    },
+                    (a, b) -> a,
+                    acc -> acc[0]));
+            assertTrue(firstRow.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Double> late = scans.submit(Collectors.summingDouble(SalesRecord::revenue));
+            lateSubmitted.countDown();
+
+            assertEquals(total, early.get(5, TimeUnit.SECONDS), 0.01);
+            assertEquals(total, late.get(5, TimeUnit.SECONDS), 0.01);
+            assertTrue(scans.blockCount() > 10);
+            assertEquals(scans.blockCount() + 1, scans.blocksRead());
+        }
+    }
+
+    // Test concurrent AnalyticsService calls over streams share passes and agree with a plain scan
+    @Test
+    @DisplayName("Should serve concurrent AnalyticsService queries from shared scans")
+    void testConcurrentServices() throws Exception {
+        AnalyticsService expected = new AnalyticsService(CsvSalesReader.streamSupplier(SAMPLE_DATA));
+        try (SharedScanScheduler scans = new SharedScanScheduler(SAMPLE_DATA, 16 * 1024)) {
+            AnalyticsService shared = new AnalyticsService(scans::stream);
+            List<CompletableFuture<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(CompletableFuture.supplyAsync(shared::totalRevenue));
+                results.add(CompletableFuture.supplyAsync(shared::ordersByDealSize));
+            }
+
+            for (int i = 0; i < results.size(); i += 2) {
+                assertEquals(expected.totalRevenue(), (Double) results.get(i).get(10, TimeUnit.SECONDS), 0.01);
+                assertEquals(expected.ordersByDealSize(), results.get(i + 1).get(10, TimeUnit.SECONDS));
+            }
+            assertTrue(scans.blocksRead() < 8L * scans.blockCount());
+        }
+    }
+
+    // Test a stream closed early detaches without stalling other queries
+    @Test
+    @DisplayName("Should detach streams that are closed early")
+    void testEarlyClose() throws Exception {
+        try (SharedScanScheduler scans = new SharedScanScheduler(SAMPLE_DATA, 8 * 1024)) {
+            try (Stream<SalesRecord> s = scans.stream()) {
+                assertTrue(s.findFirst().isPresent());
+            }
+            assertEquals(2823L, scans.submit(Collectors.counting()).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    // Test closing the scheduler fails a stream that is blocked mid-consumption
+    @Test
+    @DisplayName("Should fail attached streams when the scheduler closes")
+    void testCloseWhileStreaming() throws Exception {
+        SharedScanScheduler scans = new SharedScanScheduler(SAMPLE_DATA, 8 * 1024);
+        CountDownLatch firstRow = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+        CompletableFuture<Long> consumed = CompletableFuture.supplyAsync(() -> {
+            try (Stream<SalesRecord> s = scans.stream()) {
+                return s.peek(r -> {
+                    if (firstRow.getCount() > 0) {
+                        firstRow.countDown();
+                        await(closed);
+                    }
+                }).count();
+            }
+        });
+        assertTrue(firstRow.await(5, TimeUnit.SECONDS));
+        scans.close();
+        closed.countDown();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> consumed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    // Test an unclosed, partly read stream is detached instead of stalling other queries
+    @Test
+    @DisplayName("Should detach abandoned streams so other queries complete")
+    void testAbandonedStream() throws Exception {
+        try (SharedScanScheduler scans = new SharedScanScheduler(SAMPLE_DATA, 8 * 1024, Duration.ofMillis(200))) {
+            Iterator<SalesRecord> abandoned = scans.stream().iterator();
+            assertTrue(abandoned.hasNext());
+            CompletableFuture<Long> rows = scans.submit(Collectors.counting());
+
+            assertEquals(2823L, rows.get(5, TimeUnit.SECONDS));
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> {
+                while (abandoned.hasNext()) {
+                    abandoned.next();
+                }
+            });
+            assertTrue(e.getMessage().contains("detached"));
+        }
+    }
+
+    // Test a header-only file completes at once and a closed scheduler refuses work
+    @Test
+    @DisplayName("Should complete on empty files and refuse work after close")
+    void testEmptyAndClosed(@TempDir Path dir) throws IOException {
+        Path empty = dir.resolve("empty.csv");
+        Files.writeString(empty, "ORDERNUMBER,ORDERDATE,CUSTOMERNAME,STATUS\n");
+        SharedScanScheduler scans = new SharedScanScheduler(empty);
+
+        assertEquals(0L, scans.submit(Collectors.counting()).join());
+        try (Stream<SalesRecord> s = scans.stream()) {
+            assertEquals(0, s.count());
+        }
+        scans.close();
+
+        SharedScanScheduler closed = new SharedScanScheduler(SAMPLE_DATA);
+        closed.close();
+        assertThrows(IllegalStateException.class, () -> closed.submit(Collectors.counting()));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.sales.sketch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for HyperLogLog - validates distinct-count accuracy and merging. */
+@DisplayName("HyperLogLog Tests")
+class HyperLogLogTest {
+
+    // Test small cardinalities come out exact through linear counting
+    @Test
+    @DisplayName("Should count small cardinalities exactly")
+    void testSmallExact() {
+        HyperLogLog h = new HyperLogLog();
+        for (int rep = 0; rep < 3; rep++) {
+            for (String s : new String[]{"Shipped", "Cancelled", "On Hold", "Disputed", "In Process", "Resolved"}) {
+                h.add(s);
+            }
+        }
+        h.add((String) null);
+        h.add(Double.NaN);
+
+        assertEquals(6, h.estimate());
+        assertEquals(0, new HyperLogLog().estimate());
+    }
+
+    // Test large cardinalities stay within a few standard errors
+    @Test
+    @DisplayName("Should estimate large cardinalities within error bounds")
+    void testLargeAccuracy() {
+        HyperLogLog h = new HyperLogLog();
+        int n = 200_000;
+        for (int i = 0; i < n; i++) {
+            h.add("customer-" + i);
+            h.add("customer-" + (i / 2));
+        }
+
+        assertEquals(n, h.estimate(), n * 0.05);
+    }
+
+    // Test merging partition sketches equals one sketch over everything
+    @Test
+    @DisplayName("Should merge partitions like a single sketch")
+    void testMerge() {
+        HyperLogLog whole = new HyperLogLog();
+        HyperLogLog a = new HyperLogLog();
+        HyperLogLog b = new HyperLogLog();
+        for (int i = 0; i < 50_000; i++) {
+            whole.add(i * 1.5);
+            (i % 2 == 0 ? a : b).add(i * 1.5);
+        }
+
+        assertEquals(whole.estimate(), a.merge(b).estimate());
+        assertThrows(IllegalArgumentException.class, () -> a.merge(new HyperLogLog(10)));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+    }
+}
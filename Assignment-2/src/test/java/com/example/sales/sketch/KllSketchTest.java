@@ -0,0 +1,106 @@
+package com.example.sales.sketch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for KllSketch - validates quantile accuracy, bounded memory and merging. */
+@DisplayName("KllSketch Tests")
+class KllSketchTest {
+
+    // Test exact answers while the sketch has not compacted yet
+    @Test
+    @DisplayName("Should answer exactly for small inputs")
+    void testSmallExact() {
+        KllSketch s = new KllSketch();
+        for (int i = 1; i <= 100; i++) {
+            s.update(i);
+        }
+
+        assertEquals(100, s.count());
+        assertEquals(50.0, s.quantile(0.5));
+        assertEquals(90.0, s.quantile(0.9));
+        assertEquals(1.0, s.quantile(0.0));
+        assertEquals(100.0, s.quantile(1.0));
+        assertEquals(0.25, s.rank(25.0), 1e-9);
+    }
+
+    // Test rank error and retained size on a large stream
+    @Test
+    @DisplayName("Should stay within rank error and bounded memory for large streams")
+    void testLargeStreamAccuracy() {
+        Random rnd = new Random(1);
+        double[] data = new double[200_000];
+        KllSketch s = new KllSketch();
+        for (int i = 0; i < data.length; i++) {
+            data[i] = rnd.nextDouble() * 10_000;
+            s.update(data[i]);
+        }
+        Arrays.sort(data);
+
+        for (double q : new double[]{0.1, 0.5, 0.9, 0.99}) {
+            double estimate = s.quantile(q);
+            int rank = Arrays.binarySearch(data, estimate);
+            assertEquals(q, (double) rank / data.length, 0.02, "q=" + q);
+        }
+        assertTrue(s.retainedItems() < 2_000, "retained " + s.retainedItems());
+    }
+
+    // Test merging partition sketches approximates one sketch over all data
+    @Test
+    @DisplayName("Should merge partition sketches")
+    void testMerge() {
+        KllSketch merged = IntStream.range(0, 100_000).parallel().boxed()
+                .collect(KllSketch.collector(Integer::doubleValue));
+
+        assertEquals(100_000, merged.count());
+        assertEquals(0.0, merged.min());
+        assertEquals(99_999.0, merged.max());
+        assertEquals(50_000.0, merged.quantile(0.5), 2_000.0);
+        assertEquals(99_000.0, merged.quantile(0.99), 2_000.0);
+    }
+
+    // Test empty sketch and invalid arguments
+    @Test
+    @DisplayName("Should handle empty sketches and invalid arguments")
+    void testEmptyAndInvalid() {
+        KllSketch s = new KllSketch();
+        s.update(Double.NaN);
+
+        assertTrue(s.isEmpty());
+        assertTrue(Double.isNaN(s.quantile(0.5)));
+        assertThrows(IllegalArgumentException.class, () -> s.quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> new KllSketch(2));
+    }
+
+    // Test serialized sketches restore identical state and keep merging
+    @Test
+    @DisplayName("Should round-trip through DataOutput")
+    void testSerialization() throws IOException {
+        KllSketch s = new KllSketch();
+        new Random(7).doubles(50_000).forEach(s::update);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        s.writeTo(new DataOutputStream(bytes));
+
+        KllSketch back = KllSketch.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(s.count(), back.count());
+        assertEquals(s.retainedItems(), back.retainedItems());
+        for (double q : new double[] {0.0, 0.1, 0.5, 0.9, 0.99, 1.0}) {
+            assertEquals(s.quantile(q), back.quantile(q));
+        }
+        back.merge(s);
+        assertEquals(100_000, back.count());
+        assertEquals(0.5, back.quantile(0.5), 0.02);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.sales.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for IntAccumulatorMap - validates open-addressing accumulation and merging. */
+@DisplayName("IntAccumulatorMap Tests")
+class IntAccumulatorMapTest {
+
+    // Test accumulating counts and sums per key
+    @Test
+    @DisplayName("Should accumulate count and sum per key")
+    void testAdd() {
+        IntAccumulatorMap map = new IntAccumulatorMap();
+        map.add(10107, 100.0);
+        map.add(10107, 50.0);
+        map.add(0, 1.0);
+        map.add(-5, 2.0);
+
+        assertEquals(3, map.size());
+        assertEquals(2, map.count(10107));
+        assertEquals(150.0, map.sum(10107));
+        assertEquals(1, map.count(0));
+        assertEquals(1, map.count(-5));
+        assertEquals(0, map.count(42));
+        assertEquals(0.0, map.sum(42));
+    }
+
+    // Test growth keeps every key against a HashMap reference
+    @Test
+    @DisplayName("Should grow and match a boxed reference map")
+    void testGrowth() {
+        IntAccumulatorMap map = new IntAccumulatorMap(2);
+        Map<Integer, Integer> ref = new HashMap<>();
+        Random rnd = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            int key = rnd.nextInt(20_000);
+            map.add(key, 1.0);
+            ref.merge(key, 1, Integer::sum);
+        }
+
+        assertEquals(ref.size(), map.size());
+        ref.forEach((k, v) -> assertEquals(v.intValue(), map.count(k)));
+    }
+
+    // Test merging partitions
+    @Test
+    @DisplayName("Should merge partitions")
+    void testMerge() {
+        IntAccumulatorMap a = new IntAccumulatorMap();
+        IntAccumulatorMap b = new IntAccumulatorMap();
+        a.add(1, 10.0);
+        b.add(1, 5.0);
+        b.add(2, 7.0);
+
+        a.merge(b);
+
+        assertEquals(2, a.size());
+        assertEquals(2, a.count(1));
+        assertEquals(15.0, a.sum(1));
+        assertEquals(7.0, a.sum(2));
+    }
+
+    // Test rejecting non-positive counts
+    @Test
+    @DisplayName("Should reject non-positive counts")
+    void testInvalidCount() {
+        assertThrows(IllegalArgumentException.class, () -> new IntAccumulatorMap().add(1, 0, 1.0));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.sales.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for LongCountMap - validates open-addressing counting and merging. */
+@DisplayName("LongCountMap Tests")
+class LongCountMapTest {
+
+    // Test counting per key, including keys that differ only in the high half
+    @Test
+    @DisplayName("Should count occurrences per key")
+    void testIncrement() {
+        LongCountMap map = new LongCountMap();
+        map.increment(1L << 32 | 7);
+        map.increment(1L << 32 | 7);
+        map.increment(2L << 32 | 7);
+        map.add(-1L, 5);
+
+        assertEquals(3, map.size());
+        assertEquals(2, map.count(1L << 32 | 7));
+        assertEquals(1, map.count(2L << 32 | 7));
+        assertEquals(5, map.count(-1L));
+        assertEquals(0, map.count(7L));
+        assertThrows(IllegalArgumentException.class, () -> map.add(3L, 0));
+    }
+
+    // Test growth keeps every key against a HashMap reference
+    @Test
+    @DisplayName("Should grow and match a boxed reference map")
+    void testGrowth() {
+        LongCountMap map = new LongCountMap(2);
+        Map<Long, Integer> ref = new HashMap<>();
+        Random rnd = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            long key = (long) rnd.nextInt(150) << 32 | rnd.nextInt(150);
+            map.increment(key);
+            ref.merge(key, 1, Integer::sum);
+        }
+
+        assertEquals(ref.size(), map.size());
+        ref.forEach((k, v) -> assertEquals(v.intValue(), map.count(k)));
+    }
+
+    // Test merging partitions
+    @Test
+    @DisplayName("Should merge partitions")
+    void testMerge() {
+        LongCountMap a = new LongCountMap();
+        LongCountMap b = new LongCountMap();
+        a.increment(1L);
+        b.increment(1L);
+        b.add(2L, 3);
+
+        a.merge(b);
+
+        assertEquals(2, a.size());
+        assertEquals(2, a.count(1L));
+        assertEquals(3, a.count(2L));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.sales.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for NumberParser - validates exception-free parsing and status codes. */
+@DisplayName("NumberParser Tests")
+class NumberParserTest {
+
+    private final NumberParser parser = new NumberParser();
+
+    // Test valid integers with signs and surrounding whitespace
+    @Test
+    @DisplayName("Should parse valid integers")
+    void testParseInt() {
+        assertEquals(NumberParser.OK, parser.parseInt(" 42 "));
+        assertEquals(42, parser.intValue());
+        assertEquals(NumberParser.OK, parser.parseInt("-2147483648"));
+        assertEquals(Integer.MIN_VALUE, parser.intValue());
+        assertEquals(NumberParser.OK, parser.parseInt("+7"));
+        assertEquals(7, parser.intValue());
+    }
+
+    // Test invalid integers return status codes instead of throwing
+    @Test
+    @DisplayName("Should report empty, malformed and out-of-range integers")
+    void testParseIntStatus() {
+        assertEquals(NumberParser.EMPTY, parser.parseInt("   "));
+        assertEquals(NumberParser.EMPTY, parser.parseInt(null));
+        assertEquals(NumberParser.MALFORMED, parser.parseInt("invalid"));
+        assertEquals(NumberParser.MALFORMED, parser.parseInt("12.5"));
+        assertEquals(NumberParser.MALFORMED, parser.parseInt("-"));
+        assertEquals(NumberParser.OUT_OF_RANGE, parser.parseInt("2147483648"));
+        assertEquals(NumberParser.OUT_OF_RANGE, parser.parseInt("99999999999999999999"));
+    }
+
+    // Test valid doubles in plain and exponent forms
+    @Test
+    @DisplayName("Should parse valid doubles")
+    void testParseDouble() {
+        assertEquals(NumberParser.OK, parser.parseDouble("2871"));
+        assertEquals(2871.0, parser.doubleValue());
+        assertEquals(NumberParser.OK, parser.parseDouble("95.7"));
+        assertEquals(95.7, parser.doubleValue());
+        assertEquals(NumberParser.OK, parser.parseDouble("-.5"));
+        assertEquals(-0.5, parser.doubleValue());
+        assertEquals(NumberParser.OK, parser.parseDouble("1.5e3"));
+        assertEquals(1500.0, parser.doubleValue());
+        assertEquals(NumberParser.OK, parser.parseDouble("3."));
+        assertEquals(3.0, parser.doubleValue());
+    }
+
+    // Test malformed doubles
+    @Test
+    @DisplayName("Should report malformed and out-of-range doubles")
+    void testParseDoubleStatus() {
+        assertEquals(NumberParser.EMPTY, parser.parseDouble(""));
+        assertEquals(NumberParser.MALFORMED, parser.parseDouble("abc"));
+        assertEquals(NumberParser.MALFORMED, parser.parseDouble("1,234.00"));
+        assertEquals(NumberParser.MALFORMED, parser.parseDouble("1e"));
+        assertEquals(NumberParser.MALFORMED, parser.parseDouble("."));
+        assertEquals(NumberParser.MALFORMED, parser.parseDouble("NaN"));
+        assertEquals(NumberParser.OUT_OF_RANGE, parser.parseDouble("1e400"));
+    }
+
+    // Test results are bit-identical to Double.parseDouble on random inputs
+    @Test
+    @DisplayName("Should match Double.parseDouble exactly")
+    void testMatchesJdk() {
+        Random rnd = new Random(11);
+        for (int i = 0; i < 20_000; i++) {
+            String s = switch (i % 4) {
+                case 0 -> Long.toString(rnd.nextLong() % 10_000_000);
+                case 1 -> String.format("%.2f", rnd.nextDouble() * 100_000);
+                case 2 -> Double.toString(rnd.nextDouble() * Math.pow(10, rnd.nextInt(40) - 20));
+                default -> "0.000" + Math.abs(rnd.nextLong()) + "12345678901234";
+            };
+            assertEquals(NumberParser.OK, parser.parseDouble(s), s);
+            assertEquals(Double.parseDouble(s), parser.doubleValue(), 0.0, s);
+        }
+    }
+
+    // Test parsing a sub-range of a larger sequence
+    @Test
+    @DisplayName("Should parse a field range without copying")
+    void testRange() {
+        String line = "10107,30,95.7";
+        assertEquals(NumberParser.OK, parser.parseInt(line, 6, 8));
+        assertEquals(30, parser.intValue());
+        assertEquals(NumberParser.OK, parser.parseDouble(line, 9, line.length()));
+        assertEquals(95.7, parser.doubleValue());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.sales.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Tests for StringPool - validates canonicalization from strings and byte slices. */
+@DisplayName("StringPool Tests")
+class StringPoolTest {
+
+    // Test equal strings map to one instance
+    @Test
+    @DisplayName("Should return the same instance for equal values")
+    void testInternString() {
+        StringPool pool = new StringPool();
+        String first = pool.intern(new String("Shipped"));
+        String second = pool.intern(new String("Shipped"));
+
+        assertSame(first, second);
+        assertEquals(1, pool.size());
+        assertNull(pool.intern(null));
+    }
+
+    // Test byte-slice lookups hit the same canonical instance without decoding
+    @Test
+    @DisplayName("Should resolve byte slices to the pooled instance")
+    void testInternBytes() {
+        StringPool pool = new StringPool();
+        String canonical = pool.intern("EMEA");
+        ByteBuffer buf = ByteBuffer.wrap("NA,EMEA,APAC".getBytes(StandardCharsets.US_ASCII));
+
+        assertSame(canonical, pool.intern(buf, 3, 4));
+        String na = pool.intern(buf, 0, 2);
+        assertEquals("NA", na);
+        assertSame(na, pool.intern("NA"));
+        assertEquals("", pool.intern(buf, 0, 0));
+    }
+
+    // Test non-ASCII values agree between string and byte lookups
+    @Test
+    @DisplayName("Should handle non-ASCII values consistently")
+    void testNonAscii() {
+        StringPool pool = new StringPool();
+        String city = pool.intern("Malmö");
+        ByteBuffer buf = ByteBuffer.wrap("Malmö".getBytes(StandardCharsets.UTF_8));
+
+        assertSame(city, pool.intern(buf, 0, buf.capacity()));
+    }
+
+    // Test the size cap stops pooling new values but keeps returning correct strings
+    @Test
+    @DisplayName("Should stop pooling at the size cap")
+    void testSizeCap() {
+        StringPool pool = new StringPool(2, StandardCharsets.UTF_8);
+        pool.intern("a");
+        pool.intern("b");
+        String c1 = pool.intern(new String("c"));
+        String c2 = pool.intern(new String("c"));
+
+        assertEquals(2, pool.size());
+        assertEquals("c", c1);
+        assertNotSame(c1, c2);
+    }
+
+    // Test growth past the initial table capacity
+    @Test
+    @DisplayName("Should grow and keep all values")
+    void testGrowth() {
+        StringPool pool = new StringPool();
+        for (int i = 0; i < 1000; i++) {
+            pool.intern("v" + i);
+        }
+        assertEquals(1000, pool.size());
+        assertSame(pool.intern("v500"), pool.intern(new String("v500")));
+    }
+}